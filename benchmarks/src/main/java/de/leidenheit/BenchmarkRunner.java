@@ -0,0 +1,36 @@
+package de.leidenheit;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+
+/**
+ * Runs the benchmarks with the allocation profiler enabled. Accepts the usual
+ * JMH command line options, e.g. a benchmark regex or -p imageSet=dartsboard/temp.
+ */
+public final class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        final var jvmArgs = new ArrayList<String>();
+        jvmArgs.add("-Djava.awt.headless=true");
+        final var libraryPath = System.getProperty(BenchmarkSupport.OPENCV_LIBRARY_PROPERTY);
+        if (libraryPath != null) {
+            jvmArgs.add("-D" + BenchmarkSupport.OPENCV_LIBRARY_PROPERTY + "=" + libraryPath);
+        }
+        final var options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .jvmArgsAppend(jvmArgs.toArray(String[]::new))
+            .build();
+        new Runner(options).run();
+    }
+
+    private BenchmarkRunner() {
+        // hide constructor
+    }
+}
@@ -0,0 +1,44 @@
+package de.leidenheit;
+
+import java.util.List;
+
+/**
+ * Shared setup of the benchmarks. Benchmarks resolve images relative to the
+ * working directory, so they have to be started from the repository root.
+ */
+final class BenchmarkSupport {
+
+    static final String OPENCV_LIBRARY_PROPERTY = "opencv.library";
+
+    /**
+     * Loads the OpenCV native library with {@link NativeLibraryLoader}, e.g. from the path
+     * given by the system property opencv.library.
+     */
+    static void loadOpenCv() {
+        NativeLibraryLoader.load();
+    }
+
+    static CalibrationData loadCalibration() {
+        final var mats = CameraCalibrator.loadCalibration(
+            "src/resources/camera-matrix.bin",
+            "src/resources/distortion-coefficients.bin");
+        return new CalibrationData(mats[0], mats[1], null, null, Double.NaN);
+    }
+
+    static List<String> imagePaths(final String resourcePath) {
+        final var imagePaths = new ResourceProvider()
+            .findFilePathsFromResourcePath(resourcePath)
+            .stream()
+            .filter(path -> path.endsWith(".jpg"))
+            .sorted()
+            .toList();
+        if (imagePaths.isEmpty()) {
+            throw new IllegalStateException("No images found in src/resources/" + resourcePath);
+        }
+        return imagePaths;
+    }
+
+    private BenchmarkSupport() {
+        // hide constructor
+    }
+}
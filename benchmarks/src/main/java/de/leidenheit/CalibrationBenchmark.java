@@ -0,0 +1,84 @@
+package de.leidenheit;
+
+import org.opencv.imgcodecs.Imgcodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks corner detection and calibration of {@link CameraCalibrator}.
+ * Calibration results are not written to src/resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CalibrationBenchmark {
+
+    @Param({"chessboard/1080p", "chessboard/1920_1446"})
+    public String imageSet;
+
+    private CameraParameter cameraParameter;
+    private List<String> imagePaths;
+    private ChessboardData chessboardData;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkSupport.loadOpenCv();
+        imagePaths = BenchmarkSupport.imagePaths(imageSet);
+        final var firstImage = Imgcodecs.imread(imagePaths.get(0));
+        final var defaultParameter = CameraParameter.defaultParameter();
+        cameraParameter = new CameraParameter(
+            firstImage.width(),
+            firstImage.height(),
+            defaultParameter.calibrationPatternWidth(),
+            defaultParameter.calibrationPatternHeight(),
+            defaultParameter.calibrationChessboardSquareSizeInMillimeter(),
+            defaultParameter.scaleFactor());
+
+        chessboardData = ChessboardData.init();
+        for (String imagePath : imagePaths) {
+            CameraCalibrator.findCorners(
+                imagePath,
+                cameraParameter,
+                chessboardData,
+                (original, processed) -> { });
+        }
+        if (chessboardData.imagePoints().isEmpty()) {
+            throw new IllegalStateException("No chessboard corners found in " + imageSet);
+        }
+    }
+
+    @Benchmark
+    public boolean findCorners() {
+        index = (index + 1) % imagePaths.size();
+        return CameraCalibrator.findCorners(
+            imagePaths.get(index),
+            cameraParameter,
+            ChessboardData.init(),
+            (original, processed) -> { });
+    }
+
+    @Benchmark
+    public CalibrationData calibrate() {
+        return CameraCalibrator.calibrate(
+            cameraParameter,
+            chessboardData,
+            false);
+    }
+}
@@ -0,0 +1,236 @@
+package de.leidenheit;
+
+import org.opencv.aruco.Aruco;
+import org.opencv.core.Mat;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.Scalar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the detection stages of {@link DetectionUtil} and {@link CircleDetector}.
+ * Every stage consumes the precomputed output of the previous stage, so each
+ * stage is measured in isolation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DetectionBenchmark {
+
+    @Param({"dartsboard/1920_1446", "dartsboard/temp", "dartsboard/temp_140"})
+    public String imageSet;
+
+    @Param({"0.5", "1.0"})
+    public double scaleFactor;
+
+    private CameraParameter cameraParameter;
+    private CalibrationData calibrationData;
+    private ContourParameter contourParameter;
+    private List<String> imagePaths;
+    private List<Mat> undistortedImages;
+    private List<Mat> roiImages;
+    private List<RansacEllipseDetector> seededDetectors;
+    private List<RotatedRect> boardEllipses;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkSupport.loadOpenCv();
+        final var defaultParameter = CameraParameter.defaultParameter();
+        cameraParameter = new CameraParameter(
+            defaultParameter.cameraResolutionWidth(),
+            defaultParameter.cameraResolutionHeight(),
+            defaultParameter.calibrationPatternWidth(),
+            defaultParameter.calibrationPatternHeight(),
+            defaultParameter.calibrationChessboardSquareSizeInMillimeter(),
+            scaleFactor);
+        calibrationData = BenchmarkSupport.loadCalibration();
+        contourParameter = new ContourParameter(
+            11,
+            50,
+            150,
+            6,
+            2,
+            50,
+            0.01,
+            new Scalar(31, 240, 255),
+            2);
+        imagePaths = BenchmarkSupport.imagePaths(imageSet);
+
+        undistortedImages = new ArrayList<>();
+        roiImages = new ArrayList<>();
+        for (String imagePath : imagePaths) {
+            final var undistortedImage = DetectionUtil.distortFunction(
+                imagePath,
+                cameraParameter,
+                calibrationData,
+                false);
+            undistortedImages.add(undistortedImage);
+            try {
+                final var roiImage = extractRoi(undistortedImage);
+                if (roiImage != null) {
+                    roiImages.add(roiImage);
+                }
+            } catch (RuntimeException exception) {
+                // markers not detected in this image
+            }
+        }
+        if (roiImages.isEmpty()) {
+            throw new IllegalStateException("No ArUco ROI could be extracted from " + imageSet);
+        }
+        // one detector per ROI primed with its ellipse, like a stream of a static board
+        seededDetectors = new ArrayList<>();
+        boardEllipses = new ArrayList<>();
+        for (var roiImage : roiImages) {
+            final var detector = new RansacEllipseDetector(EllipseRansacParameter.defaultParameter());
+            try (final var frameContext = new FrameContext(roiImage)) {
+                detector.detect(frameContext);
+            }
+            seededDetectors.add(detector);
+            boardEllipses.add(BoardAnalyzer.findBoardEllipse(roiImage, contourParameter));
+        }
+    }
+
+    @Benchmark
+    public Mat distortFunction() {
+        return DetectionUtil.distortFunction(
+            imagePaths.get(next(imagePaths.size())),
+            cameraParameter,
+            calibrationData,
+            false);
+    }
+
+    @Benchmark
+    public Mat extractArucoROI() {
+        try {
+            return extractRoi(undistortedImages.get(next(undistortedImages.size())));
+        } catch (RuntimeException exception) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public List<ContourData> findContours() {
+        return DetectionUtil.findContours(
+            roiImages.get(next(roiImages.size())),
+            contourParameter,
+            false,
+            false);
+    }
+
+    @Benchmark
+    public CircleDetectionResult houghBull() {
+        return CircleDetector.detectRing(
+            roiImages.get(next(roiImages.size())),
+            DartboardRadianFactor.BULL,
+            CircleParameter.defaultParameter());
+    }
+
+    @Benchmark
+    public CircleDetectionResult houghOuterDouble() {
+        return CircleDetector.detectRing(
+            roiImages.get(next(roiImages.size())),
+            DartboardRadianFactor.QUADRANT_OUTER_DOUBLE,
+            CircleParameter.defaultParameter());
+    }
+
+    @Benchmark
+    public RotatedRect contourEllipse() {
+        return BoardAnalyzer.findBoardEllipse(roiImages.get(next(roiImages.size())), contourParameter);
+    }
+
+    @Benchmark
+    public RotatedRect ransacEllipse() {
+        try (final var frameContext = new FrameContext(roiImages.get(next(roiImages.size())))) {
+            return new RansacEllipseDetector(EllipseRansacParameter.defaultParameter()).detect(frameContext);
+        }
+    }
+
+    /**
+     * RANSAC seeded with the ellipse of the previous frame of the same ROI.
+     */
+    @Benchmark
+    public RotatedRect ransacEllipseSeeded() {
+        final var roiIndex = next(roiImages.size());
+        try (final var frameContext = new FrameContext(roiImages.get(roiIndex))) {
+            return seededDetectors.get(roiIndex).detect(frameContext);
+        }
+    }
+
+    /**
+     * All rings around the precomputed board ellipse from one hierarchy pass; compare with
+     * {@link #houghOuterDouble} and {@link #houghBull} which find one ring each.
+     */
+    @Benchmark
+    public BoardRings ringHierarchy() {
+        final var roiIndex = next(roiImages.size());
+        final var boardEllipse = boardEllipses.get(roiIndex);
+        if (boardEllipse == null) {
+            return null;
+        }
+        return RingExtractor.extract(roiImages.get(roiIndex), boardEllipse, RingParameter.defaultParameter());
+    }
+
+    /**
+     * Ring radii and sector wires from the polar unwrap around the precomputed board ellipse.
+     */
+    @Benchmark
+    public PolarBoardGeometry polarUnwrap() {
+        final var roiIndex = next(roiImages.size());
+        final var boardEllipse = boardEllipses.get(roiIndex);
+        if (boardEllipse == null) {
+            return null;
+        }
+        return PolarUnwrapEngine.analyze(
+            roiImages.get(roiIndex),
+            boardEllipse,
+            PolarUnwrapParameter.defaultParameter());
+    }
+
+    /**
+     * Contours and both hough rings on one ROI sharing a {@link FrameContext};
+     * compare with the sum of {@link #findContours}, {@link #houghBull} and {@link #houghOuterDouble}.
+     */
+    @Benchmark
+    public CircleDetectionResult sharedFrameContext() {
+        final var circleParameter = CircleParameter.defaultParameter();
+        try (final var frameContext = new FrameContext(roiImages.get(next(roiImages.size())))) {
+            DetectionUtil.findContours(frameContext, contourParameter, false, false);
+            CircleDetector.detectRing(frameContext, DartboardRadianFactor.QUADRANT_OUTER_DOUBLE, circleParameter);
+            return CircleDetector.detectRing(frameContext, DartboardRadianFactor.BULL, circleParameter);
+        }
+    }
+
+    private Mat extractRoi(final Mat undistortedImage) {
+        return DetectionUtil.extractArucoROI(
+            undistortedImage,
+            Aruco.DICT_6X6_250,
+            BoardAnalyzer.ROI_SIZE,
+            BoardAnalyzer.ROI_SIZE,
+            true,
+            false,
+            false);
+    }
+
+    private int next(final int size) {
+        index = (index + 1) % size;
+        return index;
+    }
+}
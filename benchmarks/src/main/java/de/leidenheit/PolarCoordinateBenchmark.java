@@ -0,0 +1,81 @@
+package de.leidenheit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.Size;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.rmi.UnexpectedException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the polar coordinate helpers used for scoring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolarCoordinateBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    private final Point center = new Point(480, 480);
+    private final Point[] points = new Point[SAMPLES];
+    private final double[] angles = new double[SAMPLES];
+    private PolarCoordinateValueAngleRange valueAngleRange;
+    private Mat frame;
+    private RotatedRect boardEllipse;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        BenchmarkSupport.loadOpenCv();
+        final var random = new Random(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            points[i] = new Point(random.nextInt(960), random.nextInt(960));
+            angles[i] = 0.0001 + random.nextDouble() * 359.9999;
+        }
+        valueAngleRange = PolarCoordinateValueAngleRange.getInstance();
+        frame = Mat.zeros(960, 960, CvType.CV_8UC3);
+        boardEllipse = new RotatedRect(center, new Size(820, 790), 3);
+    }
+
+    @Benchmark
+    public double[] determineRadiusAndAngleFromPointRelativeToCenter() {
+        index = (index + 1) % SAMPLES;
+        return DetectionUtil.determineRadiusAndAngleFromPointRelativeToCenter(center, points[index]);
+    }
+
+    @Benchmark
+    public Mat drawPolarCoordinateSystemCached() {
+        DetectionUtil.drawPolarCoordinateSystem(frame, boardEllipse, false);
+        return frame;
+    }
+
+    @Benchmark
+    public Mat drawPolarCoordinateGrid() {
+        DetectionUtil.drawPolarCoordinateGrid(frame, boardEllipse, DetectionUtil.POLAR_COORDINATE_COLOR, false);
+        return frame;
+    }
+
+    @Benchmark
+    public Integer findValueByAngle() throws UnexpectedException {
+        index = (index + 1) % SAMPLES;
+        return valueAngleRange.findValueByAngle(angles[index]);
+    }
+}
@@ -0,0 +1,36 @@
+package de.leidenheit;
+
+import org.opencv.core.RotatedRect;
+
+public record BoardAnalysisResult(
+    String imagePath,
+    boolean success,
+    RotatedRect boardEllipse,
+    DartboardSectorLimits sectorLimits,
+    CircleDetectionResult bullCircles,
+    long processingNanos,
+    String failureReason
+) {
+
+    /**
+     * Instantiates a failed {@link BoardAnalysisResult}.
+     *
+     * @param imagePath path of the analyzed image
+     * @param processingNanos time spent until the failure
+     * @param failureReason reason of the failure
+     * @return {@link BoardAnalysisResult}
+     */
+    public static BoardAnalysisResult failure(
+        final String imagePath,
+        final long processingNanos,
+        final String failureReason) {
+        return new BoardAnalysisResult(
+            imagePath,
+            false,
+            null,
+            null,
+            CircleDetectionResult.empty(),
+            processingNanos,
+            failureReason);
+    }
+}
@@ -0,0 +1,214 @@
+package de.leidenheit;
+
+import org.opencv.aruco.Aruco;
+import org.opencv.core.Mat;
+import org.opencv.core.RotatedRect;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class BoardAnalyzer {
+
+    private static final Logger LOGGER = Logger.getLogger(BoardAnalyzer.class.getSimpleName());
+
+    static final int ROI_SIZE = 960;
+    static final double ELLIPSE_AREA_THRESHOLD_LOW = 500_000;
+    static final double ELLIPSE_AREA_THRESHOLD_HIGH = 2_500_000;
+    private static final boolean RANSAC_ELLIPSE = "ransac".equals(System.getProperty("board.ellipse", "contours"));
+    private static final String RING_SOURCE = System.getProperty("board.rings", "factors");
+    private static final SampledLog NO_RINGS_LOG = SampledLog.everyMillis(1_000);
+
+    /**
+     * Runs the headless board detection on a single image: undistortion,
+     * ArUco ROI extraction, outer ellipse search, sector limits and bull detection.
+     * With {@code -Dboard.ellipse=ransac} the outer ellipse is found by the
+     * {@link RansacEllipseDetector} instead of the contour search; with {@code -Dboard.rings=hierarchy}
+     * or {@code -Dboard.rings=polar} the sector limits are measured by the {@link RingExtractor} or the
+     * {@link PolarUnwrapEngine} instead of derived from the ellipse width.
+     * All intermediate {@link Mat}s are owned by the calling thread.
+     *
+     * @param imagePath absolute path of the board image
+     * @param cameraParameter {@link CameraParameter}
+     * @param calibrationData {@link CalibrationData} which is only read
+     * @param contourParameter {@link ContourParameter}
+     * @param circleParameter {@link CircleParameter}
+     * @return {@link BoardAnalysisResult}
+     */
+    public static BoardAnalysisResult analyze(
+        final String imagePath,
+        final CameraParameter cameraParameter,
+        final CalibrationData calibrationData,
+        final ContourParameter contourParameter,
+        final CircleParameter circleParameter) {
+
+        final var metrics = PipelineMetrics.getInstance();
+        final var start = System.nanoTime();
+        final var frameEvent = PipelineStageEvent.begin(PipelineStage.FRAME);
+        try {
+            final var roiImage = extractRoi(imagePath, cameraParameter, calibrationData);
+            if (roiImage == null) {
+                metrics.recordFrame(start);
+                return BoardAnalysisResult.failure(imagePath, System.nanoTime() - start, "no aruco roi");
+            }
+
+            try (final var frameContext = new FrameContext(roiImage)) {
+                final var geometry = measureGeometry(frameContext, contourParameter);
+                if (geometry == null) {
+                    metrics.recordFrame(start);
+                    return BoardAnalysisResult.failure(imagePath, System.nanoTime() - start, "no ellipse within area threshold");
+                }
+                final var boardEllipse = geometry.boardEllipse();
+                final var sectorLimits = geometry.sectorLimits();
+                final var bullCircles = CircleDetector.detectRing(
+                    frameContext,
+                    DartboardRadianFactor.BULL,
+                    circleParameter);
+                metrics.recordFrame(start);
+                metrics.recordScoredFrame();
+                EventJournal.getInstance().recordGeometry(boardEllipse, sectorLimits);
+                return new BoardAnalysisResult(
+                    imagePath,
+                    true,
+                    boardEllipse,
+                    sectorLimits,
+                    bullCircles,
+                    System.nanoTime() - start,
+                    null);
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.warning(String.format("Analysis of %s failed: %s", imagePath, exception));
+            DiagnosticRing.getInstance().dump("analysis of " + imagePath + " failed");
+            metrics.recordDetectionFailure(PipelineStage.FRAME);
+            metrics.recordFrame(start);
+            return BoardAnalysisResult.failure(imagePath, System.nanoTime() - start, exception.toString());
+        } finally {
+            frameEvent.complete(null, -1, -1);
+        }
+    }
+
+    /**
+     * Measures the outer board ellipse and the sector limits of a ROI like
+     * {@link #analyze}, honoring {@code board.ellipse} and {@code board.rings}.
+     *
+     * @param frameContext {@link FrameContext} of the ROI
+     * @param contourParameter {@link ContourParameter} of the contour search
+     * @return {@link BoardGeometry} or null if no board ellipse was found
+     */
+    static BoardGeometry measureGeometry(final FrameContext frameContext, final ContourParameter contourParameter) {
+        // every search starts unseeded; callers measure unrelated images or a single reference ROI
+        final var boardEllipse = RANSAC_ELLIPSE
+            ? new RansacEllipseDetector(EllipseRansacParameter.defaultParameter()).detect(frameContext)
+            : findBoardEllipse(frameContext, contourParameter);
+        if (boardEllipse == null) {
+            return null;
+        }
+        final var scoringStart = System.nanoTime();
+        final var scoringEvent = PipelineStageEvent.begin(PipelineStage.SCORING);
+        // the polar geometry also corrects the hit angles, so it is kept for scoring
+        final var polarGeometry = "polar".equals(RING_SOURCE)
+            ? PolarUnwrapEngine.analyze(frameContext, boardEllipse, PolarUnwrapParameter.defaultParameter())
+            : null;
+        final var sectorLimits = polarGeometry != null
+            ? polarGeometry.sectorLimits()
+            : measureSectorLimits(frameContext, boardEllipse);
+        scoringEvent.complete(frameContext.image(), -1, -1);
+        PipelineMetrics.getInstance().recordStage(PipelineStage.SCORING, scoringStart);
+        return new BoardGeometry(boardEllipse, sectorLimits, polarGeometry);
+    }
+
+    private static DartboardSectorLimits measureSectorLimits(
+        final FrameContext frameContext,
+        final RotatedRect boardEllipse) {
+
+        if ("hierarchy".equals(RING_SOURCE)) {
+            final var boardRings = RingExtractor.extract(frameContext, boardEllipse, RingParameter.defaultParameter());
+            if (boardRings != null) {
+                return boardRings.sectorLimits();
+            }
+            NO_RINGS_LOG.log(LOGGER, Level.WARNING, () -> "No rings measured; sector limits fall back to the factors");
+        }
+        // factors of the ellipse width
+        return DetectionUtil.determineDartboardSectorLimits(frameContext.image(), boardEllipse, false);
+    }
+
+    /**
+     * Undistorts a board image and extracts the ArUco ROI.
+     *
+     * @param imagePath absolute path of the board image
+     * @param cameraParameter {@link CameraParameter}
+     * @param calibrationData {@link CalibrationData} which is only read
+     * @return ROI {@link Mat} of {@link #ROI_SIZE} or null if the markers were not found
+     */
+    static Mat extractRoi(
+        final String imagePath,
+        final CameraParameter cameraParameter,
+        final CalibrationData calibrationData) {
+
+        final var undistortedImage = DetectionUtil.distortFunction(
+            imagePath,
+            cameraParameter,
+            calibrationData,
+            false);
+        return DetectionUtil.extractArucoROI(
+            undistortedImage,
+            Aruco.DICT_6X6_250,
+            ROI_SIZE,
+            ROI_SIZE,
+            true,
+            false,
+            false);
+    }
+
+    /**
+     * Fits an ellipse to the first contour within the board area window.
+     * The ROI is not modified.
+     *
+     * @param roiImage ROI {@link Mat}
+     * @param contourParameter {@link ContourParameter}
+     * @return {@link RotatedRect} of the board or null if no contour is within the area window
+     */
+    static RotatedRect findBoardEllipse(final Mat roiImage, final ContourParameter contourParameter) {
+        try (final var frameContext = new FrameContext(roiImage)) {
+            return findBoardEllipse(frameContext, contourParameter);
+        }
+    }
+
+    /**
+     * Fits an ellipse to the first contour within the board area window using the
+     * derived images of a {@link FrameContext}.
+     *
+     * @param frameContext {@link FrameContext} of the ROI
+     * @param contourParameter {@link ContourParameter}
+     * @return {@link RotatedRect} of the board or null if no contour is within the area window
+     */
+    static RotatedRect findBoardEllipse(final FrameContext frameContext, final ContourParameter contourParameter) {
+        final var metrics = PipelineMetrics.getInstance();
+        final var roiImage = frameContext.image();
+        final var contourDataList = DetectionUtil.findContours(
+            frameContext,
+            contourParameter,
+            false,
+            false);
+        // the area filter runs on the packed arena; only the board contour is materialized
+        final var candidates = contourDataList.withArea(ELLIPSE_AREA_THRESHOLD_LOW, ELLIPSE_AREA_THRESHOLD_HIGH);
+        if (!candidates.isEmpty()) {
+            final var contourData = candidates.get(0);
+            final var ellipseStart = System.nanoTime();
+            final var ellipseEvent = PipelineStageEvent.begin(PipelineStage.ELLIPSE_FIT);
+            final var boardEllipse = Imgproc.fitEllipse(contourData.contour2f());
+            DiagnosticRing.getInstance().record(
+                "ellipse.fit", boardEllipse.size.width, boardEllipse.size.height, contourData.area());
+            ellipseEvent.complete(roiImage, contourDataList.size(), -1);
+            metrics.recordStage(PipelineStage.ELLIPSE_FIT, ellipseStart);
+            return boardEllipse;
+        }
+        metrics.recordDetectionFailure(PipelineStage.ELLIPSE_FIT);
+        DiagnosticRing.getInstance().record("ellipse.none", contourDataList.size());
+        return null;
+    }
+
+    private BoardAnalyzer() {
+        // hide constructor
+    }
+}
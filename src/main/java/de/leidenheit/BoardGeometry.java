@@ -0,0 +1,31 @@
+package de.leidenheit;
+
+import org.opencv.core.Point;
+import org.opencv.core.RotatedRect;
+
+/**
+ * Board geometry in ROI coordinates that hits are scored against.
+ *
+ * @param boardEllipse {@link RotatedRect} of the board
+ * @param sectorLimits {@link DartboardSectorLimits}
+ * @param polarGeometry {@link PolarBoardGeometry} measured with {@code -Dboard.rings=polar} or null
+ */
+public record BoardGeometry(
+    RotatedRect boardEllipse,
+    DartboardSectorLimits sectorLimits,
+    PolarBoardGeometry polarGeometry
+) {
+
+    /**
+     * Scores a hit against the measured wires and rings if the polar geometry is known,
+     * otherwise against the sector limits around the ellipse center.
+     *
+     * @param hit {@link Point} of the dart tip in ROI coordinates
+     * @return {@link HitScore} or null if the hit cannot be scored
+     */
+    public HitScore score(final Point hit) {
+        return polarGeometry != null
+            ? HitScore.of(polarGeometry, hit)
+            : HitScore.of(boardEllipse.center, sectorLimits, hit);
+    }
+}
@@ -0,0 +1,134 @@
+package de.leidenheit;
+
+import org.opencv.core.RotatedRect;
+
+/**
+ * Concentric rings of a dartboard found in one contour hierarchy, see {@link RingExtractor}.
+ *
+ * @param board {@link RotatedRect} of the board outline the {@link DartboardRadianFactor}s refer to
+ * @param outermost outermost {@link Ring} found; each ring links the next inner one or null
+ */
+public record BoardRings(
+    RotatedRect board,
+    Ring outermost
+) {
+
+    /**
+     * @param type {@link RingType}
+     * @return {@link Ring} of the given type or null if it was not found
+     */
+    public Ring ring(final RingType type) {
+        var ring = outermost;
+        while (ring != null && ring.type() != type) {
+            ring = ring.inner();
+        }
+        return ring;
+    }
+
+    public int ringCount() {
+        var count = 0;
+        for (var ring = outermost; ring != null; ring = ring.inner()) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @param tolerance maximum absolute {@link Ring#ratioDeviation()}
+     * @return true if all found rings match the {@link DartboardRadianFactor} ratios
+     */
+    public boolean consistent(final double tolerance) {
+        for (var ring = outermost; ring != null; ring = ring.inner()) {
+            if (Math.abs(ring.ratioDeviation()) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Measured radii of the found rings; rings that were not found fall back to the
+     * {@link DartboardRadianFactor} of the board width like
+     * {@link DetectionUtil#determineDartboardSectorLimits}.
+     *
+     * @return {@link DartboardSectorLimits}
+     */
+    public DartboardSectorLimits sectorLimits() {
+        return new DartboardSectorLimits(
+            radius(RingType.BULLSEYE),
+            radius(RingType.BULL),
+            radius(RingType.INNER_TRIPLE),
+            radius(RingType.OUTER_TRIPLE),
+            radius(RingType.INNER_DOUBLE),
+            radius(RingType.OUTER_DOUBLE));
+    }
+
+    private int radius(final RingType type) {
+        final var ring = ring(type);
+        if (ring != null) {
+            return (int) (width(ring.ellipse()) / 2);
+        }
+        return (int) (width(board) * (type.factor() / 100));
+    }
+
+    /**
+     * Horizontal extent of an ellipse. {@link RotatedRect#boundingRect()} bounds the rotated
+     * rectangle instead and grows with the angle, while contour boxes measure the ellipse itself.
+     *
+     * @param ellipse {@link RotatedRect} of the ellipse
+     * @return width in pixels
+     */
+    static double width(final RotatedRect ellipse) {
+        final var angle = Math.toRadians(ellipse.angle);
+        return Math.hypot(ellipse.size.width * Math.cos(angle), ellipse.size.height * Math.sin(angle));
+    }
+
+    /**
+     * Vertical extent of an ellipse, see {@link #width(RotatedRect)}.
+     *
+     * @param ellipse {@link RotatedRect} of the ellipse
+     * @return height in pixels
+     */
+    static double height(final RotatedRect ellipse) {
+        final var angle = Math.toRadians(ellipse.angle);
+        return Math.hypot(ellipse.size.width * Math.sin(angle), ellipse.size.height * Math.cos(angle));
+    }
+
+    /**
+     * Rings from the outside in with their radius in percent of the board width.
+     */
+    public enum RingType {
+        OUTER_DOUBLE(DartboardRadianFactor.QUADRANT_OUTER_DOUBLE),
+        INNER_DOUBLE(DartboardRadianFactor.QUADRANT_INNER_DOUBLE),
+        OUTER_TRIPLE(DartboardRadianFactor.QUADRANT_OUTER_TRIPLE),
+        INNER_TRIPLE(DartboardRadianFactor.QUADRANT_INNER_TRIPLE),
+        BULL(DartboardRadianFactor.BULL),
+        BULLSEYE(DartboardRadianFactor.BULLSEYE);
+
+        private final float factor;
+
+        RingType(final float factor) {
+            this.factor = factor;
+        }
+
+        public float factor() {
+            return factor;
+        }
+    }
+
+    /**
+     * A single ring.
+     *
+     * @param type {@link RingType}
+     * @param ellipse fitted {@link RotatedRect}
+     * @param ratioDeviation relative deviation of the radius ratio to the outer double (or the board
+     *  if the outer double was not found) from the {@link DartboardRadianFactor} ratio
+     * @param inner next inner {@link Ring} or null
+     */
+    public record Ring(
+        RingType type,
+        RotatedRect ellipse,
+        double ratioDeviation,
+        Ring inner
+    ) {}
+}
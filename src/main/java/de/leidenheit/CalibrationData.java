@@ -22,4 +22,32 @@ public record CalibrationData(
         return Core.checkRange(this.cameraMatrix) 
             && Core.checkRange(this.distortionCoefficients);
     } 
+
+    /**
+     * Adapts the calibration to images resampled by the given factors, e.g. decoded at
+     * reduced resolution. Focal lengths scale with the image and the principal point is
+     * mapped between pixel centers; the distortion coefficients refer to normalized
+     * coordinates and stay unchanged.
+     * 
+     * @param scaleX horizontal factor, e.g. 0.5 for half the width
+     * @param scaleY vertical factor
+     * @return Returns {@link CalibrationData} with a scaled camera matrix.
+     */
+    public CalibrationData scaled(final double scaleX, final double scaleY) {
+        if (scaleX == 1 && scaleY == 1) {
+            return this;
+        }
+        final var scaledMatrix = cameraMatrix.clone();
+        scaledMatrix.put(0, 0, cameraMatrix.get(0, 0)[0] * scaleX);
+        scaledMatrix.put(0, 1, cameraMatrix.get(0, 1)[0] * scaleX);
+        scaledMatrix.put(0, 2, (cameraMatrix.get(0, 2)[0] + 0.5) * scaleX - 0.5);
+        scaledMatrix.put(1, 1, cameraMatrix.get(1, 1)[0] * scaleY);
+        scaledMatrix.put(1, 2, (cameraMatrix.get(1, 2)[0] + 0.5) * scaleY - 0.5);
+        return new CalibrationData(
+            scaledMatrix,
+            distortionCoefficients,
+            rVectors,
+            tVectors,
+            avgReprojectionErrors);
+    }
 }
\ No newline at end of file
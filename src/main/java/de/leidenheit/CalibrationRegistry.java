@@ -0,0 +1,325 @@
+package de.leidenheit;
+
+import org.opencv.calib3d.Calib3d;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Calibrations of all cameras keyed by camera id, with intrinsics derived for every
+ * resolution a camera delivers. A camera is calibrated once at a base resolution;
+ * other modes are derived without recalibrating:
+ *  - same aspect ratio: focal lengths and principal point scale with the resolution
+ *  - different aspect ratio: the base image is scaled to cover the mode, which is taken
+ *    as a centered crop of it, e.g. 16:9 1080p from a 4:3 sensor, so the principal point is shifted
+ * The undistortion maps of the most recently used (camera, resolution) pairs are kept
+ * in an LRU of {@code calibration.cacheSize} entries and shared by all pipelines,
+ * since {@link org.opencv.imgproc.Imgproc#remap} only reads them. Shared maps are
+ * reference counted: the LRU and every user hold a reference, and the native memory
+ * is released with the last one, so an evicted map stays valid while a pipeline uses it.
+ */
+public final class CalibrationRegistry {
+
+    private static final Logger LOGGER = Logger.getLogger(CalibrationRegistry.class.getSimpleName());
+
+    private static final CalibrationRegistry INSTANCE =
+        new CalibrationRegistry(Integer.getInteger("calibration.cacheSize", 8));
+    private static final BaseCalibration NOT_CALIBRATED = new BaseCalibration(null, null);
+    /**
+     * Base resolution of {@link #pinhole()}.
+     */
+    public static final Size PINHOLE_RESOLUTION = new Size(1, 1);
+
+    private final Map<String, BaseCalibration> baseCalibrations = new ConcurrentHashMap<>();
+    private final Map<ModeKey, UndistortionData> undistortions;
+
+    public static CalibrationRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    CalibrationRegistry(final int cacheSize) {
+        this.undistortions = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ModeKey, UndistortionData> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                eldest.getValue().release();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Registers the base calibration of a camera and drops its derived data.
+     *
+     * @param cameraId id of the camera
+     * @param resolution resolution the calibration images had; null keeps the known resolution
+     *  of the same calibration or takes the resolution of the first frame undistorted for this camera
+     * @param calibrationData {@link CalibrationData}
+     */
+    public void register(final String cameraId, final Size resolution, final CalibrationData calibrationData) {
+        final var previous = baseCalibrations.put(cameraId, new BaseCalibration(calibrationData, resolution));
+        if (previous != null && previous.calibrationData() == calibrationData) {
+            if (resolution == null) {
+                baseCalibrations.put(cameraId, previous);
+            }
+            if (resolution == null || resolution.equals(previous.resolution())) {
+                return;
+            }
+        }
+        synchronized (undistortions) {
+            final var entries = undistortions.entrySet().iterator();
+            while (entries.hasNext()) {
+                final var entry = entries.next();
+                if (entry.getKey().cameraId().equals(cameraId)) {
+                    entry.getValue().release();
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Provides the base calibration of a camera; unregistered cameras are loaded from
+     * {@code src/resources/cameras/{cameraId}/} with the base resolution of
+     * {@code -Dcalibration.{cameraId}.resolution=WIDTHxHEIGHT}. A camera without calibration
+     * files is remembered as not calibrated until it is registered, so every frame does not hit the disk.
+     *
+     * @param cameraId id of the camera
+     * @return {@link CalibrationData} or null if the camera has not been calibrated
+     */
+    public CalibrationData baseCalibration(final String cameraId) {
+        return baseCalibrations.computeIfAbsent(cameraId, id -> {
+            final var calibrationData = loadCalibration(id);
+            return calibrationData == null
+                ? NOT_CALIBRATED
+                : new BaseCalibration(calibrationData, parseResolution(System.getProperty("calibration." + id + ".resolution")));
+        }).calibrationData();
+    }
+
+    /**
+     * Loads the calibration of a camera from src/resources/cameras/{cameraId}/.
+     *
+     * @param cameraId id of the camera
+     * @return {@link CalibrationData} or null if the camera has not been calibrated.
+     */
+    private static CalibrationData loadCalibration(final String cameraId) {
+        final var dir = "src/resources/cameras/" + cameraId + "/";
+        final var cameraMatrixFileName = dir + "camera-matrix.bin";
+        final var distortionCoeffFileName = dir + "distortion-coefficients.bin";
+        final var canLoadCalibration =
+            Files.exists(Path.of(cameraMatrixFileName))
+            && Files.exists(Path.of(distortionCoeffFileName));
+        if (!canLoadCalibration) {
+            LOGGER.warning(String.format("No calibration found for camera %s in %s", cameraId, dir));
+            return null;
+        }
+        final var mats = CameraCalibrator.loadCalibration(
+            cameraMatrixFileName,
+            distortionCoeffFileName);
+        return new CalibrationData(mats[0], mats[1], null, null, Double.NaN);
+    }
+
+    /**
+     * Provides the calibration of a camera for a given resolution.
+     *
+     * @param cameraId id of the camera
+     * @param resolution frame resolution
+     * @return {@link CalibrationData} with derived intrinsics or null if the camera has not been calibrated
+     */
+    public CalibrationData calibration(final String cameraId, final Size resolution) {
+        final var undistortion = undistortion(cameraId, resolution);
+        if (undistortion == null) {
+            return null;
+        }
+        // the calibration is not reference counted, only the maps are
+        undistortion.release();
+        return undistortion.calibrationData();
+    }
+
+    /**
+     * Provides the undistortion data of a camera for a given resolution from the LRU,
+     * deriving it on a miss. The data is acquired for the caller, who has to
+     * {@link UndistortionData#release()} it once its maps are no longer used.
+     *
+     * @param cameraId id of the camera
+     * @param resolution frame resolution
+     * @return {@link UndistortionData} or null if the camera has not been calibrated
+     */
+    public UndistortionData undistortion(final String cameraId, final Size resolution) {
+        final var key = new ModeKey(cameraId, (int) resolution.width, (int) resolution.height);
+        synchronized (undistortions) {
+            final var cached = undistortions.get(key);
+            if (cached != null) {
+                cached.acquire();
+                return cached;
+            }
+        }
+        if (baseCalibration(cameraId) == null) {
+            return null;
+        }
+        // the first frame defines the base resolution of calibrations registered without one
+        final var base = baseCalibrations.computeIfPresent(cameraId, (id, registered) -> registered.resolution() == null
+            ? new BaseCalibration(registered.calibrationData(), resolution)
+            : registered);
+        final var calibrationData = derive(base.calibrationData(), base.resolution(), resolution);
+        final var optimalMatrix = Calib3d.getOptimalNewCameraMatrix(
+            calibrationData.cameraMatrix(),
+            calibrationData.distortionCoefficients(),
+            resolution,
+            1,
+            resolution);
+        final var mapX = new Mat();
+        final var mapY = new Mat();
+        Calib3d.initUndistortRectifyMap(
+            calibrationData.cameraMatrix(),
+            calibrationData.distortionCoefficients(),
+            new Mat(),
+            optimalMatrix,
+            resolution,
+            CvType.CV_16SC2,
+            mapX,
+            mapY);
+        final var undistortion = new UndistortionData(calibrationData, optimalMatrix, mapX, mapY);
+        LOGGER.info(String.format("Derived undistortion of camera %s for %sx%s from base %sx%s",
+            cameraId, key.width(), key.height(), (int) base.resolution().width, (int) base.resolution().height));
+        synchronized (undistortions) {
+            // another pipeline may have derived the same mode meanwhile; keep the first
+            final var existing = undistortions.get(key);
+            if (existing != null) {
+                undistortion.release();
+                existing.acquire();
+                return existing;
+            }
+            // acquired before it is cached, since an LRU of size 0 evicts it right away
+            undistortion.acquire();
+            undistortions.put(key, undistortion);
+            return undistortion;
+        }
+    }
+
+    /**
+     * Derives the calibration of a resolution from a calibration of another resolution.
+     *
+     * @param base {@link CalibrationData} at the base resolution
+     * @param baseResolution resolution of the base calibration
+     * @param resolution target resolution
+     * @return {@link CalibrationData}
+     */
+    static CalibrationData derive(final CalibrationData base, final Size baseResolution, final Size resolution) {
+        // the scaled base covers the resolution, so both crops are non-negative
+        final var scale = Math.max(resolution.width / baseResolution.width, resolution.height / baseResolution.height);
+        final var scaled = base.scaled(scale, scale);
+        final var cropX = (baseResolution.width * scale - resolution.width) / 2;
+        final var cropY = (baseResolution.height * scale - resolution.height) / 2;
+        if (cropX == 0 && cropY == 0) {
+            return scaled;
+        }
+        final var croppedMatrix = scaled.cameraMatrix() == base.cameraMatrix()
+            ? base.cameraMatrix().clone()
+            : scaled.cameraMatrix();
+        croppedMatrix.put(0, 2, croppedMatrix.get(0, 2)[0] - cropX);
+        croppedMatrix.put(1, 2, croppedMatrix.get(1, 2)[0] - cropY);
+        return new CalibrationData(
+            croppedMatrix,
+            scaled.distortionCoefficients(),
+            scaled.rVectors(),
+            scaled.tVectors(),
+            scaled.avgReprojectionErrors());
+    }
+
+    /**
+     * Ideal pinhole camera without distortion for cameras that have not been calibrated. Registered
+     * with {@link #PINHOLE_RESOLUTION}, it is derived for every frame resolution like a calibration:
+     * the focal length is the larger side and the principal point is the image center.
+     *
+     * @return {@link CalibrationData} of a 1x1 image
+     */
+    public static CalibrationData pinhole() {
+        return new CalibrationData(
+            Mat.eye(3, 3, CvType.CV_64F),
+            Mat.zeros(5, 1, CvType.CV_64F),
+            null, null, Double.NaN);
+    }
+
+    private static Size parseResolution(final String resolution) {
+        if (resolution == null) {
+            return null;
+        }
+        final var parts = resolution.toLowerCase().split("x");
+        return new Size(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+    }
+
+    /**
+     * Derived calibration and undistortion maps of one camera mode; shared, must not be modified.
+     * Created with the reference of the LRU; the maps are released with the last reference.
+     */
+    public static final class UndistortionData {
+
+        private final CalibrationData calibrationData;
+        private final Mat optimalMatrix;
+        private final Mat mapX;
+        private final Mat mapY;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        /**
+         * @param calibrationData {@link CalibrationData} at the mode's resolution
+         * @param optimalMatrix camera matrix of the undistorted image
+         * @param mapX first map of {@link org.opencv.imgproc.Imgproc#remap}
+         * @param mapY second map of {@link org.opencv.imgproc.Imgproc#remap}
+         */
+        UndistortionData(final CalibrationData calibrationData, final Mat optimalMatrix, final Mat mapX, final Mat mapY) {
+            this.calibrationData = calibrationData;
+            this.optimalMatrix = optimalMatrix;
+            this.mapX = mapX;
+            this.mapY = mapY;
+        }
+
+        public CalibrationData calibrationData() {
+            return calibrationData;
+        }
+
+        public Mat optimalMatrix() {
+            return optimalMatrix;
+        }
+
+        public Mat mapX() {
+            return mapX;
+        }
+
+        public Mat mapY() {
+            return mapY;
+        }
+
+        /**
+         * Only called under the lock of the LRU while it still holds its reference.
+         */
+        private void acquire() {
+            references.incrementAndGet();
+        }
+
+        /**
+         * Gives up a reference; the last one releases the maps.
+         */
+        public void release() {
+            if (references.decrementAndGet() == 0) {
+                optimalMatrix.release();
+                mapX.release();
+                mapY.release();
+            }
+        }
+    }
+
+    private record BaseCalibration(CalibrationData calibrationData, Size resolution) {}
+
+    private record ModeKey(String cameraId, int width, int height) {}
+}
@@ -48,7 +48,26 @@ public final class CameraCalibrator {
     public static CalibrationData calibrate(
         final CameraParameter cameraParameter,
         final ChessboardData chessboardData) {
+        return calibrate(cameraParameter, chessboardData, true);
+    }
 
+    /** 
+     * Calibrates a camera based on objectpoints and imagepoints determined 
+     * by chessboard detection.
+     * 
+     * @param cameraParameter {@link CameraParameter}
+     * @param chessboardData {@link ChessboardData}
+     * @param saveToFiles if true the camera matrix and distortion coefficients 
+     *  are saved into src/resources/
+     * @return {@link CalibrationData}
+     */
+    public static CalibrationData calibrate(
+        final CameraParameter cameraParameter,
+        final ChessboardData chessboardData,
+        final boolean saveToFiles) {
+
+        final var calibrationStart = System.nanoTime();
+        final var calibrationEvent = PipelineStageEvent.begin(PipelineStage.CALIBRATION);
         ArrayList<Mat> rvecs = new ArrayList<Mat>();
         ArrayList<Mat> tvecs = new ArrayList<Mat>();
         Mat reprojectionErrors = new Mat();
@@ -59,6 +78,7 @@ public final class CameraCalibrator {
             Mat.zeros(5, 1, CvType.CV_64FC1);
         final var cameraMatrix = 
             Mat.eye(3, 3, CvType.CV_64FC1);
+        final var calibrateCameraCall = NativeCallEvent.begin("Calib3d.calibrateCamera");
         Calib3d.calibrateCamera(
             chessboardData.objectPoints(),
             chessboardData.imagePoints(),
@@ -70,6 +90,7 @@ public final class CameraCalibrator {
             rvecs, 
             tvecs,
             CALIBRATION_FLAGS);
+        calibrateCameraCall.complete();
         final double avgReprojectionErrors = computeReprojectionErrors(
             chessboardData,
             cameraMatrix,
@@ -85,12 +106,16 @@ public final class CameraCalibrator {
             tvecs,
             avgReprojectionErrors
         );
+        calibrationEvent.complete(null, -1, -1);
+        PipelineMetrics.getInstance().recordStage(PipelineStage.CALIBRATION, calibrationStart);
 
-        LOGGER.info("Saving calibration to files...");
-        // Save off camera matrix
-        saveDoubleMat(cameraMatrix, String.format("%scamera-matrix.bin", "src/resources/"));
-        // Save off distortion coefficients
-        saveDoubleMat(distortionCoefficients, String.format("%sdistortion-coefficients.bin", "src/resources/"));
+        if (saveToFiles) {
+            LOGGER.info("Saving calibration to files...");
+            // Save off camera matrix
+            saveDoubleMat(cameraMatrix, String.format("%scamera-matrix.bin", "src/resources/"));
+            // Save off distortion coefficients
+            saveDoubleMat(distortionCoefficients, String.format("%sdistortion-coefficients.bin", "src/resources/"));
+        }
 
         LOGGER.info("CalibrationSuccessful=" + calibrationData.isCalibrationValid()
         //    + "\n\nobjectPoints=" + objectPoints
@@ -118,6 +143,8 @@ public final class CameraCalibrator {
         final ChessboardData chessboardData, 
         final BiConsumer<Mat, Mat> biConsumerOriginalAndProcessedFrame) {
 		final var corners3f = getCorner3f(cameraParameter);
+        final var cornersStart = System.nanoTime();
+        final var cornersEvent = PipelineStageEvent.begin(PipelineStage.CHESSBOARD_CORNERS);
         
         // read image and convert into gray frame mat
         final var rgbaFrame = Imgcodecs.imread(imageFilePath, -1);
@@ -135,6 +162,7 @@ public final class CameraCalibrator {
             cameraParameter.calibrationPatternWidth(), 
             cameraParameter.calibrationPatternHeight());
         final var corners = new MatOfPoint2f();
+        final var findCornersCall = NativeCallEvent.begin("Calib3d.findChessboardCorners");
         final var cornersFound = Calib3d.findChessboardCorners(
                 grayFrame,
                 patternSize,
@@ -145,6 +173,7 @@ public final class CameraCalibrator {
                     + Calib3d.CALIB_CB_FAST_CHECK
                 // , -1
         );
+        findCornersCall.complete();
         if (cornersFound) {
             // termination criteria for Subpixel Optimization
             final TermCriteria termCriteria =  new TermCriteria(
@@ -152,12 +181,14 @@ public final class CameraCalibrator {
                     60,
                     0.001);
             // optimize image
+            final var cornerSubPixCall = NativeCallEvent.begin("Imgproc.cornerSubPix");
             Imgproc.cornerSubPix(
                     grayFrame,
                     corners,
                     new Size(10.5, 10.5), // when no resize consider 22, 22 otherwise 10.5, 10.5
                     new Size(-1, -1),
                     termCriteria);
+            cornerSubPixCall.complete();
 
             // add 3D world and 2D representation
             chessboardData.objectPoints().add(corners3f);
@@ -197,7 +228,10 @@ public final class CameraCalibrator {
                 resizedGray);
         } else {
             LOGGER.info("No corners found in " + imageFilePath);
+            PipelineMetrics.getInstance().recordDetectionFailure(PipelineStage.CHESSBOARD_CORNERS);
         }
+        cornersEvent.complete(rgbaFrame, -1, -1);
+        PipelineMetrics.getInstance().recordStage(PipelineStage.CHESSBOARD_CORNERS, cornersStart);
         return cornersFound;
     }
 
@@ -219,7 +253,7 @@ public final class CameraCalibrator {
 		return new Mat[] { cameraMatrix, distCoeffs };
 	}
 
-    private static MatOfPoint3f getCorner3f(final CameraParameter cameraParameter) {
+    static MatOfPoint3f getCorner3f(final CameraParameter cameraParameter) {
 		final var width = cameraParameter.calibrationPatternWidth();
 		final var height = cameraParameter.calibrationPatternHeight();
         final var squareSize = cameraParameter.calibrationChessboardSquareSizeInMillimeter();
@@ -0,0 +1,145 @@
+package de.leidenheit;
+
+import org.opencv.aruco.Aruco;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Processing chain of a single camera: undistortion through the camera's own
+ * {@link UndistortionMap} backed by the {@link CalibrationRegistry}, ArUco ROI
+ * extraction into board coordinates and tip estimation.
+ * The first ROI is kept as reference of the empty board; the {@link BoardGeometry}
+ * is measured on it, or on the following ROIs until found, before any tip is estimated.
+ */
+public final class CameraPipeline implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(CameraPipeline.class.getSimpleName());
+    private static final SampledLog NO_GEOMETRY_LOG = SampledLog.everyMillis(1_000);
+    private static final SampledLog TORN_FRAME_LOG = SampledLog.everyMillis(1_000);
+
+    private final String cameraId;
+    private final FrameSource frameSource;
+    private final UndistortionMap undistortionMap;
+    private final Consumer<BoardGeometry> geometryConsumer;
+    private final Consumer<CameraTipEstimate> estimateConsumer;
+    private volatile boolean running = true;
+    private Mat referenceRoi;
+    private BoardGeometry geometry;
+
+    /**
+     * @param cameraId id of a camera registered in the {@link CalibrationRegistry}
+     * @param frameSource {@link FrameSource} of the camera
+     * @param geometryConsumer {@link Consumer} receiving the {@link BoardGeometry} once it is measured
+     * @param estimateConsumer {@link Consumer} receiving a {@link CameraTipEstimate} per frame
+     */
+    public CameraPipeline(
+        final String cameraId,
+        final FrameSource frameSource,
+        final Consumer<BoardGeometry> geometryConsumer,
+        final Consumer<CameraTipEstimate> estimateConsumer) {
+        this.cameraId = cameraId;
+        this.frameSource = frameSource;
+        this.undistortionMap = new UndistortionMap(cameraId);
+        this.geometryConsumer = geometryConsumer;
+        this.estimateConsumer = estimateConsumer;
+    }
+
+    public String cameraId() {
+        return cameraId;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        try (frameSource; undistortionMap) {
+            Frame frame;
+            while (running && (frame = frameSource.next()) != null) {
+                estimateConsumer.accept(process(frame));
+            }
+        } finally {
+            LOGGER.info(String.format("Camera %s finished", cameraId));
+        }
+    }
+
+    private CameraTipEstimate process(final Frame frame) {
+        final var metrics = PipelineMetrics.getInstance();
+        final var start = System.nanoTime();
+        FrameTrace.setFrameId(frame.frameId());
+        final var frameEvent = PipelineStageEvent.begin(PipelineStage.FRAME);
+        try {
+            final var undistorted = undistortionMap.undistort(frame.image());
+            // a lent frame buffer may have been reused by its writer while it was undistorted
+            if (!frameSource.isIntact(frame)) {
+                metrics.recordDroppedFrames(1);
+                TORN_FRAME_LOG.log(LOGGER, Level.WARNING, () -> String.format(
+                    "Camera %s dropped frame %s overwritten while undistorting", cameraId, frame.frameId()));
+                return noTip(frame);
+            }
+            final var roi = DetectionUtil.extractArucoROI(
+                undistorted,
+                Aruco.DICT_6X6_250,
+                BoardAnalyzer.ROI_SIZE,
+                BoardAnalyzer.ROI_SIZE,
+                true,
+                false,
+                false);
+            if (roi == null) {
+                return noTip(frame);
+            }
+            if (referenceRoi == null) {
+                referenceRoi = roi;
+            }
+            if (geometry == null) {
+                measureGeometry(roi);
+                return noTip(frame);
+            }
+            final var scoringStart = System.nanoTime();
+            final var tip = TipDetector.estimateTip(referenceRoi, roi);
+            metrics.recordStage(PipelineStage.SCORING, scoringStart);
+            if (tip == null) {
+                return noTip(frame);
+            }
+            return new CameraTipEstimate(
+                cameraId,
+                frame.frameId(),
+                frame.timestampNanos(),
+                new Point(tip[0], tip[1]),
+                tip[2]);
+        } catch (RuntimeException exception) {
+            LOGGER.warning(String.format("Camera %s failed on frame %s: %s",
+                cameraId, frame.frameId(), exception));
+            DiagnosticRing.getInstance().dump("camera " + cameraId + " failed on frame " + frame.frameId());
+            metrics.recordDetectionFailure(PipelineStage.FRAME);
+            return noTip(frame);
+        } finally {
+            frameEvent.complete(frame.image(), -1, -1);
+            metrics.recordFrame(start);
+            EventJournal.getInstance().recordFrame(
+                cameraId, frame.frameId(), frame.timestampNanos(), System.nanoTime() - start);
+            FrameTrace.clear();
+        }
+    }
+
+    private void measureGeometry(final Mat roi) {
+        try (final var frameContext = new FrameContext(roi)) {
+            geometry = BoardAnalyzer.measureGeometry(frameContext, ContourParameter.defaultParameter());
+        }
+        if (geometry == null) {
+            NO_GEOMETRY_LOG.log(LOGGER, Level.WARNING, () -> String.format("Camera %s finds no board geometry", cameraId));
+            return;
+        }
+        LOGGER.info(String.format("Camera %s measured board %s", cameraId, geometry.boardEllipse()));
+        geometryConsumer.accept(geometry);
+    }
+
+    private CameraTipEstimate noTip(final Frame frame) {
+        return new CameraTipEstimate(cameraId, frame.frameId(), frame.timestampNanos(), null, 0);
+    }
+}
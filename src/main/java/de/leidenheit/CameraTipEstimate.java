@@ -0,0 +1,16 @@
+package de.leidenheit;
+
+import org.opencv.core.Point;
+
+public record CameraTipEstimate(
+    String cameraId,
+    long frameId,
+    long timestampNanos,
+    Point tip,          // board ROI coordinates, null if no tip is visible
+    double confidence
+) {
+
+    public boolean hasTip() {
+        return tip != null;
+    }
+}
@@ -0,0 +1,100 @@
+package de.leidenheit;
+
+import java.util.Arrays;
+
+import org.opencv.core.Point;
+
+/**
+ * Ranked set of detected circles backed by a single packed float array
+ * holding (x, y, radius, score) per circle. Index 0 is the best candidate.
+ */
+public final class CircleDetectionResult {
+
+    private static final int STRIDE = 4;
+
+    private final float[] data;
+    private final int size;
+
+    CircleDetectionResult(final float[] data, final int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty result.
+     *
+     * @return {@link CircleDetectionResult}
+     */
+    public static CircleDetectionResult empty() {
+        return new CircleDetectionResult(new float[0], 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public float x(final int index) {
+        return data[checkIndex(index) * STRIDE];
+    }
+
+    public float y(final int index) {
+        return data[checkIndex(index) * STRIDE + 1];
+    }
+
+    public float radius(final int index) {
+        return data[checkIndex(index) * STRIDE + 2];
+    }
+
+    /**
+     * Edge support of a circle in range [0, 1], i.e. the share of
+     * sampled circumference points that lie on an edge.
+     *
+     * @param index rank of the circle
+     * @return score of the circle
+     */
+    public float score(final int index) {
+        return data[checkIndex(index) * STRIDE + 3];
+    }
+
+    public Point center(final int index) {
+        return new Point(x(index), y(index));
+    }
+
+    /**
+     * Sorts the packed circles by descending score. Insertion sort is
+     * sufficient since only a handful of candidates are refined.
+     */
+    void rankByScore() {
+        final var tmp = new float[STRIDE];
+        for (int i = 1; i < size; i++) {
+            System.arraycopy(data, i * STRIDE, tmp, 0, STRIDE);
+            int j = i - 1;
+            while (j >= 0 && data[j * STRIDE + 3] < tmp[3]) {
+                System.arraycopy(data, j * STRIDE, data, (j + 1) * STRIDE, STRIDE);
+                j--;
+            }
+            System.arraycopy(tmp, 0, data, (j + 1) * STRIDE, STRIDE);
+        }
+    }
+
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(
+                String.format("Circle index %s out of bounds for size %s", index, size));
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        final var builder = new StringBuilder("CircleDetectionResult[");
+        for (int i = 0; i < size; i++) {
+            builder.append(Arrays.toString(Arrays.copyOfRange(data, i * STRIDE, (i + 1) * STRIDE)));
+        }
+        return builder.append("]").toString();
+    }
+}
@@ -0,0 +1,309 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Rect;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public final class CircleDetector {
+
+    private static final Logger LOGGER = Logger.getLogger(CircleDetector.class.getSimpleName());
+    private static final int CIRCLE_STRIDE = 3;
+    private static final int SUPPORT_SAMPLES = 90;
+    private static final SampledLog INVALID_BOUNDS_LOG = SampledLog.everyMillis(1_000);
+
+    /**
+     * Detects circles of a dartboard ring in a given ROI {@link Mat}.
+     * The radius bounds are derived from the {@link DartboardRadianFactor} of the ring
+     * and the ROI size: the board can at most fill the ROI and is expected to cover
+     * at least {@link CircleParameter#minBoardCoverage()} of it.
+     * A coarse {@link Imgproc#HoughCircles} pass runs on a downsampled image; each
+     * candidate is then refined in a small full-resolution window around it.
+     *
+     * @param roi {@link Mat} BGR or gray ROI, e.g. the result of {@link DetectionUtil#extractArucoROI}
+     * @param radianFactor ring factor of {@link DartboardRadianFactor}, e.g. {@link DartboardRadianFactor#BULL}
+     * @param circleParameter {@link CircleParameter}
+     * @return Returns {@link CircleDetectionResult} ranked by edge support.
+     */
+    public static CircleDetectionResult detectRing(
+        final Mat roi,
+        final float radianFactor,
+        final CircleParameter circleParameter) {
+        try (final var frameContext = new FrameContext(roi)) {
+            return detectRing(frameContext, radianFactor, circleParameter);
+        }
+    }
+
+    /**
+     * Detects circles of a dartboard ring in the ROI of a given {@link FrameContext};
+     * the gray, blurred, downsampled and edge images are shared with other detectors.
+     *
+     * @param frameContext {@link FrameContext} of the ROI
+     * @param radianFactor ring factor of {@link DartboardRadianFactor}
+     * @param circleParameter {@link CircleParameter}
+     * @return Returns {@link CircleDetectionResult} ranked by edge support.
+     */
+    public static CircleDetectionResult detectRing(
+        final FrameContext frameContext,
+        final float radianFactor,
+        final CircleParameter circleParameter) {
+
+        final var roi = frameContext.image();
+        final var roiSide = Math.min(roi.width(), roi.height());
+        final var maxRadius = (int) Math.ceil(roiSide * (radianFactor / 100));
+        final var minRadius = (int) Math.floor(maxRadius * circleParameter.minBoardCoverage());
+        return detectCircles(frameContext, minRadius, maxRadius, circleParameter);
+    }
+
+    /**
+     * Detects circles within the given radius bounds in a given ROI {@link Mat}
+     * using a coarse-to-fine {@link Imgproc#HoughCircles} search.
+     *
+     * @param roi {@link Mat}
+     * @param minRadius minimum radius in full resolution pixels
+     * @param maxRadius maximum radius in full resolution pixels
+     * @param circleParameter {@link CircleParameter}
+     * @return Returns {@link CircleDetectionResult} ranked by edge support.
+     */
+    public static CircleDetectionResult detectCircles(
+        final Mat roi,
+        final int minRadius,
+        final int maxRadius,
+        final CircleParameter circleParameter) {
+        try (final var frameContext = new FrameContext(roi)) {
+            return detectCircles(frameContext, minRadius, maxRadius, circleParameter);
+        }
+    }
+
+    /**
+     * Detects circles within the given radius bounds in the ROI of a given {@link FrameContext}.
+     *
+     * @param frameContext {@link FrameContext} of the ROI
+     * @param minRadius minimum radius in full resolution pixels
+     * @param maxRadius maximum radius in full resolution pixels
+     * @param circleParameter {@link CircleParameter}
+     * @return Returns {@link CircleDetectionResult} ranked by edge support.
+     */
+    public static CircleDetectionResult detectCircles(
+        final FrameContext frameContext,
+        final int minRadius,
+        final int maxRadius,
+        final CircleParameter circleParameter) {
+
+        if (maxRadius <= 0 || minRadius > maxRadius) {
+            INVALID_BOUNDS_LOG.log(LOGGER, Level.WARNING,
+                () -> String.format("Invalid radius bounds [%s, %s]", minRadius, maxRadius));
+            return CircleDetectionResult.empty();
+        }
+        final var roi = frameContext.image();
+        final var houghStart = System.nanoTime();
+        final var houghEvent = PipelineStageEvent.begin(PipelineStage.HOUGH);
+
+        final var blurred = frameContext.blurred(circleParameter.gaussFactor(), 1);
+
+        // the coarse pass is skipped when the downsampled circle would be too small
+        final var coarseScale = maxRadius * circleParameter.downscaleFactor() >= circleParameter.minCoarseRadius()
+            ? circleParameter.downscaleFactor()
+            : 1d;
+        final var coarse = frameContext.blurredScaled(circleParameter.gaussFactor(), 1, coarseScale);
+
+        final var coarseMinRadius = Math.max(1, (int) Math.floor(minRadius * coarseScale));
+        final var coarseMaxRadius = Math.max(coarseMinRadius, (int) Math.ceil(maxRadius * coarseScale));
+        final var coarseCircles = houghCircles(
+            coarse,
+            coarseMinRadius,
+            coarseMinRadius,
+            coarseMaxRadius,
+            circleParameter);
+        final var candidateCount = Math.min(
+            coarseCircles.length / CIRCLE_STRIDE,
+            circleParameter.maxCandidates());
+        DiagnosticRing.getInstance().record(
+            "hough.coarse", coarseScale, coarseMaxRadius, coarseCircles.length / CIRCLE_STRIDE);
+        LOGGER.fine(() -> String.format("Coarse hough pass (scale=%s; radius=[%s, %s]) found %s candidates",
+            coarseScale, coarseMinRadius, coarseMaxRadius, coarseCircles.length / CIRCLE_STRIDE));
+
+        // edge support is sampled on the canny edges of the context, copied once for all candidates
+        final var edges = candidateCount > 0
+            ? frameContext.edges(
+                circleParameter.gaussFactor(), 1, circleParameter.cannyThresholdHigh() / 2, circleParameter.cannyThresholdHigh())
+            : null;
+        final var edgePixels = new byte[edges != null ? edges.width() * edges.height() : 0];
+        if (edges != null) {
+            edges.get(0, 0, edgePixels);
+        }
+
+        final var data = new float[candidateCount * 4];
+        var size = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            final var offset = i * CIRCLE_STRIDE;
+            final var refined = refineCandidate(
+                blurred,
+                edgePixels,
+                coarseCircles[offset] / coarseScale,
+                coarseCircles[offset + 1] / coarseScale,
+                coarseCircles[offset + 2] / coarseScale,
+                coarseScale,
+                minRadius,
+                maxRadius,
+                circleParameter);
+            if (refined != null) {
+                System.arraycopy(refined, 0, data, size * 4, 4);
+                size++;
+            }
+        }
+        final var result = new CircleDetectionResult(data, size);
+        result.rankByScore();
+        houghEvent.complete(roi, -1, -1);
+        final var metrics = PipelineMetrics.getInstance();
+        metrics.recordStage(PipelineStage.HOUGH, houghStart);
+        if (result.isEmpty()) {
+            metrics.recordDetectionFailure(PipelineStage.HOUGH);
+        }
+        return result;
+    }
+
+    /**
+     * Refines a candidate circle in a full resolution window around it.
+     *
+     * @return Returns packed (x, y, radius, score) in ROI coordinates or null
+     *  if the candidate could not be confirmed.
+     */
+    private static float[] refineCandidate(
+        final Mat blurred,
+        final byte[] edgePixels,
+        final double x,
+        final double y,
+        final double radius,
+        final double coarseScale,
+        final int minRadius,
+        final int maxRadius,
+        final CircleParameter circleParameter) {
+
+        // a coarse pixel covers 1/scale full resolution pixels
+        final var tolerance = (int) Math.ceil(1d / coarseScale) + circleParameter.refineWindowMargin();
+        final var windowMinRadius = Math.max(minRadius, (int) Math.floor(radius) - tolerance);
+        final var windowMaxRadius = Math.min(maxRadius, (int) Math.ceil(radius) + tolerance);
+        final var extent = windowMaxRadius + tolerance;
+        final var left = Math.max(0, (int) Math.floor(x) - extent);
+        final var top = Math.max(0, (int) Math.floor(y) - extent);
+        final var right = Math.min(blurred.width(), (int) Math.ceil(x) + extent + 1);
+        final var bottom = Math.min(blurred.height(), (int) Math.ceil(y) + extent + 1);
+        if (right <= left || bottom <= top || windowMaxRadius < windowMinRadius) {
+            return null;
+        }
+        final var window = blurred.submat(new Rect(left, top, right - left, bottom - top));
+
+        // only one circle per window is of interest, therefore minDist is the window size
+        final var windowCircles = houghCircles(
+            window,
+            Math.max(window.width(), window.height()),
+            windowMinRadius,
+            windowMaxRadius,
+            circleParameter);
+        final float refinedX;
+        final float refinedY;
+        final float refinedRadius;
+        if (windowCircles.length >= CIRCLE_STRIDE) {
+            refinedX = windowCircles[0];
+            refinedY = windowCircles[1];
+            refinedRadius = windowCircles[2];
+        } else if (coarseScale < 1d) {
+            // keep the upscaled coarse estimate
+            refinedX = (float) (x - left);
+            refinedY = (float) (y - top);
+            refinedRadius = (float) radius;
+        } else {
+            return null;
+        }
+
+        final var score = edgeSupport(
+            edgePixels, blurred.width(), blurred.height(), refinedX + left, refinedY + top, refinedRadius);
+        return new float[]{refinedX + left, refinedY + top, refinedRadius, score};
+    }
+
+    /**
+     * Runs {@link Imgproc#HoughCircles} and reads all circles with a single bulk copy.
+     *
+     * @return Returns packed (x, y, radius) triples ordered by accumulator votes.
+     */
+    private static float[] houghCircles(
+        final Mat image,
+        final double minDist,
+        final int minRadius,
+        final int maxRadius,
+        final CircleParameter circleParameter) {
+
+        final var circles = new Mat();
+        final var houghCirclesCall = NativeCallEvent.begin("Imgproc.HoughCircles");
+        Imgproc.HoughCircles(
+            image,
+            circles,
+            Imgproc.HOUGH_GRADIENT,
+            1.0,
+            minDist,
+            circleParameter.cannyThresholdHigh(),
+            circleParameter.accumulatorThreshold(),
+            minRadius,
+            maxRadius);
+        houghCirclesCall.complete();
+        if (circles.empty()) {
+            return new float[0];
+        }
+        final var packed = new float[(int) circles.total() * circles.channels()];
+        circles.get(0, 0, packed);
+        circles.release();
+        return packed;
+    }
+
+    /**
+     * Determines the share of sampled circumference points that lie on a canny edge.
+     */
+    private static float edgeSupport(
+        final byte[] pixels,
+        final int width,
+        final int height,
+        final float x,
+        final float y,
+        final float radius) {
+
+        var hits = 0;
+        for (int i = 0; i < SUPPORT_SAMPLES; i++) {
+            final var angle = 2 * Math.PI * i / SUPPORT_SAMPLES;
+            final var px = (int) Math.round(x + radius * Math.cos(angle));
+            final var py = (int) Math.round(y + radius * Math.sin(angle));
+            if (hasEdgeInNeighbourhood(pixels, width, height, px, py)) {
+                hits++;
+            }
+        }
+        return (float) hits / SUPPORT_SAMPLES;
+    }
+
+    private static boolean hasEdgeInNeighbourhood(
+        final byte[] pixels,
+        final int width,
+        final int height,
+        final int px,
+        final int py) {
+
+        for (int dy = -1; dy <= 1; dy++) {
+            final var row = py + dy;
+            if (row < 0 || row >= height) {
+                continue;
+            }
+            for (int dx = -1; dx <= 1; dx++) {
+                final var col = px + dx;
+                if (col >= 0 && col < width && pixels[row * width + col] != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private CircleDetector() {
+        // hide constructor
+    }
+}
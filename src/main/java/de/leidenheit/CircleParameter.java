@@ -0,0 +1,38 @@
+package de.leidenheit;
+
+public record CircleParameter(
+    double gaussFactor,             // 9
+    double downscaleFactor,         // 0.5
+    double cannyThresholdHigh,      // 150
+    double accumulatorThreshold,    // 40
+    double minBoardCoverage,        // 0.6
+    int minCoarseRadius,            // 8
+    int refineWindowMargin,         // 6
+    int maxCandidates               // 5
+) {
+
+    /**
+     * Instantiates a {@link CircleParameter} with the following parameters:
+     *  - gauss = 9
+     *  - coarse pass at half resolution
+     *  - canny threshold high = 150
+     *  - accumulator threshold = 40
+     *  - board covers at least 60% of the ROI
+     *  - coarse pass only if the expected radius is at least 8 pixels
+     *  - refinement window margin = 6 pixels
+     *  - at most 5 candidates are refined
+     *
+     * @return Returns an instance of {@link CircleParameter} with default parameters
+     */
+    public static CircleParameter defaultParameter() {
+        return new CircleParameter(
+            9,
+            0.5,
+            150,
+            40,
+            0.6,
+            8,
+            6,
+            5);
+    }
+}
@@ -4,10 +4,68 @@ import org.opencv.core.MatOfPoint;
 import org.opencv.core.MatOfPoint2f;
 import org.opencv.core.Rect;
 
-public record ContourData(
-    long approxSize,
-    double area,
-    MatOfPoint2f approx,
-    Rect boundingBox,
-    MatOfPoint contour
-) {}
\ No newline at end of file
+/**
+ * View of a single contour of a {@link ContourSet}. The area is precomputed; all
+ * other properties are derived from the packed points on first access and cached
+ * in the {@link ContourSet}.
+ */
+public final class ContourData {
+
+    private final ContourSet contourSet;
+    private final int index;
+
+    ContourData(final ContourSet contourSet, final int index) {
+        this.contourSet = contourSet;
+        this.index = index;
+    }
+
+    public double area() {
+        return contourSet.area(index);
+    }
+
+    public int pointCount() {
+        return contourSet.pointCount(index);
+    }
+
+    /**
+     * @return length of the open contour polyline
+     */
+    public double perimeter() {
+        return contourSet.perimeter(index);
+    }
+
+    /**
+     * @return number of points of {@link #approx()}
+     */
+    public long approxSize() {
+        return approx().total();
+    }
+
+    /**
+     * @return polygon approximation with {@link ContourParameter#epsilon()} times the perimeter
+     */
+    public MatOfPoint2f approx() {
+        return contourSet.approximation(index);
+    }
+
+    /**
+     * @return bounding box of the contour points
+     */
+    public Rect boundingBox() {
+        return contourSet.boundingBox(index);
+    }
+
+    /**
+     * @return new {@link MatOfPoint} of the contour points
+     */
+    public MatOfPoint contour() {
+        return contourSet.contour(index);
+    }
+
+    /**
+     * @return new {@link MatOfPoint2f} of the contour points, e.g. for {@link org.opencv.imgproc.Imgproc#fitEllipse}
+     */
+    public MatOfPoint2f contour2f() {
+        return contourSet.contour2f(index);
+    }
+}
@@ -0,0 +1,302 @@
+package de.leidenheit;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.RotatedRect;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Searches the {@link ContourParameter} space for parameters that find the board ellipse
+ * reliably and fast. The ArUco ROIs of all images are extracted once; each candidate then
+ * runs {@link BoardAnalyzer#findBoardEllipse} over all ROIs on a work-stealing pool.
+ * Latencies measured next to other candidates would mostly reflect the contention of the
+ * pool, so the candidates are timed afterwards in a serial pass with a fixed number of
+ * OpenCV threads.
+ * Candidates are scored by
+ *  - success rate: share of images with an ellipse within the area window
+ *  - fit deviation: mean relative distance of the fitted ellipse to the consensus
+ *    (median of all successful candidates) of the same image
+ *  - latency: mean milliseconds per image
+ * and the Pareto-optimal candidates among those finding at least one board are returned.
+ */
+public final class ContourParameterTuner implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ContourParameterTuner.class.getSimpleName());
+
+    private static final double[] GAUSS_FACTORS = {5, 7, 9, 11, 13};
+    private static final double[] CANNY_THRESHOLDS_LOW = {25, 50, 100};
+    private static final double[] CANNY_THRESHOLDS_HIGH = {75, 150, 200};
+    private static final int[] DILATE_ITERATIONS = {1, 2, 4, 6};
+    private static final int[] ERODE_ITERATIONS = {0, 1, 2};
+
+    private final ExecutorService executorService;
+    private final int timingThreads;
+
+    /**
+     * @param parallelism number of candidates evaluated in parallel
+     * @param timingThreads number of OpenCV threads while the candidates are timed
+     */
+    public ContourParameterTuner(final int parallelism, final int timingThreads) {
+        this.executorService = Executors.newWorkStealingPool(parallelism);
+        this.timingThreads = timingThreads;
+    }
+
+    /**
+     * Creates all candidates of the search grid; the canny high threshold is always
+     * above the low threshold. Area threshold, epsilon and drawing are taken from
+     * {@link ContourParameter#defaultParameter()}.
+     *
+     * @return list of {@link ContourParameter}
+     */
+    public static List<ContourParameter> gridCandidates() {
+        final var template = ContourParameter.defaultParameter();
+        final var candidates = new ArrayList<ContourParameter>();
+        for (var gaussFactor : GAUSS_FACTORS) {
+            for (var cannyLow : CANNY_THRESHOLDS_LOW) {
+                for (var cannyHigh : CANNY_THRESHOLDS_HIGH) {
+                    if (cannyHigh <= cannyLow) {
+                        continue;
+                    }
+                    for (var dilate : DILATE_ITERATIONS) {
+                        for (var erode : ERODE_ITERATIONS) {
+                            candidates.add(new ContourParameter(
+                                gaussFactor,
+                                cannyLow,
+                                cannyHigh,
+                                dilate,
+                                erode,
+                                template.areaThreshold(),
+                                template.epsilon(),
+                                template.drawColorBGRA(),
+                                template.drawThickness()));
+                        }
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Draws a random sample of the search grid.
+     *
+     * @param count number of candidates
+     * @param seed seed of the {@link Random}
+     * @return list of {@link ContourParameter}
+     */
+    public static List<ContourParameter> randomCandidates(final int count, final long seed) {
+        final var candidates = gridCandidates();
+        Collections.shuffle(candidates, new Random(seed));
+        return candidates.subList(0, Math.min(count, candidates.size()));
+    }
+
+    /**
+     * Evaluates all candidates on the given images and returns the Pareto set.
+     *
+     * @param imagePaths absolute paths of the board images
+     * @param cameraParameter {@link CameraParameter}
+     * @param calibrationData {@link CalibrationData}
+     * @param candidates {@link ContourParameter}s to evaluate
+     * @return Pareto-optimal {@link CandidateScore}s ordered by success rate and latency
+     */
+    public List<CandidateScore> tune(
+        final List<String> imagePaths,
+        final CameraParameter cameraParameter,
+        final CalibrationData calibrationData,
+        final List<ContourParameter> candidates) {
+
+        final var start = System.nanoTime();
+        final var rois = new ArrayList<Mat>();
+        for (var imagePath : imagePaths) {
+            final var roi = BoardAnalyzer.extractRoi(imagePath, cameraParameter, calibrationData);
+            if (roi != null) {
+                rois.add(roi);
+            } else {
+                LOGGER.warning("Skipping image without aruco roi: " + imagePath);
+            }
+        }
+        LOGGER.info(String.format("Evaluating %s candidates on %s rois", candidates.size(), rois.size()));
+
+        final var futures = new ArrayList<CompletableFuture<RotatedRect[]>>(candidates.size());
+        for (var candidate : candidates) {
+            futures.add(CompletableFuture.supplyAsync(() -> findEllipses(candidate, rois), executorService));
+        }
+        final var ellipses = futures.stream()
+            .map(CompletableFuture::join)
+            .toList();
+        final var meanNanos = measureLatencies(candidates, rois);
+        final var fits = new ArrayList<CandidateFits>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            fits.add(new CandidateFits(candidates.get(i), ellipses.get(i), meanNanos[i]));
+        }
+
+        final var consensus = consensus(fits, rois.size());
+        final var scores = fits.stream()
+            .map(candidateFits -> candidateFits.score(consensus))
+            .toList();
+        final var paretoSet = paretoSet(scores);
+        LOGGER.info(String.format("Tuning finished in %s ms; %s of %s candidates are pareto-optimal",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            paretoSet.size(),
+            scores.size()));
+        return paretoSet;
+    }
+
+    private static RotatedRect[] findEllipses(final ContourParameter candidate, final List<Mat> rois) {
+        final var ellipses = new RotatedRect[rois.size()];
+        for (int i = 0; i < rois.size(); i++) {
+            ellipses[i] = BoardAnalyzer.findBoardEllipse(rois.get(i), candidate);
+        }
+        return ellipses;
+    }
+
+    /**
+     * Times the candidates one after another on the calling thread with the OpenCV thread
+     * count pinned to {@code timingThreads}; the previous thread count is restored afterwards.
+     */
+    private long[] measureLatencies(final List<ContourParameter> candidates, final List<Mat> rois) {
+        final var meanNanos = new long[candidates.size()];
+        if (rois.isEmpty()) {
+            return meanNanos;
+        }
+        final var previousThreads = Core.getNumThreads();
+        Core.setNumThreads(timingThreads);
+        try {
+            for (int c = 0; c < candidates.size(); c++) {
+                final var start = System.nanoTime();
+                findEllipses(candidates.get(c), rois);
+                meanNanos[c] = (System.nanoTime() - start) / rois.size();
+            }
+        } finally {
+            Core.setNumThreads(previousThreads);
+        }
+        return meanNanos;
+    }
+
+    /**
+     * Determines the median ellipse (center, width, height) per image over all successful candidates.
+     */
+    private static double[][] consensus(final List<CandidateFits> fits, final int imageCount) {
+        final var consensus = new double[imageCount][];
+        for (int i = 0; i < imageCount; i++) {
+            final var values = new ArrayList<double[]>();
+            for (var candidateFits : fits) {
+                final var ellipse = candidateFits.ellipses()[i];
+                if (ellipse != null) {
+                    values.add(new double[]{ellipse.center.x, ellipse.center.y, ellipse.size.width, ellipse.size.height});
+                }
+            }
+            if (!values.isEmpty()) {
+                final var median = new double[4];
+                final var component = new double[values.size()];
+                for (int c = 0; c < median.length; c++) {
+                    for (int v = 0; v < values.size(); v++) {
+                        component[v] = values.get(v)[c];
+                    }
+                    Arrays.sort(component);
+                    median[c] = component[component.length / 2];
+                }
+                consensus[i] = median;
+            }
+        }
+        return consensus;
+    }
+
+    static List<CandidateScore> paretoSet(final List<CandidateScore> scores) {
+        // candidates that never find the board would otherwise win on latency alone
+        final var successful = scores.stream()
+            .filter(score -> score.successRate() > 0)
+            .toList();
+        return successful.stream()
+            .filter(score -> successful.stream().noneMatch(other -> other.dominates(score)))
+            .sorted(Comparator.comparingDouble(CandidateScore::successRate).reversed()
+                .thenComparingDouble(CandidateScore::meanLatencyMillis))
+            .toList();
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    private record CandidateFits(
+        ContourParameter parameter,
+        RotatedRect[] ellipses,
+        long meanNanos
+    ) {
+
+        CandidateScore score(final double[][] consensus) {
+            var successes = 0;
+            var deviationSum = 0d;
+            for (int i = 0; i < ellipses.length; i++) {
+                final var ellipse = ellipses[i];
+                if (ellipse == null) {
+                    continue;
+                }
+                successes++;
+                final var reference = consensus[i];
+                final var referenceSize = Math.max(1d, Math.max(reference[2], reference[3]));
+                deviationSum += (Math.abs(ellipse.center.x - reference[0])
+                    + Math.abs(ellipse.center.y - reference[1])
+                    + Math.abs(ellipse.size.width - reference[2])
+                    + Math.abs(ellipse.size.height - reference[3])) / referenceSize;
+            }
+            return new CandidateScore(
+                parameter,
+                ellipses.length == 0 ? 0 : (double) successes / ellipses.length,
+                successes == 0 ? Double.POSITIVE_INFINITY : deviationSum / successes,
+                meanNanos / 1_000_000d);
+        }
+    }
+
+    /**
+     * Score of a {@link ContourParameter} candidate.
+     *
+     * @param parameter {@link ContourParameter}
+     * @param successRate share of images with an ellipse within the area window (higher is better)
+     * @param fitDeviation mean relative deviation from the consensus ellipse (lower is better)
+     * @param meanLatencyMillis mean contour and ellipse latency per image (lower is better)
+     */
+    public record CandidateScore(
+        ContourParameter parameter,
+        double successRate,
+        double fitDeviation,
+        double meanLatencyMillis
+    ) {
+
+        boolean dominates(final CandidateScore other) {
+            final var notWorse = successRate >= other.successRate
+                && fitDeviation <= other.fitDeviation
+                && meanLatencyMillis <= other.meanLatencyMillis;
+            final var better = successRate > other.successRate
+                || fitDeviation < other.fitDeviation
+                || meanLatencyMillis < other.meanLatencyMillis;
+            return notWorse && better;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "gauss=%s; canny=%s/%s; dilate=%s; erode=%s -> success=%.2f; deviation=%.4f; latency=%.2f ms",
+                parameter.gaussFactor(),
+                parameter.cannyThresholdLow(),
+                parameter.cannyThresholdHigh(),
+                parameter.dilateIterations(),
+                parameter.erodeIterations(),
+                successRate,
+                fitDeviation,
+                meanLatencyMillis);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package de.leidenheit;
+
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Rect;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Contours of one frame packed into a single primitive arena: the points of all
+ * contours are stored consecutively as (x, y) pairs and only the area is computed
+ * up front. Perimeter, bounding box and polygon approximation are derived on first
+ * access and cached per contour, so filtering by area or bounding box touches no
+ * native {@link org.opencv.core.Mat} at all. The elements are {@link ContourData}
+ * views into the arena. Not thread-safe.
+ */
+public final class ContourSet extends AbstractList<ContourData> implements RandomAccess {
+
+    private final int[] points;
+    private final int[] offsets;
+    private final double[] areas;
+    private final int size;
+    private final double epsilon;
+    private final double[] perimeters;
+    private final int[] boundingBoxes;
+    private final MatOfPoint2f[] approximations;
+
+    private ContourSet(
+        final int[] points,
+        final int[] offsets,
+        final double[] areas,
+        final int size,
+        final double epsilon) {
+        this.points = points;
+        this.offsets = offsets;
+        this.areas = areas;
+        this.size = size;
+        this.epsilon = epsilon;
+        this.perimeters = new double[size];
+        Arrays.fill(perimeters, Double.NaN);
+        this.boundingBoxes = new int[size * 4];
+        Arrays.fill(boundingBoxes, -1);
+        this.approximations = new MatOfPoint2f[size];
+    }
+
+    /**
+     * Copies all contours with an area above the threshold into a new arena.
+     * The given {@link MatOfPoint}s are only read, the caller may release them afterwards.
+     *
+     * @param contours result of {@link Imgproc#findContours}
+     * @param areaThreshold minimum area in pixels
+     * @param epsilon approximation accuracy as factor of the perimeter, see {@link ContourParameter#epsilon()}
+     * @return {@link ContourSet}
+     */
+    public static ContourSet of(final List<MatOfPoint> contours, final double areaThreshold, final double epsilon) {
+        var capacity = 0;
+        var maxLength = 0;
+        for (var contour : contours) {
+            final var length = 2 * (int) contour.total();
+            capacity += length;
+            maxLength = Math.max(maxLength, length);
+        }
+        final var points = new int[capacity];
+        final var offsets = new int[contours.size() + 1];
+        final var areas = new double[contours.size()];
+        // one bulk copy per contour; contours below the threshold are overwritten by the next one
+        final var buffer = new int[maxLength];
+        var size = 0;
+        var position = 0;
+        for (var contour : contours) {
+            final var length = 2 * (int) contour.total();
+            if (length == 0) {
+                continue;
+            }
+            contour.get(0, 0, buffer);
+            System.arraycopy(buffer, 0, points, position, length);
+            final var area = area(points, position, position + length);
+            if (area > areaThreshold) {
+                areas[size] = area;
+                position += length;
+                offsets[++size] = position;
+            }
+        }
+        return new ContourSet(points, offsets, areas, size, epsilon);
+    }
+
+    @Override
+    public ContourData get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return new ContourData(this, index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param minArea inclusive lower bound
+     * @param maxArea inclusive upper bound
+     * @return {@link ContourData} with an area within the bounds in detection order
+     */
+    public List<ContourData> withArea(final double minArea, final double maxArea) {
+        final var result = new ArrayList<ContourData>();
+        for (int i = 0; i < size; i++) {
+            if (minArea <= areas[i] && maxArea >= areas[i]) {
+                result.add(new ContourData(this, i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param region {@link Rect} in image coordinates
+     * @return {@link ContourData} whose bounding box lies completely within the region in detection order
+     */
+    public List<ContourData> within(final Rect region) {
+        final var result = new ArrayList<ContourData>();
+        for (int i = 0; i < size; i++) {
+            computeBoundingBox(i);
+            final var offset = i * 4;
+            if (boundingBoxes[offset] >= region.x
+                && boundingBoxes[offset + 1] >= region.y
+                && boundingBoxes[offset] + boundingBoxes[offset + 2] <= region.x + region.width
+                && boundingBoxes[offset + 1] + boundingBoxes[offset + 3] <= region.y + region.height) {
+                result.add(new ContourData(this, i));
+            }
+        }
+        return result;
+    }
+
+    double area(final int index) {
+        return areas[index];
+    }
+
+    int pointCount(final int index) {
+        return (offsets[index + 1] - offsets[index]) / 2;
+    }
+
+    /**
+     * Length of the open polyline like {@code Imgproc.arcLength(curve, false)}.
+     */
+    double perimeter(final int index) {
+        if (Double.isNaN(perimeters[index])) {
+            var perimeter = 0d;
+            for (int i = offsets[index] + 2; i < offsets[index + 1]; i += 2) {
+                perimeter += Math.hypot(points[i] - points[i - 2], points[i + 1] - points[i - 1]);
+            }
+            perimeters[index] = perimeter;
+        }
+        return perimeters[index];
+    }
+
+    Rect boundingBox(final int index) {
+        computeBoundingBox(index);
+        final var offset = index * 4;
+        return new Rect(
+            boundingBoxes[offset],
+            boundingBoxes[offset + 1],
+            boundingBoxes[offset + 2],
+            boundingBoxes[offset + 3]);
+    }
+
+    MatOfPoint2f approximation(final int index) {
+        if (approximations[index] == null) {
+            final var approximatedCurve = new MatOfPoint2f();
+            Imgproc.approxPolyDP(
+                contour2f(index),
+                approximatedCurve,
+                epsilon * perimeter(index),
+                false);
+            approximations[index] = approximatedCurve;
+        }
+        return approximations[index];
+    }
+
+    MatOfPoint contour(final int index) {
+        final var contour = new MatOfPoint();
+        contour.alloc(pointCount(index));
+        contour.put(0, 0, Arrays.copyOfRange(points, offsets[index], offsets[index + 1]));
+        return contour;
+    }
+
+    MatOfPoint2f contour2f(final int index) {
+        final var coordinates = new float[offsets[index + 1] - offsets[index]];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = points[offsets[index] + i];
+        }
+        final var contour2f = new MatOfPoint2f();
+        contour2f.alloc(pointCount(index));
+        contour2f.put(0, 0, coordinates);
+        return contour2f;
+    }
+
+    private void computeBoundingBox(final int index) {
+        final var offset = index * 4;
+        if (boundingBoxes[offset] >= 0) {
+            return;
+        }
+        var minX = Integer.MAX_VALUE;
+        var minY = Integer.MAX_VALUE;
+        var maxX = Integer.MIN_VALUE;
+        var maxY = Integer.MIN_VALUE;
+        for (int i = offsets[index]; i < offsets[index + 1]; i += 2) {
+            minX = Math.min(minX, points[i]);
+            maxX = Math.max(maxX, points[i]);
+            minY = Math.min(minY, points[i + 1]);
+            maxY = Math.max(maxY, points[i + 1]);
+        }
+        // inclusive pixel extent like Imgproc.boundingRect
+        boundingBoxes[offset] = minX;
+        boundingBoxes[offset + 1] = minY;
+        boundingBoxes[offset + 2] = maxX - minX + 1;
+        boundingBoxes[offset + 3] = maxY - minY + 1;
+    }
+
+    /**
+     * Shoelace formula like {@link Imgproc#contourArea} of a non-oriented contour.
+     */
+    private static double area(final int[] points, final int from, final int to) {
+        var twiceArea = 0L;
+        for (int i = from; i < to; i += 2) {
+            final var next = i + 2 < to ? i + 2 : from;
+            twiceArea += (long) points[i] * points[next + 1] - (long) points[next] * points[i + 1];
+        }
+        return Math.abs(twiceArea) / 2d;
+    }
+}
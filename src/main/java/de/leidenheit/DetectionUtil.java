@@ -9,7 +9,6 @@ import org.opencv.core.Point;
 import org.opencv.core.RotatedRect;
 import org.opencv.core.Scalar;
 import org.opencv.core.Size;
-import org.opencv.highgui.HighGui;
 import org.opencv.imgproc.Imgproc;
 
 import org.opencv.imgcodecs.Imgcodecs;
@@ -17,23 +16,33 @@ import org.opencv.aruco.Aruco;
 import org.opencv.aruco.DetectorParameters;
 import org.opencv.calib3d.Calib3d;
 
-import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBufferByte;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.swing.JPanel;
 import javax.swing.text.WrappedPlainView;
 
 public final class DetectionUtil {
 
     private static final Logger LOGGER = Logger.getLogger("DetectionUtil");
+    private static final PipelineMetrics METRICS = PipelineMetrics.getInstance();
+    static final Scalar POLAR_COORDINATE_COLOR = new Scalar(200, 50, 200);
+    private static final DiagnosticRing DIAGNOSTICS = DiagnosticRing.getInstance();
+    private static final SampledLog DISTORTION_LOG = SampledLog.everyMillis(1_000);
+    private static final SampledLog INVALID_MARKERS_LOG = SampledLog.everyMillis(1_000);
+    private static final SampledLog INVALID_POINTS_LOG = SampledLog.everyMillis(1_000);
+    private static final boolean REDUCED_DECODE =
+        Boolean.getBoolean("decode.reduced");
 
     /** 
      * Distorts an image using given calibration information.
+     * With {@code -Ddecode.reduced=true} and if {@link CameraParameter#scaleFactor()} allows,
+     * the image is decoded at 1/2, 1/4 or 1/8 resolution and undistorted with intrinsics scaled
+     * to that resolution, so only a remaining factor has to be resized. Undistorting at the
+     * reduced resolution blurs the ArUco markers enough to lose some of them, therefore the
+     * full resolution path is the default.
      * 
      * @param imageFilePath
      * @param cameraParameter
@@ -54,27 +63,37 @@ public final class DetectionUtil {
         //    .map(fileName -> files.getAbsolutePath() + "/" + fileName)
         //    .findFirst()
         //    .orElse(null);
-        LOGGER.info("Reducing distortion of image " + imageFilePath);
+        DISTORTION_LOG.info(LOGGER, () -> "Reducing distortion of image " + imageFilePath);
         final var dgbUndistortedImageMat = new Mat();
-        final var dgbImageMat = Imgcodecs.imread(imageFilePath);
+        final var decodeStart = System.nanoTime();
+        final var decodeEvent = PipelineStageEvent.begin(PipelineStage.DECODE);
+        final var reduction = REDUCED_DECODE ? reducedDecodeFactor(cameraParameter.scaleFactor()) : 1;
+        final var dgbImageMat = Imgcodecs.imread(imageFilePath, reducedDecodeFlag(reduction));
+        final var decodedCalibration = calibrationData.scaled(1d / reduction, 1d / reduction);
+        decodeEvent.complete(dgbImageMat, -1, -1);
+        METRICS.recordStage(PipelineStage.DECODE, decodeStart);
+        final var undistortStart = System.nanoTime();
+        final var undistortEvent = PipelineStageEvent.begin(PipelineStage.UNDISTORT);
         // LOGGER.info("\n#########\n\tDistortion Coefficients: " + mDistortionCoefficients.dump());
         // LOGGER.info("\n#########\n\tCamera Matrix: " + mCameraMatrix.dump());
         // removes unwanted pixels from matrix and returns ROI
         final var optimalMatrix = Calib3d.getOptimalNewCameraMatrix(
-            calibrationData.cameraMatrix(),
-            calibrationData.distortionCoefficients(),
+            decodedCalibration.cameraMatrix(),
+            decodedCalibration.distortionCoefficients(),
             dgbImageMat.size(), 
             1, 
             dgbImageMat.size());
         //LOGGER.info("\n#########\n\tOptimal Camera Matrix: " + optimalMatrix.dump()  
         //    + "\nROI=" + roi);
 
+        final var undistortCall = NativeCallEvent.begin("Calib3d.undistort");
         Calib3d.undistort(
             dgbImageMat, 
             dgbUndistortedImageMat, 
-            calibrationData.cameraMatrix(), 
-            calibrationData.distortionCoefficients(),
+            decodedCalibration.cameraMatrix(), 
+            decodedCalibration.distortionCoefficients(),
             optimalMatrix);
+        undistortCall.complete();
 
         if (debug) {
             DetectionUtil.debugShowImage(
@@ -86,33 +105,53 @@ public final class DetectionUtil {
                 "after_distortion"
             );
         }
-        // resize
-        Imgproc.resize(dgbUndistortedImageMat, dgbUndistortedImageMat, 
-            new Size(
-                dgbUndistortedImageMat.width()*cameraParameter.scaleFactor(), 
-                dgbUndistortedImageMat.height()*cameraParameter.scaleFactor()));
+        // resize by the factor not covered by the reduced decode
+        final var remainingScale = cameraParameter.scaleFactor() * reduction;
+        if (remainingScale != 1d) {
+            Imgproc.resize(dgbUndistortedImageMat, dgbUndistortedImageMat, 
+                new Size(
+                    dgbUndistortedImageMat.width()*remainingScale, 
+                    dgbUndistortedImageMat.height()*remainingScale));
+        }
+        undistortEvent.complete(dgbUndistortedImageMat, -1, -1);
+        METRICS.recordStage(PipelineStage.UNDISTORT, undistortStart);
         return dgbUndistortedImageMat;
     } 
 
     /**
-     * Draw given {@link Mat} image to a given {@link JPanel}.
+     * Determines the largest JPEG decode reduction (1, 2, 4 or 8) that does not go below
+     * the given scale factor.
+     * 
+     * @param scaleFactor target scale relative to the full resolution
+     * @return reduction factor
+     */
+    static int reducedDecodeFactor(final double scaleFactor) {
+        var reduction = 1;
+        while (reduction < 8 && scaleFactor * reduction * 2 <= 1d + 1e-9) {
+            reduction *= 2;
+        }
+        return reduction;
+    }
+
+    private static int reducedDecodeFlag(final int reduction) {
+        return switch (reduction) {
+            case 2 -> Imgcodecs.IMREAD_REDUCED_COLOR_2;
+            case 4 -> Imgcodecs.IMREAD_REDUCED_COLOR_4;
+            case 8 -> Imgcodecs.IMREAD_REDUCED_COLOR_8;
+            default -> Imgcodecs.IMREAD_COLOR;
+        };
+    }
+
+    /**
+     * Draw given {@link Mat} image to a given {@link MatDisplayPanel}.
+     * The image is copied into a reusable buffer and painted on the EDT;
+     * this method never blocks the calling thread.
      *
      * @param mat Image to draw.
      * @param panel Panel on which to draw image.
      */
-    public static void drawImageToPanel(final Mat mat, final JPanel panel) {
-        final BufferedImage bufferedImage = new BufferedImage(
-                mat.width(),
-                mat.height(),
-                mat.channels() == 1 
-                    ? BufferedImage.TYPE_BYTE_GRAY 
-                    : BufferedImage.TYPE_3BYTE_BGR);
-        mat.get(0, 0, ((DataBufferByte) bufferedImage
-            .getRaster()
-            .getDataBuffer())
-            .getData());
-        final Graphics graphics = panel.getGraphics();
-        graphics.drawImage(bufferedImage, 0, 0, panel);
+    public static void drawImageToPanel(final Mat mat, final MatDisplayPanel panel) {
+        panel.display(mat);
     }
 
     /**
@@ -137,13 +176,44 @@ public final class DetectionUtil {
         boolean useOuterBoundary,
         boolean drawMarkers,
         boolean debug) {
+        return extractArucoROI(
+            undistortedImage,
+            arucoDictionary,
+            roiWidth,
+            roiHeight,
+            useOuterBoundary,
+            drawMarkers,
+            debug,
+            null);
+    }
 
+    /**
+     * Detects aruco markers like {@link #extractArucoROI(Mat, int, int, int, boolean, boolean, boolean)}
+     * and additionally returns the four marker corners used as source points of the homography.
+     * 
+     * @param arucoCorners {@link MatOfPoint2f} receiving the corners in ROI order or null
+     * 
+     * @return Returns ROI {@link Mat} extract from aruco markers
+     */
+    public static Mat extractArucoROI(
+        Mat undistortedImage,
+        int arucoDictionary,
+        int roiWidth,
+        int roiHeight,
+        boolean useOuterBoundary,
+        boolean drawMarkers,
+        boolean debug,
+        MatOfPoint2f arucoCorners) {
+
+        final var arucoStart = System.nanoTime();
+        final var arucoEvent = PipelineStageEvent.begin(PipelineStage.ARUCO);
         final var markerCorners = new ArrayList<Mat>();
         final var markerIds = new Mat();
         final var rejectedImagePoints = new ArrayList<Mat>();
 
         final var dict = Aruco.getPredefinedDictionary(arucoDictionary); 
         final var detectorParams = DetectorParameters.create();
+        final var detectMarkersCall = NativeCallEvent.begin("Aruco.detectMarkers");
         Aruco.detectMarkers(
             undistortedImage,
             dict,
@@ -152,11 +222,21 @@ public final class DetectionUtil {
             detectorParams,
             rejectedImagePoints
         );
-        LOGGER.info("aruco detected marker: " 
-            + "\nmarkerCorners=" + markerCorners.size() + "; \t\ncorners[0]=" + markerCorners.get(0).dump() + "; \t\ncorners[1]=" + markerCorners.get(1).dump() + "; \t\ncorners[2]=" + markerCorners.get(2).dump() + "; \t\ncorners[3]=" + markerCorners.get(3).dump() 
-            + "\nmarkerIds=" + markerIds.dump() + "; rows=" + markerIds.rows() + "; cols=" + markerIds.cols() 
-            + "\nrejections=" + rejectedImagePoints.size()
-        );
+        detectMarkersCall.complete();
+        DIAGNOSTICS.record("aruco.markers", markerCorners.size(), rejectedImagePoints.size(), markerIds.rows());
+        LOGGER.fine(() -> {
+            final var message = new StringBuilder("aruco detected marker: ")
+                .append("\nmarkerCorners=").append(markerCorners.size());
+            for (int i = 0; i < markerCorners.size(); i++) {
+                message.append("; \t\ncorners[").append(i).append("]=").append(markerCorners.get(i).dump());
+            }
+            return message
+                .append("\nmarkerIds=").append(markerIds.dump())
+                .append("; rows=").append(markerIds.rows())
+                .append("; cols=").append(markerIds.cols())
+                .append("\nrejections=").append(rejectedImagePoints.size())
+                .toString();
+        });
         if (drawMarkers) {
             Aruco.drawDetectedMarkers(
                 undistortedImage,
@@ -175,9 +255,9 @@ public final class DetectionUtil {
         // this regex removes [] newline tab space from a given string
         markerIdsAsString = markerIdsAsString.replaceAll("[\\[\\]\n\t ]", "");
         final var expectedMarkerIds = java.util.List.of("0","1", "2", "3");
-        LOGGER.info("expected markerIds: " + expectedMarkerIds);
+        LOGGER.fine(() -> "expected markerIds: " + expectedMarkerIds);
         final var entries = Arrays.asList(markerIdsAsString.split(";"));
-        LOGGER.info("actual markerIds: " + entries);
+        LOGGER.fine(() -> "actual markerIds: " + entries);
         final var validMarkerIds = markerIds.cols() == 1 && markerIds.rows() == 4 
             && expectedMarkerIds.containsAll(entries);   
         if (validMarkerIds) {
@@ -213,7 +293,10 @@ public final class DetectionUtil {
                 new Point(point3[0], point3[1]),
                 new Point(point4[0], point4[1])
             );
-            LOGGER.info("Source points for homography: " + sourcePoints.dump());
+            LOGGER.fine(() -> "Source points for homography: " + sourcePoints.dump());
+            if (arucoCorners != null) {
+                sourcePoints.copyTo(arucoCorners);
+            }
             final var destPoints = new MatOfPoint2f();
             destPoints.fromArray(
                 new Point(0, 0),
@@ -227,12 +310,14 @@ public final class DetectionUtil {
             );
             // warp perspective
             final var warpPerspectiveImg = new Mat(roiWidth, roiHeight, undistortedImage.type());
+            final var warpCall = NativeCallEvent.begin("Imgproc.warpPerspective");
             Imgproc.warpPerspective(
                 undistortedImage,
                 warpPerspectiveImg,
                 homoMat,
                 warpPerspectiveImg.size()
             );
+            warpCall.complete();
             if (debug) {
                 DetectionUtil.debugShowImage(
                     warpPerspectiveImg, 
@@ -244,15 +329,22 @@ public final class DetectionUtil {
                     warpPerspectiveImg,
                     rotatedImg,  
                     Core.ROTATE_180);
+                arucoEvent.complete(undistortedImage, -1, markerCorners.size());
+                METRICS.recordStage(PipelineStage.ARUCO, arucoStart);
                 return rotatedImg;
             }
+            arucoEvent.complete(undistortedImage, -1, markerCorners.size());
+            METRICS.recordStage(PipelineStage.ARUCO, arucoStart);
             return warpPerspectiveImg;
         } else {
-            LOGGER.warning("ArUco marker ids invalid: " 
+            INVALID_MARKERS_LOG.log(LOGGER, Level.WARNING, () -> "ArUco marker ids invalid: " 
                 + markerIds.dump() 
                 + "; rows=" + markerIds.rows() 
                 + "; cols=" + markerIds.cols());
         }
+        arucoEvent.complete(undistortedImage, -1, markerCorners.size());
+        METRICS.recordStage(PipelineStage.ARUCO, arucoStart);
+        METRICS.recordDetectionFailure(PipelineStage.ARUCO);
         return null;
     }
 
@@ -262,71 +354,58 @@ public final class DetectionUtil {
      * @param roi   {@link Mat}
      * @param contourParameter {@link ContourParameter}
      * @param debug
-     * @return Returns a list of {@link MatOfPoint} containing found contours.
+     * @return Returns a {@link ContourSet} containing found contours above the area threshold.
      */
-    public static List<ContourData> findContours(
+    public static ContourSet findContours(
         Mat roi, 
         ContourParameter contourParameter,
         boolean drawContours, 
         boolean debug) {
+        try (final var frameContext = new FrameContext(roi)) {
+            return findContours(frameContext, contourParameter, drawContours, debug);
+        }
+    }
 
-        final var contourDataList = new ArrayList<ContourData>();
-
-        // make roi gray to improve detection
-        final var gray = new Mat();
-        Imgproc.cvtColor(roi, gray, Imgproc.COLOR_BGR2GRAY);        
+    /**
+     * Finds contours in the image of a given {@link FrameContext}; gray, blurred,
+     * edge and morphology images are taken from the context, so they are shared
+     * with other detectors working on the same image.
+     * 
+     * @param frameContext {@link FrameContext} of the ROI
+     * @param contourParameter {@link ContourParameter}
+     * @param drawContours draws the found contours onto the image of the context
+     * @param debug
+     * @return Returns a {@link ContourSet} containing found contours above the area threshold.
+     */
+    public static ContourSet findContours(
+        FrameContext frameContext, 
+        ContourParameter contourParameter,
+        boolean drawContours, 
+        boolean debug) {
 
-        // apply gaussian filter to improve detection
-        final var blurred = new Mat();
-        Imgproc.GaussianBlur(
-            gray,
-            blurred,
-            new Size(contourParameter.gaussFactor(), contourParameter.gaussFactor()),
-            1
-        );
+        final var contoursStart = System.nanoTime();
+        final var contoursEvent = PipelineStageEvent.begin(PipelineStage.CONTOURS);
+        final var roi = frameContext.image();
 
         if (debug) {
             DetectionUtil.debugShowImage(
-                blurred, 
+                frameContext.blurred(contourParameter.gaussFactor(), 1), 
                 "contour_gauss");
         }
         
-        // apply canny filter to improve detection
-        final var edges = new Mat();
-        Imgproc.Canny(
-            blurred,
-            edges,
-            contourParameter.cannyThresholdLow(),
-            contourParameter.cannyThresholdHigh());
-        final var kernel = Imgproc.getStructuringElement(
-            Imgproc.MORPH_RECT, 
-            new Size(4, 4));
-        final var edges_dilate = new Mat();
-        Imgproc.dilate(
-            edges,
-            edges_dilate,
-            kernel,
-            new Point(),
-            contourParameter.dilateIterations()
-        );
-        final var edges_erode = new Mat();
-        Imgproc.erode(
-            edges_dilate,
-            edges_erode,
-            kernel,
-            new Point(),
-            contourParameter.erodeIterations()
-        );
+        // gray, gauss, canny, dilate and erode to improve detection
+        final var edges_erode = frameContext.closedEdges(contourParameter);
         if (debug) {
             DetectionUtil.debugShowImage(
                 edges_erode, 
                 "canny_erode");
         }
 
-        // finally findContours
-        final var image = edges_erode.clone();
+        // finally findContours; the source is not modified since OpenCV 3.2
+        final var image = edges_erode;
         final var contours = new ArrayList<MatOfPoint>();
         final var hierarchy = new Mat();
+        final var findContoursCall = NativeCallEvent.begin("Imgproc.findContours");
         Imgproc.findContours(    
             image,
             contours,
@@ -334,38 +413,13 @@ public final class DetectionUtil {
             Imgproc.RETR_EXTERNAL,
             Imgproc.CHAIN_APPROX_SIMPLE 
         );
+        findContoursCall.complete();
 
-        final var areaThreshold = contourParameter.areaThreshold();
-        for (MatOfPoint contour : contours) {
-            final var area = Imgproc.contourArea(
-                contour);
-            if (area > areaThreshold) {
-                final var contour2f = new MatOfPoint2f(); 
-                contour.convertTo(contour2f, CvType.CV_32FC1);
-                final var perimeter = Imgproc.arcLength(
-                    contour2f, 
-                    false);
-
-                final var epsilon = contourParameter.epsilon();
-                final var approximatedCurve = new MatOfPoint2f(); 
-                Imgproc.approxPolyDP(
-                    contour2f, 
-                    approximatedCurve, 
-                    epsilon * perimeter, 
-                    false);
-
-                final var boundingBoxRect = Imgproc.boundingRect(approximatedCurve);
-
-                final var data = new ContourData(
-                    approximatedCurve.elemSize(),
-                    area,
-                    approximatedCurve,
-                    boundingBoxRect,
-                    contour
-                );
-                contourDataList.add(data);
-            }
-        }
+        // points are copied into one arena; approximation, perimeter and bounding box are derived on demand
+        final var contourSet = ContourSet.of(
+            contours,
+            contourParameter.areaThreshold(),
+            contourParameter.epsilon());
 
         if (drawContours) {
             Imgproc.drawContours(
@@ -381,7 +435,12 @@ public final class DetectionUtil {
                 roi,
                 "contours_after_area_peri_approx_bb");
         }
-        return contourDataList;
+        contours.forEach(Mat::release);
+        hierarchy.release();
+        DIAGNOSTICS.record("contours.found", contours.size(), contourSet.size(), Double.NaN);
+        contoursEvent.complete(roi, contours.size(), -1);
+        METRICS.recordStage(PipelineStage.CONTOURS, contoursStart);
+        return contourSet;
     }
 
     // TODO modify to support also angles
@@ -425,21 +484,14 @@ public final class DetectionUtil {
     }
 
     /**
-     * Uses {@link HighGui.imshow} to present an image resized into 640x480 pixels.
-     * for debugging purposes.
+     * Hands a copy of an image to the {@link OverlayRenderer} for debugging purposes.
+     * Returns immediately; does nothing if overlays are disabled, e.g. in a headless environment.
      * 
      * @param matImage
      * @param windowName
      */
     public static void debugShowImage(final Mat matImage, final String windowName) {
-        
-        // final Size dSize = new Size(960, 960);
-        // final Mat matResized = new Mat();
-        // Imgproc.resize(matImage, matResized, dSize);
-        // HighGui.imshow(windowName, matResized);
-        HighGui.imshow(windowName, matImage);
-        HighGui.waitKey(25);
-        HighGui.destroyWindow(windowName);
+        OverlayRenderer.getInstance().submit(windowName, matImage);
     }
 
     /**
@@ -465,69 +517,23 @@ public final class DetectionUtil {
         final var radiusInnerDoubleLimit = (int) (width * (DartboardRadianFactor.QUADRANT_INNER_DOUBLE / 100));
         final var radiusOuterDoubleLimit = (int) (width * (DartboardRadianFactor.QUADRANT_OUTER_DOUBLE / 100));
 
-        if (debug) {
-            DetectionUtil.drawPolarCoordinateFactorXAxis2(
-                    ellipseImage,
-                    center,
-                    radiusBullsEyeLimit,
-                    100,
-                    0,
-                    0,
-                    new Scalar(0, 0, 139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis2(
-                    ellipseImage,
-                    center,
-                    radiusBullLimit,
-                    100,
-                    0,
-                    0,
-                    new Scalar(0, 0, 139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis2(
-                    ellipseImage,
-                    center,
-                    radiusInnerTripleLimit,
-                    100,
-                    0,
-                    0,
-                    new Scalar(0, 0, 139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis2(
-                    ellipseImage,
-                    center,
-                    radiusOuterTripleLimit,
-                    100,
-                    0,
-                    0,
-                    new Scalar(0, 0, 139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis2(
-                    ellipseImage,
-                    center,
-                    radiusInnerDoubleLimit,
-                    100,
-                    0,
-                    0,
-                    new Scalar(0, 0, 139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis2(
-                    ellipseImage,
-                    center,
-                    radiusOuterDoubleLimit,
-                    100,
-                    0,
-                    0,
-                    new Scalar(0, 0, 139)
-            );
-        }
-        return new DartboardSectorLimits(
+        final var sectorLimits = new DartboardSectorLimits(
                 radiusBullsEyeLimit,
                 radiusBullLimit,
                 radiusInnerTripleLimit,
                 radiusOuterTripleLimit,
                 radiusInnerDoubleLimit,
                 radiusOuterDoubleLimit);
+        if (debug) {
+            // the markers are drawn by the renderer on its own copy of the image
+            OverlayRenderer.getInstance().submit(
+                    "sector_limits",
+                    ellipseImage,
+                    new RotatedRect(center, new Size(width, width), 0),
+                    sectorLimits,
+                    null);
+        }
+        return sectorLimits;
     }
 
     /**
@@ -552,69 +558,23 @@ public final class DetectionUtil {
         final var radiusInnerDoubleLimit = (int) (width * (DartboardRadianFactor.QUADRANT_INNER_DOUBLE / 100));
         final var radiusOuterDoubleLimit = (int) (width * (DartboardRadianFactor.QUADRANT_OUTER_DOUBLE / 100));
 
-        if (debug) {
-            DetectionUtil.drawPolarCoordinateFactorXAxis(
-                ellipseImage,
-                ellipseBoundary,
-                radiusBullsEyeLimit,
-                100,
-                0,
-                0,
-                new Scalar(0,0,139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis(
-                ellipseImage,
-                ellipseBoundary,
-                radiusBullLimit,
-                100,
-                0,
-                0,
-                new Scalar(0,0,139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis(
-                ellipseImage,
-                ellipseBoundary,
-                radiusInnerTripleLimit,
-                100,
-                0,
-                0,
-                new Scalar(0,0,139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis(
-                ellipseImage,
-                ellipseBoundary,
-                radiusOuterTripleLimit,
-                100,
-                0,
-                0,
-                new Scalar(0,0,139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis(
-                ellipseImage,
-                ellipseBoundary,
-                radiusInnerDoubleLimit,
-                100,
-                0,
-                0,
-                new Scalar(0,0,139)
-            );
-            DetectionUtil.drawPolarCoordinateFactorXAxis(
-                ellipseImage,
-                ellipseBoundary,
-                radiusOuterDoubleLimit,
-                100,
-                0,
-                0,
-                new Scalar(0,0,139)
-            );
-        }
-        return new DartboardSectorLimits(
+        final var sectorLimits = new DartboardSectorLimits(
             radiusBullsEyeLimit, 
             radiusBullLimit, 
             radiusInnerTripleLimit, 
             radiusOuterTripleLimit, 
             radiusInnerDoubleLimit, 
             radiusOuterDoubleLimit);
+        if (debug) {
+            // the markers are drawn by the renderer on its own copy of the image
+            OverlayRenderer.getInstance().submit(
+                "sector_limits",
+                ellipseImage,
+                ellipseBoundary,
+                sectorLimits,
+                null);
+        }
+        return sectorLimits;
     }
 
     /**
@@ -638,38 +598,42 @@ public final class DetectionUtil {
                 Math.pow(point.x - center.x, 2)
                 + Math.pow(point.y - center.y, 2)
             );
-            LOGGER.info(String.format("Determined radius=%s", radius));
+            final var determinedRadius = radius;
+            LOGGER.fine(() -> String.format("Determined radius=%s", determinedRadius));
 
             if (point.y < center.y) {
                 // quadrant I
                 if (point.x < center.x) {
-                    LOGGER.info("Determining angle in quadrant I");
+                    LOGGER.finest("Determining angle in quadrant I");
                     // angle acos
                     angle = Math.acos(Math.abs(point.y - center.y) / radius) + Math.PI / 2;
                 // quadrant II 
                 } else {
-                    LOGGER.info("Determining angle in quadrant II");
+                    LOGGER.finest("Determining angle in quadrant II");
                     // angle asin
                     angle = Math.asin(Math.abs(point.y - center.y) / radius);
                 }
             } else {
                 // quadrant III
                 if (point.x > center.x) {
-                    LOGGER.info("Determining angle in quadrant III");
+                    LOGGER.finest("Determining angle in quadrant III");
                     // angle acos
                     angle = Math.acos(Math.abs(point.y - center.y) / radius) + Math.PI + Math.PI / 2;
                 } else {
                     // quadrant IV
-                    LOGGER.info("Determining angle in quadrant IV");
+                    LOGGER.finest("Determining angle in quadrant IV");
                     // angle asin
                     angle = Math.asin(Math.abs(point.y - center.y) / radius) + Math.PI;
                 }
             }
             // convert radiant to degrees
             angle = angle * (180 / Math.PI);
-            LOGGER.info(String.format("Determined angle=%s", angle));
+            final var determinedAngle = angle;
+            LOGGER.fine(() -> String.format("Determined angle=%s", determinedAngle));
+            DIAGNOSTICS.record("polar.radiusAngle", radius, angle, Double.NaN);
         } else {
-            LOGGER.info(String.format("Cannot determin angle an radius due to invalid input points: (%s)(%s)",
+            INVALID_POINTS_LOG.info(LOGGER, () -> String.format(
+                "Cannot determin angle an radius due to invalid input points: (%s)(%s)",
                 center, point));
         }
 
@@ -678,15 +642,37 @@ public final class DetectionUtil {
 
     /**
      * Draws a dartboard representation as polar coordinate system on a given image. 
+     * Unless debugging, the pre-rendered layer of {@link PolarCoordinateOverlay} is
+     * composited onto the image instead of drawing every sector line.
      * 
      * @param image {@link Mat}
      * @param rotatedRectEllipse {@link RotatedRect}
-     * @param debug
+     * @param debug shows the image after each drawn sector
      */
     public static void drawPolarCoordinateSystem(
             Mat image, 
             RotatedRect rotatedRectEllipse, 
             boolean debug) {
+        if (debug) {
+            drawPolarCoordinateGrid(image, rotatedRectEllipse, POLAR_COORDINATE_COLOR, true);
+        } else {
+            PolarCoordinateOverlay.getInstance().apply(image, rotatedRectEllipse);
+        }
+    }
+
+    /**
+     * Draws the sector lines and value labels of the polar coordinate system in a given color.
+     * 
+     * @param image {@link Mat}
+     * @param rotatedRectEllipse {@link RotatedRect}
+     * @param color {@link Scalar} of lines and labels
+     * @param debug
+     */
+    static void drawPolarCoordinateGrid(
+            Mat image, 
+            RotatedRect rotatedRectEllipse, 
+            Scalar color,
+            boolean debug) {
         final var polarCoordValueAngleRange = PolarCoordinateValueAngleRange.getInstance();
         final var pointLeftFieldBoundary = new Point();
         final var pointRightFieldBoundary = new Point();
@@ -706,20 +692,20 @@ public final class DetectionUtil {
                 rotatedRectEllipse.center.y + 
                     (rotatedRectEllipse.size.height / 1.75) * Math.sin(endAngle * Math.PI / -180.0));
 
-            LOGGER.info(String.format("drawLine for angles [%s][%s] to (%s,%s)", 
+            LOGGER.finer(() -> String.format("drawLine for angles [%s][%s] to (%s,%s)", 
                 startAngle, endAngle, pointLeftFieldBoundary, pointRightFieldBoundary));
             Imgproc.line(
                 image,
                 rotatedRectEllipse.center,
                 pointLeftFieldBoundary,
-                new Scalar(200, 50, 200),
+                color,
                 1
             );
             Imgproc.line(
                 image,
                 rotatedRectEllipse.center,
                 pointRightFieldBoundary,
-                new Scalar(200, 50, 200),
+                color,
                 1
             );
             Imgproc.putText(
@@ -728,7 +714,7 @@ public final class DetectionUtil {
                 pointRightFieldBoundary,
                 Imgproc.FONT_HERSHEY_DUPLEX,
                 0.3,
-                new Scalar(200, 50, 200)
+                color
             );
             if (debug) {
                 DetectionUtil.debugShowImage(image, "debug_polarcoordsys_" + entry.getValue());
@@ -757,11 +743,11 @@ public final class DetectionUtil {
             debug,
             debug
         );
-        LOGGER.info(String.format("Found contours: %s", contourDataList.size()));
+        LOGGER.fine(() -> String.format("Found contours: %s", contourDataList.size()));
         // extract outer most ellipse
         for (var contourData : contourDataList) {
             if (debug) {
-                LOGGER.info("ContourData:"  
+                LOGGER.fine(() -> "ContourData:"  
                     + " length=" + contourData.approxSize() 
                     + "; area=" + contourData.area());
             }
@@ -777,7 +763,7 @@ public final class DetectionUtil {
                 final var rotatedRect = 
                     Imgproc.fitEllipse(
                         contour2f);
-                LOGGER.info("Most outer ellipse bounding rect: " + rotatedRect.boundingRect());
+                LOGGER.fine(() -> "Most outer ellipse bounding rect: " + rotatedRect.boundingRect());
 
                 final var isNotSquareLikeShape = rotatedRect.size.width != rotatedRect.size.height; 
                 // warping most outer ellipse to a square like shape 
@@ -834,24 +820,24 @@ public final class DetectionUtil {
                         debug
                     );
 
-                    LOGGER.info(String.format("Found contours in warped image: %s", 
+                    LOGGER.fine(() -> String.format("Found contours in warped image: %s", 
                         warpedContourDataList.size()));        
                     for (var contour : warpedContourDataList) {
                         final var warpedWithinThreshold = 
                             185_000 <= contour.area() 
                             && 1_000_000 >= contour.area();
                         if (warpedWithinThreshold) {        
-                            LOGGER.info("Warped ellipse valid threshold:" + contour.area());
+                            LOGGER.fine(() -> "Warped ellipse valid threshold:" + contour.area());
                             final var warpedContour2f = new MatOfPoint2f(); 
                             contour.contour()
                                 .convertTo(warpedContour2f, CvType.CV_32FC1);
                             final var warpedRotatedRect = 
                                 Imgproc.fitEllipse(
                                     warpedContour2f);
-                            LOGGER.info("warped ellipse bounding rect: " + 
+                            LOGGER.fine(() -> "warped ellipse bounding rect: " + 
                                 warpedRotatedRect.boundingRect());
                         } else {
-                            LOGGER.info("ellipse ignored due to threshold:" + contour.area());
+                            LOGGER.fine(() -> "ellipse ignored due to threshold:" + contour.area());
                         }
                     }    
                 }
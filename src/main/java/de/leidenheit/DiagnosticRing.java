@@ -0,0 +1,98 @@
+package de.leidenheit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Preallocated ring buffer keeping the most recent per-frame diagnostic records.
+ * Recording stores an event name constant and up to three numeric values into
+ * primitive slots and never allocates. The buffer is dumped when a frame fails.
+ * Under heavy contention a slot may be overwritten while it is written, which is
+ * acceptable for diagnostics.
+ */
+public final class DiagnosticRing {
+
+    private static final Logger LOGGER = Logger.getLogger(DiagnosticRing.class.getSimpleName());
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private static final DiagnosticRing INSTANCE = new DiagnosticRing(
+        Integer.getInteger("diagnostics.ringCapacity", DEFAULT_CAPACITY));
+
+    private final int capacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final long[] frameIds;
+    private final long[] timestamps;
+    private final String[] events;
+    private final double[] values;
+
+    public static DiagnosticRing getInstance() {
+        return INSTANCE;
+    }
+
+    DiagnosticRing(final int capacity) {
+        this.capacity = capacity;
+        this.frameIds = new long[capacity];
+        this.timestamps = new long[capacity];
+        this.events = new String[capacity];
+        this.values = new double[capacity * 3];
+    }
+
+    /**
+     * Records a diagnostic event for the frame of the current thread.
+     *
+     * @param event constant event name, e.g. "aruco.markers"
+     * @param value1 first value
+     * @param value2 second value or {@link Double#NaN}
+     * @param value3 third value or {@link Double#NaN}
+     */
+    public void record(final String event, final double value1, final double value2, final double value3) {
+        final var slot = (int) (sequence.getAndIncrement() % capacity);
+        frameIds[slot] = FrameTrace.currentFrameId();
+        timestamps[slot] = System.nanoTime();
+        events[slot] = event;
+        values[slot * 3] = value1;
+        values[slot * 3 + 1] = value2;
+        values[slot * 3 + 2] = value3;
+    }
+
+    public void record(final String event, final double value) {
+        record(event, value, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Formats the retained records from oldest to newest.
+     *
+     * @return list of formatted records
+     */
+    public List<String> snapshot() {
+        final var end = sequence.get();
+        final var start = Math.max(0, end - capacity);
+        final var lines = new ArrayList<String>((int) (end - start));
+        for (var i = start; i < end; i++) {
+            final var slot = (int) (i % capacity);
+            lines.add(String.format("#%s frame=%s t=%s %s [%s, %s, %s]",
+                i,
+                frameIds[slot],
+                timestamps[slot],
+                events[slot],
+                values[slot * 3],
+                values[slot * 3 + 1],
+                values[slot * 3 + 2]));
+        }
+        return lines;
+    }
+
+    /**
+     * Logs the retained records as a single warning.
+     *
+     * @param reason reason of the dump
+     */
+    public void dump(final String reason) {
+        if (LOGGER.isLoggable(Level.WARNING)) {
+            LOGGER.warning("Diagnostic dump (" + reason + "):\n" + String.join("\n", snapshot()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package de.leidenheit;
+
+public record EllipseRansacParameter(
+    double gaussFactor,             // 11
+    double cannyThresholdLow,       // 50
+    double cannyThresholdHigh,      // 150
+    int maxEdgePoints,              // 4000
+    int maxIterations,              // 800
+    double inlierDistance,          // 2.0
+    double targetCoverage,          // 0.6
+    double minSemiAxisFactor,       // 0.3
+    double maxSemiAxisFactor,       // 0.75
+    double minAxisRatio,            // 0.6
+    double seedMargin,              // 0.1
+    long randomSeed                 // 42
+) {
+
+    /**
+     * Instantiates a {@link EllipseRansacParameter} with the following parameters:
+     *  - gauss = 11; canny thresholds 50/150 like {@link ContourParameter#defaultParameter()},
+     *    so both detectors share the edges of a {@link FrameContext}
+     *  - at most 4000 edge points are sampled
+     *  - at most 800 iterations
+     *  - points within 2 pixels of a candidate are inliers
+     *  - candidates whose inliers cover 60% of their circumference qualify
+     *  - semi-axes between 30% and 75% of the ROI side; minor/major axis ratio at least 0.6
+     *  - with a seed only edge points within 10% of the seed's semi-axes are sampled
+     *  - fixed random seed, so results are reproducible
+     *
+     * @return Returns an instance of {@link EllipseRansacParameter} with default parameters
+     */
+    public static EllipseRansacParameter defaultParameter() {
+        return new EllipseRansacParameter(
+            11,
+            50,
+            150,
+            4000,
+            800,
+            2.0,
+            0.6,
+            0.3,
+            0.75,
+            0.6,
+            0.1,
+            42);
+    }
+}
@@ -0,0 +1,335 @@
+package de.leidenheit;
+
+import org.opencv.core.RotatedRect;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Append-only journal of frame timings, fused hits and board geometry changes for
+ * dispute resolution and analytics. Records have a fixed size of {@link #RECORD_SIZE}
+ * bytes and are written into memory-mapped segment files of {@code journal.segmentRecords}
+ * records each; a background thread forces the segments to disk every
+ * {@code journal.syncMillis} and once more when a segment is retired. Appending claims
+ * a sequence with a single atomic increment, so camera threads never wait for each other
+ * or for the disk.
+ * <pre>
+ * record (little endian)
+ *   0  long sequence + 1, written last (0 = not committed)
+ *   8  int  {@link Type}             12 int value count
+ *  16  long capture timestamp nanos   24 long frame id
+ *  32  long tag, up to 8 ASCII bytes of the camera id
+ *  40  long wall clock millis         48 float[20] values
+ * </pre>
+ * An append interrupted by a crash leaves an uncommitted record below later committed
+ * ones. Reopening continues after the last committed record and commits such holes with
+ * type {@link #HOLE_TYPE}, which {@link EventJournalReader} skips.
+ * The journal is disabled unless {@code journal.directory} is set; see {@link EventJournalReader}
+ * for scanning and tailing.
+ */
+public final class EventJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(EventJournal.class.getSimpleName());
+
+    static final int RECORD_SIZE = 128;
+    static final int MAX_VALUES = 20;
+    static final int COMMIT_OFFSET = 0;
+    static final int TYPE_OFFSET = 8;
+    static final int VALUE_COUNT_OFFSET = 12;
+    static final int TIMESTAMP_OFFSET = 16;
+    static final int FRAME_ID_OFFSET = 24;
+    static final int TAG_OFFSET = 32;
+    static final int EPOCH_MILLIS_OFFSET = 40;
+    static final int VALUES_OFFSET = 48;
+    static final int HOLE_TYPE = -1;
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final VarHandle LONG_VIEW =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final float GEOMETRY_TOLERANCE = 0.5f;
+
+    private static final EventJournal INSTANCE = System.getProperty("journal.directory") == null
+        ? new EventJournal()
+        : new EventJournal(
+            Path.of(System.getProperty("journal.directory")),
+            Integer.getInteger("journal.segmentRecords", 1 << 18),
+            Long.getLong("journal.syncMillis", 1_000));
+
+    /**
+     * Type of a journal record and the meaning of its values.
+     */
+    public enum Type {
+        /** processing millis */
+        FRAME,
+        /** board x, board y, confidence, contributing cameras */
+        HIT,
+        /** ellipse center x/y, width, height, angle and the six {@link DartboardSectorLimits} */
+        GEOMETRY
+    }
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final AtomicReference<float[]> lastGeometry = new AtomicReference<>();
+    private final ScheduledExecutorService syncExecutor;
+
+    public static EventJournal getInstance() {
+        return INSTANCE;
+    }
+
+    private EventJournal() {
+        this.directory = null;
+        this.segmentRecords = 0;
+        this.syncExecutor = null;
+    }
+
+    /**
+     * Opens or continues the journal in a directory.
+     *
+     * @param directory directory of the segment files
+     * @param segmentRecords records per segment
+     * @param syncMillis interval of forcing the segments to disk
+     */
+    EventJournal(final Path directory, final int segmentRecords, final long syncMillis) {
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.syncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Files.createDirectories(directory);
+            nextSequence.set(recoverNextSequence());
+        } catch (IOException exception) {
+            syncExecutor.shutdown();
+            throw new UncheckedIOException("Cannot open journal " + directory, exception);
+        }
+        syncExecutor.scheduleWithFixedDelay(this::sync, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        LOGGER.info(String.format("Journal %s continues at sequence %s", directory, nextSequence.get()));
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public void recordFrame(final String cameraId, final long frameId, final long timestampNanos, final long processingNanos) {
+        if (isEnabled()) {
+            append(Type.FRAME, timestampNanos, frameId, cameraId, processingNanos / 1_000_000f);
+        }
+    }
+
+    public void recordHit(final FusedHit hit) {
+        if (isEnabled()) {
+            final var estimates = hit.contributingEstimates();
+            append(Type.HIT,
+                hit.timestampNanos(),
+                estimates.isEmpty() ? -1 : estimates.get(0).frameId(),
+                null,
+                (float) hit.boardPoint().x,
+                (float) hit.boardPoint().y,
+                (float) hit.confidence(),
+                estimates.size());
+        }
+    }
+
+    /**
+     * Records the board geometry unless it equals the last recorded geometry.
+     *
+     * @param boardEllipse {@link RotatedRect}
+     * @param sectorLimits {@link DartboardSectorLimits}
+     */
+    public void recordGeometry(final RotatedRect boardEllipse, final DartboardSectorLimits sectorLimits) {
+        if (!isEnabled()) {
+            return;
+        }
+        final var values = new float[]{
+            (float) boardEllipse.center.x,
+            (float) boardEllipse.center.y,
+            (float) boardEllipse.size.width,
+            (float) boardEllipse.size.height,
+            (float) boardEllipse.angle,
+            sectorLimits.radiusBullsEyeLimit(),
+            sectorLimits.radiusBullLimit(),
+            sectorLimits.radiusInnerTripleLimit(),
+            sectorLimits.radiusOuterTripleLimit(),
+            sectorLimits.radiusInnerDoubleLimit(),
+            sectorLimits.radiusOuterDoubleLimit()};
+        final var previous = lastGeometry.getAndSet(values);
+        if (previous != null && sameGeometry(previous, values)) {
+            return;
+        }
+        append(Type.GEOMETRY, System.nanoTime(), -1, null, values);
+    }
+
+    private static boolean sameGeometry(final float[] previous, final float[] current) {
+        for (int i = 0; i < current.length; i++) {
+            if (Math.abs(previous[i] - current[i]) > GEOMETRY_TOLERANCE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(
+        final Type type,
+        final long timestampNanos,
+        final long frameId,
+        final String tag,
+        final float... values) {
+
+        final var sequence = nextSequence.getAndIncrement();
+        final var segment = segment(sequence / segmentRecords);
+        final var offset = (int) (sequence % segmentRecords) * RECORD_SIZE;
+        final var count = Math.min(values.length, MAX_VALUES);
+        segment.putInt(offset + TYPE_OFFSET, type.ordinal());
+        segment.putInt(offset + VALUE_COUNT_OFFSET, count);
+        segment.putLong(offset + TIMESTAMP_OFFSET, timestampNanos);
+        segment.putLong(offset + FRAME_ID_OFFSET, frameId);
+        segment.putLong(offset + TAG_OFFSET, encodeTag(tag));
+        segment.putLong(offset + EPOCH_MILLIS_OFFSET, System.currentTimeMillis());
+        for (int i = 0; i < count; i++) {
+            segment.putFloat(offset + VALUES_OFFSET + i * Float.BYTES, values[i]);
+        }
+        LONG_VIEW.setRelease(segment, offset + COMMIT_OFFSET, sequence + 1);
+    }
+
+    private MappedByteBuffer segment(final long index) {
+        final var segment = segments.get(index);
+        if (segment != null) {
+            return segment;
+        }
+        final var mapped = segments.computeIfAbsent(index, this::mapSegment);
+        // older segments are complete once a writer reached this one;
+        // they are forced by the sync thread, so the appending thread does not wait for the disk
+        final var previous = segments.remove(index - 2);
+        if (previous != null) {
+            try {
+                syncExecutor.execute(previous::force);
+            } catch (RejectedExecutionException exception) {
+                // closed journal
+                previous.force();
+            }
+        }
+        return mapped;
+    }
+
+    private MappedByteBuffer mapSegment(final long index) {
+        try (final var channel = FileChannel.open(segmentPath(directory, index),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final var segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) segmentRecords * RECORD_SIZE);
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+            return segment;
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Cannot map journal segment " + index, exception);
+        }
+    }
+
+    /**
+     * Finds the record after the last committed one and commits the holes below it.
+     * Appends in flight at a crash span at most the last two segments.
+     */
+    private long recoverNextSequence() throws IOException {
+        final var indices = segmentIndices(directory);
+        if (indices.length == 0) {
+            return 0;
+        }
+        final var lastIndex = indices[indices.length - 1];
+        final var firstIndex = indices.length > 1 && indices[indices.length - 2] == lastIndex - 1
+            ? lastIndex - 1
+            : lastIndex;
+        var nextSequence = firstIndex * segmentRecords;
+        search:
+        for (var index = lastIndex; index >= firstIndex; index--) {
+            final var segment = segment(index);
+            for (int i = segmentRecords - 1; i >= 0; i--) {
+                if ((long) LONG_VIEW.getAcquire(segment, i * RECORD_SIZE + COMMIT_OFFSET) != 0) {
+                    nextSequence = index * segmentRecords + i + 1;
+                    break search;
+                }
+            }
+        }
+        var holes = 0;
+        for (var sequence = firstIndex * segmentRecords; sequence < nextSequence; sequence++) {
+            final var segment = segment(sequence / segmentRecords);
+            final var offset = (int) (sequence % segmentRecords) * RECORD_SIZE;
+            if ((long) LONG_VIEW.getAcquire(segment, offset + COMMIT_OFFSET) == 0) {
+                segment.putInt(offset + TYPE_OFFSET, HOLE_TYPE);
+                LONG_VIEW.setRelease(segment, offset + COMMIT_OFFSET, sequence + 1);
+                holes++;
+            }
+        }
+        if (holes > 0) {
+            LOGGER.warning(String.format("Journal %s had %s uncommitted records below sequence %s",
+                directory, holes, nextSequence));
+        }
+        return nextSequence;
+    }
+
+    private void sync() {
+        segments.values().forEach(MappedByteBuffer::force);
+    }
+
+    static Path segmentPath(final Path directory, final long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    static long[] segmentIndices(final Path directory) throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                .mapToLong(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                .sorted()
+                .toArray();
+        }
+    }
+
+    static long encodeTag(final String tag) {
+        if (tag == null) {
+            return 0;
+        }
+        final var bytes = Arrays.copyOf(tag.getBytes(StandardCharsets.US_ASCII), Long.BYTES);
+        var encoded = 0L;
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            encoded = (encoded << 8) | (bytes[i] & 0xFF);
+        }
+        return encoded;
+    }
+
+    static String decodeTag(final long encoded) {
+        final var bytes = new byte[Long.BYTES];
+        var length = 0;
+        for (var value = encoded; value != 0 && length < Long.BYTES; value >>>= 8) {
+            bytes[length++] = (byte) value;
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public void close() {
+        if (isEnabled()) {
+            syncExecutor.shutdown();
+            sync();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package de.leidenheit;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static de.leidenheit.EventJournal.*;
+
+/**
+ * Cursor over the records of an {@link EventJournal} directory. {@link #next()} advances
+ * to the next committed record without allocating, so a scan runs at memory speed;
+ * holes left by a crashed writer are skipped once the reopened journal committed them;
+ * {@link #await(long)} tails a journal that is still written. The accessors refer to
+ * the current record. Not thread-safe.
+ */
+public final class EventJournalReader implements AutoCloseable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path directory;
+    private MappedByteBuffer segment;
+    private long segmentIndex = -1;
+    private int segmentRecords;
+    private long nextSequence;
+    private int offset = -1;
+
+    public EventJournalReader(final Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Advances to the next committed record.
+     *
+     * @return true if there is a record; false if the reader caught up with the writer
+     * @throws IOException if a segment cannot be mapped
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            if (segment == null || nextSequence >= (segmentIndex + 1) * segmentRecords) {
+                if (!mapSegment(segment == null ? firstSegmentIndex() : segmentIndex + 1)) {
+                    return false;
+                }
+            }
+            final var candidate = (int) (nextSequence - segmentIndex * segmentRecords) * RECORD_SIZE;
+            if ((long) LONG_VIEW.getAcquire(segment, candidate + COMMIT_OFFSET) != nextSequence + 1) {
+                return false;
+            }
+            nextSequence++;
+            if (segment.getInt(candidate + TYPE_OFFSET) != HOLE_TYPE) {
+                offset = candidate;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Waits until the next record is committed.
+     *
+     * @param timeoutNanos maximum time to wait
+     * @return true if the reader advanced to a new record
+     * @throws IOException if a segment cannot be mapped
+     */
+    public boolean await(final long timeoutNanos) throws IOException {
+        final var deadline = System.nanoTime() + timeoutNanos;
+        while (!next()) {
+            if (System.nanoTime() - deadline >= 0 || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private long firstSegmentIndex() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return -1;
+        }
+        final var indices = segmentIndices(directory);
+        return indices.length == 0 ? -1 : indices[0];
+    }
+
+    private boolean mapSegment(final long index) throws IOException {
+        if (index < 0 || !Files.exists(segmentPath(directory, index))) {
+            return false;
+        }
+        try (final var channel = FileChannel.open(segmentPath(directory, index), StandardOpenOption.READ)) {
+            final var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            segmentRecords = (int) (channel.size() / RECORD_SIZE);
+            if (segment == null) {
+                nextSequence = index * segmentRecords;
+            }
+            segment = mapped;
+            segmentIndex = index;
+            return true;
+        }
+    }
+
+    public long sequence() {
+        return nextSequence - 1;
+    }
+
+    public EventJournal.Type type() {
+        return EventJournal.Type.values()[segment.getInt(offset + TYPE_OFFSET)];
+    }
+
+    public long timestampNanos() {
+        return segment.getLong(offset + TIMESTAMP_OFFSET);
+    }
+
+    public long frameId() {
+        return segment.getLong(offset + FRAME_ID_OFFSET);
+    }
+
+    /**
+     * @return camera id of a frame record or an empty string
+     */
+    public String tag() {
+        return decodeTag(segment.getLong(offset + TAG_OFFSET));
+    }
+
+    public long epochMillis() {
+        return segment.getLong(offset + EPOCH_MILLIS_OFFSET);
+    }
+
+    public int valueCount() {
+        return segment.getInt(offset + VALUE_COUNT_OFFSET);
+    }
+
+    /**
+     * @param index index of the value, see {@link EventJournal.Type}
+     * @return value of the current record
+     */
+    public float value(final int index) {
+        return segment.getFloat(offset + VALUES_OFFSET + index * Float.BYTES);
+    }
+
+    @Override
+    public void close() {
+        segment = null;
+    }
+}
@@ -0,0 +1,9 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+
+public record Frame(
+    long frameId,
+    long timestampNanos,
+    Mat image
+) {}
@@ -0,0 +1,182 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Derived images of a single frame or ROI. Gray, blurred, edge, morphology and
+ * downscaled images are computed on first request and memoized by their parameters,
+ * so detectors working on the same image with the same parameters share one
+ * computation. The returned {@link Mat}s are owned by the context and must not be
+ * modified; {@link #close()} releases them. A context belongs to the thread
+ * processing the frame and is not thread-safe.
+ */
+public final class FrameContext implements AutoCloseable {
+
+    private static final Size MORPHOLOGY_KERNEL_SIZE = new Size(4, 4);
+
+    private final Mat image;
+    private final Map<Object, Mat> derived = new HashMap<>();
+    private int computed;
+    private int reused;
+
+    /**
+     * @param image BGR or gray {@link Mat}; it is not copied, so it must not change while the context is used
+     */
+    public FrameContext(final Mat image) {
+        this.image = image;
+    }
+
+    public Mat image() {
+        return image;
+    }
+
+    public Mat gray() {
+        return derive("gray", () -> {
+            final var gray = new Mat();
+            if (image.channels() == 1) {
+                image.copyTo(gray);
+            } else {
+                Imgproc.cvtColor(image, gray, Imgproc.COLOR_BGR2GRAY);
+            }
+            return gray;
+        });
+    }
+
+    /**
+     * @param kernelSize size of the gaussian kernel
+     * @param sigma standard deviation of the gaussian
+     * @return Returns the blurred gray image.
+     */
+    public Mat blurred(final double kernelSize, final double sigma) {
+        return derive(new BlurKey(kernelSize, sigma), () -> {
+            final var blurred = new Mat();
+            Imgproc.GaussianBlur(gray(), blurred, new Size(kernelSize, kernelSize), sigma);
+            return blurred;
+        });
+    }
+
+    /**
+     * @param kernelSize size of the gaussian kernel
+     * @param sigma standard deviation of the gaussian
+     * @param scale factor of {@link Imgproc#INTER_AREA} downscaling
+     * @return Returns the downscaled blurred gray image or the blurred image itself for a scale of 1.
+     */
+    public Mat blurredScaled(final double kernelSize, final double sigma, final double scale) {
+        if (scale >= 1d) {
+            return blurred(kernelSize, sigma);
+        }
+        return derive(new ScaledKey(new BlurKey(kernelSize, sigma), scale), () -> {
+            final var blurred = blurred(kernelSize, sigma);
+            final var scaled = new Mat();
+            Imgproc.resize(
+                blurred,
+                scaled,
+                new Size(blurred.width() * scale, blurred.height() * scale),
+                0,
+                0,
+                Imgproc.INTER_AREA);
+            return scaled;
+        });
+    }
+
+    /**
+     * @param kernelSize size of the gaussian kernel
+     * @param sigma standard deviation of the gaussian
+     * @param thresholdLow lower canny threshold
+     * @param thresholdHigh upper canny threshold
+     * @return Returns canny edges of the blurred gray image.
+     */
+    public Mat edges(
+        final double kernelSize,
+        final double sigma,
+        final double thresholdLow,
+        final double thresholdHigh) {
+        return derive(new EdgeKey(new BlurKey(kernelSize, sigma), thresholdLow, thresholdHigh), () -> {
+            final var edges = new Mat();
+            Imgproc.Canny(blurred(kernelSize, sigma), edges, thresholdLow, thresholdHigh);
+            return edges;
+        });
+    }
+
+    /**
+     * Closes gaps in the edges as {@link DetectionUtil#findContours} expects them:
+     * canny edges dilated and then eroded with a 4x4 rectangle.
+     *
+     * @param contourParameter {@link ContourParameter}
+     * @return Returns the morphology result.
+     */
+    public Mat closedEdges(final ContourParameter contourParameter) {
+        final var edgeKey = new EdgeKey(
+            new BlurKey(contourParameter.gaussFactor(), 1),
+            contourParameter.cannyThresholdLow(),
+            contourParameter.cannyThresholdHigh());
+        final var dilateKey = new MorphologyKey(edgeKey, Imgproc.MORPH_DILATE, contourParameter.dilateIterations());
+        final var dilated = derive(dilateKey, () -> morphology(
+            edges(contourParameter.gaussFactor(), 1,
+                contourParameter.cannyThresholdLow(), contourParameter.cannyThresholdHigh()),
+            Imgproc.MORPH_DILATE,
+            contourParameter.dilateIterations()));
+        return derive(
+            new MorphologyKey(dilateKey, Imgproc.MORPH_ERODE, contourParameter.erodeIterations()),
+            () -> morphology(dilated, Imgproc.MORPH_ERODE, contourParameter.erodeIterations()));
+    }
+
+    private static Mat morphology(final Mat source, final int operation, final int iterations) {
+        final var kernel = Imgproc.getStructuringElement(Imgproc.MORPH_RECT, MORPHOLOGY_KERNEL_SIZE);
+        final var result = new Mat();
+        if (operation == Imgproc.MORPH_DILATE) {
+            Imgproc.dilate(source, result, kernel, new Point(), iterations);
+        } else {
+            Imgproc.erode(source, result, kernel, new Point(), iterations);
+        }
+        return result;
+    }
+
+    private Mat derive(final Object key, final Supplier<Mat> computation) {
+        final var existing = derived.get(key);
+        if (existing != null) {
+            reused++;
+            return existing;
+        }
+        // not computeIfAbsent: computations request their own inputs from the map
+        final var result = computation.get();
+        derived.put(key, result);
+        computed++;
+        return result;
+    }
+
+    /**
+     * @return number of derived images computed
+     */
+    public int computed() {
+        return computed;
+    }
+
+    /**
+     * @return number of requests answered from the memo
+     */
+    public int reused() {
+        return reused;
+    }
+
+    @Override
+    public void close() {
+        derived.values().forEach(Mat::release);
+        derived.clear();
+    }
+
+    private record BlurKey(double kernelSize, double sigma) {}
+
+    private record ScaledKey(BlurKey blurKey, double scale) {}
+
+    private record EdgeKey(BlurKey blurKey, double thresholdLow, double thresholdHigh) {}
+
+    private record MorphologyKey(Object sourceKey, int operation, int iterations) {}
+}
@@ -0,0 +1,144 @@
+package de.leidenheit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Records the frames of a camera into a single file for deterministic replay with
+ * {@link RecordedFrameSource}. Frames are stored as chunks with their original frame id
+ * and timestamp, either raw or PNG compressed; both are lossless, so the replayed pixels
+ * are bit-identical. An index of chunk offsets and timestamps is appended on close.
+ * <pre>
+ * file header (16 bytes)   int magic "HOFC", int version, long reserved
+ * chunk header (40 bytes)  int magic "FRAM", int {@link Compression}, long frame id,
+ *                          long timestamp nanos, int width, int height, int type, int payload length
+ * index                    per frame: long chunk offset, long timestamp nanos
+ * trailer (24 bytes)       long index offset, long frame count, int magic "INDX", int version
+ * </pre>
+ * A recording without trailer, e.g. after a crash, is re-indexed by walking the chunks.
+ */
+public final class FrameRecorder implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(FrameRecorder.class.getSimpleName());
+
+    static final int FILE_MAGIC = 0x484F4643;
+    static final int CHUNK_MAGIC = 0x4652414D;
+    static final int INDEX_MAGIC = 0x494E4458;
+    static final int VERSION = 1;
+    static final int FILE_HEADER_SIZE = 16;
+    static final int CHUNK_HEADER_SIZE = 40;
+    static final int INDEX_ENTRY_SIZE = 16;
+    static final int TRAILER_SIZE = 24;
+
+    /**
+     * Storage of the frame pixels.
+     */
+    public enum Compression {
+        /** pixel bytes as they are; fastest to write and read */
+        RAW,
+        /** lossless PNG; smaller but costs an encode per frame */
+        PNG
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Compression compression;
+    private final ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long[] chunkOffsets = new long[1024];
+    private long[] chunkTimestamps = new long[1024];
+    private int frameCount;
+    private long position;
+
+    public FrameRecorder(final Path file, final Compression compression) throws IOException {
+        this.file = file;
+        this.compression = compression;
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        final var fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        fileHeader.putInt(FILE_MAGIC).putInt(VERSION).putLong(0).flip();
+        writeFully(fileHeader);
+    }
+
+    /**
+     * Appends a frame. The frame is not modified.
+     *
+     * @param frame {@link Frame} with an 8 bit image
+     * @throws IOException if the chunk cannot be written
+     */
+    public void record(final Frame frame) throws IOException {
+        final var image = frame.image();
+        if (CvType.depth(image.type()) != CvType.CV_8U) {
+            throw new IllegalArgumentException("Only 8 bit frames can be recorded: " + CvType.typeToString(image.type()));
+        }
+        final byte[] payload;
+        if (compression == Compression.PNG) {
+            final var encoded = new MatOfByte();
+            Imgcodecs.imencode(".png", image, encoded);
+            payload = encoded.toArray();
+            encoded.release();
+        } else {
+            final var continuous = image.isContinuous() ? image : image.clone();
+            payload = new byte[(int) (continuous.total() * continuous.elemSize())];
+            continuous.get(0, 0, payload);
+        }
+
+        if (frameCount == chunkOffsets.length) {
+            chunkOffsets = Arrays.copyOf(chunkOffsets, frameCount * 2);
+            chunkTimestamps = Arrays.copyOf(chunkTimestamps, frameCount * 2);
+        }
+        chunkOffsets[frameCount] = position;
+        chunkTimestamps[frameCount] = frame.timestampNanos();
+        frameCount++;
+
+        header.clear();
+        header.putInt(CHUNK_MAGIC)
+            .putInt(compression.ordinal())
+            .putLong(frame.frameId())
+            .putLong(frame.timestampNanos())
+            .putInt(image.width())
+            .putInt(image.height())
+            .putInt(image.type())
+            .putInt(payload.length)
+            .flip();
+        writeFully(header);
+        writeFully(ByteBuffer.wrap(payload));
+    }
+
+    private void writeFully(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+    }
+
+    public int frameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        final var indexOffset = position;
+        final var index = ByteBuffer.allocate(frameCount * INDEX_ENTRY_SIZE + TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < frameCount; i++) {
+            index.putLong(chunkOffsets[i]).putLong(chunkTimestamps[i]);
+        }
+        index.putLong(indexOffset).putLong(frameCount).putInt(INDEX_MAGIC).putInt(VERSION).flip();
+        writeFully(index);
+        channel.force(true);
+        channel.close();
+        LOGGER.info(String.format("Recorded %s frames (%s) to %s; %s MB",
+            frameCount, compression, file, position / (1024 * 1024)));
+    }
+}
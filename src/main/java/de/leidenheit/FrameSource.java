@@ -0,0 +1,31 @@
+package de.leidenheit;
+
+/**
+ * Source of consecutive {@link Frame}s, e.g. a camera, a folder of images
+ * or a synthetic generator standing in for a camera.
+ */
+public interface FrameSource extends AutoCloseable {
+
+    /**
+     * Provides the next frame.
+     *
+     * @return Returns the next {@link Frame} or null if the source is exhausted.
+     */
+    Frame next();
+
+    /**
+     * Tells whether the pixels of a frame are still the ones of that frame. Sources lending
+     * their buffers, like {@link SharedMemoryFrameSource}, are checked after the pixels were read.
+     *
+     * @param frame {@link Frame} returned by {@link #next()}
+     * @return true unless the frame was overwritten in the meantime
+     */
+    default boolean isIntact(final Frame frame) {
+        return true;
+    }
+
+    @Override
+    default void close() {
+        // nothing to release by default
+    }
+}
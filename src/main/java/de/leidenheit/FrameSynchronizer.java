@@ -0,0 +1,122 @@
+package de.leidenheit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Groups the per-camera estimates whose timestamps lie within a tolerance.
+ * Estimates that cannot be matched with all other cameras are dropped.
+ */
+public final class FrameSynchronizer {
+
+    private static final Logger LOGGER = Logger.getLogger(FrameSynchronizer.class.getSimpleName());
+
+    private final Map<String, ArrayDeque<CameraTipEstimate>> queues = new LinkedHashMap<>();
+    private final Set<String> completedCameras = new HashSet<>();
+    private final Object emitLock = new Object();
+    private final long toleranceNanos;
+    private final Consumer<List<CameraTipEstimate>> groupConsumer;
+    private long droppedEstimates;
+
+    public FrameSynchronizer(
+        final List<String> cameraIds,
+        final long toleranceNanos,
+        final Consumer<List<CameraTipEstimate>> groupConsumer) {
+        for (String cameraId : cameraIds) {
+            queues.put(cameraId, new ArrayDeque<>());
+        }
+        this.toleranceNanos = toleranceNanos;
+        this.groupConsumer = groupConsumer;
+    }
+
+    /**
+     * Adds an estimate of a camera and emits every group that became complete.
+     * Groups are emitted in timestamp order, also if cameras submit concurrently.
+     *
+     * @param estimate {@link CameraTipEstimate}
+     */
+    public void submit(final CameraTipEstimate estimate) {
+        // groups are emitted under their own lock in the order they were collected;
+        // the queues stay available to complete while a consumer runs
+        synchronized (emitLock) {
+            final List<List<CameraTipEstimate>> groups = new ArrayList<>();
+            synchronized (this) {
+                queues.get(estimate.cameraId()).addLast(estimate);
+                collectGroups(groups);
+            }
+            groups.forEach(groupConsumer);
+        }
+    }
+
+    /**
+     * Marks a camera as exhausted. Pending estimates of other cameras which can
+     * no longer be matched are dropped.
+     *
+     * @param cameraId id of the camera
+     */
+    public synchronized void complete(final String cameraId) {
+        completedCameras.add(cameraId);
+        dropIfExhausted();
+    }
+
+    public synchronized long droppedEstimates() {
+        return droppedEstimates;
+    }
+
+    private void collectGroups(final List<List<CameraTipEstimate>> groups) {
+        while (true) {
+            // the latest head is the reference; older heads cannot be matched anymore
+            var reference = Long.MIN_VALUE;
+            for (var queue : queues.values()) {
+                if (queue.isEmpty()) {
+                    dropIfExhausted();
+                    return;
+                }
+                reference = Math.max(reference, queue.peekFirst().timestampNanos());
+            }
+            var complete = true;
+            for (var queue : queues.values()) {
+                while (!queue.isEmpty() && queue.peekFirst().timestampNanos() < reference - toleranceNanos) {
+                    queue.pollFirst();
+                    droppedEstimates++;
+                    PipelineMetrics.getInstance().recordDroppedFrames(1);
+                }
+                complete &= !queue.isEmpty();
+            }
+            if (!complete) {
+                return;
+            }
+            final var group = new ArrayList<CameraTipEstimate>(queues.size());
+            for (var queue : queues.values()) {
+                group.add(queue.pollFirst());
+            }
+            groups.add(group);
+        }
+    }
+
+    private void dropIfExhausted() {
+        for (var entry : queues.entrySet()) {
+            if (entry.getValue().isEmpty() && completedCameras.contains(entry.getKey())) {
+                var dropped = 0;
+                for (var queue : queues.values()) {
+                    dropped += queue.size();
+                    queue.clear();
+                }
+                if (dropped > 0) {
+                    droppedEstimates += dropped;
+                    PipelineMetrics.getInstance().recordDroppedFrames(dropped);
+                    LOGGER.info(String.format("Camera %s exhausted; dropped %s pending estimates",
+                        entry.getKey(), dropped));
+                }
+                return;
+            }
+        }
+    }
+}
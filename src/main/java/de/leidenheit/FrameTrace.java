@@ -0,0 +1,29 @@
+package de.leidenheit;
+
+/**
+ * Holds the id of the frame the current thread is working on, so diagnostics
+ * deep inside the detection utilities can be attributed to a frame.
+ */
+public final class FrameTrace {
+
+    public static final long NO_FRAME = -1;
+
+    private static final ThreadLocal<long[]> CURRENT_FRAME_ID =
+        ThreadLocal.withInitial(() -> new long[]{NO_FRAME});
+
+    public static void setFrameId(final long frameId) {
+        CURRENT_FRAME_ID.get()[0] = frameId;
+    }
+
+    public static long currentFrameId() {
+        return CURRENT_FRAME_ID.get()[0];
+    }
+
+    public static void clear() {
+        CURRENT_FRAME_ID.get()[0] = NO_FRAME;
+    }
+
+    private FrameTrace() {
+        // hide constructor
+    }
+}
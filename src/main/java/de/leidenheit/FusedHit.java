@@ -0,0 +1,12 @@
+package de.leidenheit;
+
+import java.util.List;
+
+import org.opencv.core.Point;
+
+public record FusedHit(
+    long timestampNanos,
+    Point boardPoint,           // board ROI coordinates
+    double confidence,
+    List<CameraTipEstimate> contributingEstimates
+) {}
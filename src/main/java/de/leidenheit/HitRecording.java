@@ -0,0 +1,139 @@
+package de.leidenheit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Records the {@link FusedHit}s of a run next to its frame recordings, one CSV line per hit
+ * (timestamp, board x, board y, confidence, contributing cameras), so a replay of the
+ * recordings can be verified against the hits of the original run.
+ */
+public final class HitRecording implements AutoCloseable {
+
+    public static final String FILE_NAME = "hits.csv";
+    private static final String HEADER = "timestampNanos,x,y,confidence,cameras";
+
+    private final BufferedWriter writer;
+
+    /**
+     * Recorded hit.
+     *
+     * @param timestampNanos timestamp of the frame group
+     * @param x board x in ROI coordinates
+     * @param y board y in ROI coordinates
+     * @param confidence confidence of the fused hit
+     * @param cameras number of contributing cameras
+     */
+    public record Entry(
+        long timestampNanos,
+        double x,
+        double y,
+        double confidence,
+        int cameras
+    ) {
+
+        public static Entry of(final FusedHit hit) {
+            return new Entry(
+                hit.timestampNanos(),
+                hit.boardPoint().x,
+                hit.boardPoint().y,
+                hit.confidence(),
+                hit.contributingEstimates().size());
+        }
+
+        boolean matches(final Entry other, final double tolerance) {
+            return timestampNanos == other.timestampNanos
+                && cameras == other.cameras
+                && Math.hypot(x - other.x, y - other.y) <= tolerance
+                && Math.abs(confidence - other.confidence) <= tolerance;
+        }
+    }
+
+    public HitRecording(final Path file) throws IOException {
+        this.writer = Files.newBufferedWriter(file);
+        writer.write(HEADER);
+        writer.newLine();
+    }
+
+    /**
+     * Appends a hit; called from the camera threads.
+     *
+     * @param hit {@link FusedHit}
+     */
+    public synchronized void record(final FusedHit hit) {
+        final var entry = Entry.of(hit);
+        try {
+            writer.write(entry.timestampNanos() + "," + entry.x() + "," + entry.y() + ","
+                + entry.confidence() + "," + entry.cameras());
+            writer.newLine();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Cannot record hit at " + hit.timestampNanos(), exception);
+        }
+    }
+
+    /**
+     * Reads the hits of a recording.
+     *
+     * @param file hits file
+     * @return {@link Entry}s in recording order
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static List<Entry> read(final Path file) throws IOException {
+        final var lines = Files.readAllLines(file);
+        if (lines.isEmpty() || !HEADER.equals(lines.get(0))) {
+            throw new IOException("Not a hit recording: " + file);
+        }
+        final var entries = new ArrayList<Entry>(lines.size() - 1);
+        for (var line : lines.subList(1, lines.size())) {
+            final var values = line.split(",");
+            try {
+                entries.add(new Entry(
+                    Long.parseLong(values[0]),
+                    Double.parseDouble(values[1]),
+                    Double.parseDouble(values[2]),
+                    Double.parseDouble(values[3]),
+                    Integer.parseInt(values[4])));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException exception) {
+                throw new IOException("Malformed hit in " + file + ": " + line, exception);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Compares the hits of a replay with the recorded ones. Cameras fuse on their own threads,
+     * therefore both are compared in timestamp order.
+     *
+     * @param recorded {@link Entry}s of the original run
+     * @param replayed {@link Entry}s of the replay
+     * @param tolerance maximum distance in ROI pixels and confidence difference
+     * @return description of every mismatch; empty if the replay reproduced the run
+     */
+    public static List<String> differences(
+        final List<Entry> recorded,
+        final List<Entry> replayed,
+        final double tolerance) {
+        final var expected = recorded.stream().sorted(Comparator.comparingLong(Entry::timestampNanos)).toList();
+        final var actual = replayed.stream().sorted(Comparator.comparingLong(Entry::timestampNanos)).toList();
+        final var differences = new ArrayList<String>();
+        for (int i = 0; i < Math.max(expected.size(), actual.size()); i++) {
+            final var expectedEntry = i < expected.size() ? expected.get(i) : null;
+            final var actualEntry = i < actual.size() ? actual.get(i) : null;
+            if (expectedEntry == null || actualEntry == null || !expectedEntry.matches(actualEntry, tolerance)) {
+                differences.add(String.format("hit %s: recorded %s, replayed %s", i, expectedEntry, actualEntry));
+            }
+        }
+        return differences;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
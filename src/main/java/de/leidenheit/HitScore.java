@@ -0,0 +1,76 @@
+package de.leidenheit;
+
+import org.opencv.core.Point;
+
+import java.rmi.UnexpectedException;
+
+public record HitScore(
+    int value,          // sector value, 25 for the bull
+    int multiplier      // 0 for a miss, 1 single, 2 double/bullseye, 3 triple
+) {
+
+    /**
+     * Scores a hit by its radius and angle relative to the board center.
+     *
+     * @param center board center, e.g. the center of the board ellipse
+     * @param sectorLimits {@link DartboardSectorLimits} of the board
+     * @param hit {@link Point} of the dart tip in the same coordinates
+     * @return {@link HitScore} or null if radius and angle cannot be determined
+     */
+    public static HitScore of(
+        final Point center,
+        final DartboardSectorLimits sectorLimits,
+        final Point hit) {
+
+        final var radiusAndAngle = DetectionUtil.determineRadiusAndAngleFromPointRelativeToCenter(center, hit);
+        return of(radiusAndAngle[0], radiusAndAngle[1], sectorLimits);
+    }
+
+    /**
+     * Scores a hit against a board measured by the {@link PolarUnwrapEngine}: the measured
+     * ring radii are the limits and the angle is mapped onto the nominal sectors between
+     * the measured wires by {@link PolarBoardGeometry#normalizedAngle}.
+     *
+     * @param geometry {@link PolarBoardGeometry} of the board
+     * @param hit {@link Point} of the dart tip in ROI coordinates
+     * @return {@link HitScore} or null if radius and angle cannot be determined
+     */
+    public static HitScore of(final PolarBoardGeometry geometry, final Point hit) {
+        final var radiusAndAngle = DetectionUtil.determineRadiusAndAngleFromPointRelativeToCenter(geometry.center(), hit);
+        return of(radiusAndAngle[0], geometry.normalizedAngle(radiusAndAngle[1]), geometry.sectorLimits());
+    }
+
+    private static HitScore of(final double radius, final double angle, final DartboardSectorLimits sectorLimits) {
+        if (radius < 0) {
+            return null;
+        }
+        if (radius <= sectorLimits.radiusBullsEyeLimit()) {
+            return new HitScore(25, 2);
+        }
+        if (radius <= sectorLimits.radiusBullLimit()) {
+            return new HitScore(25, 1);
+        }
+        final int value;
+        try {
+            // the angle ranges start at 0.0001; 0 degrees belongs to the 6 like 360 degrees
+            value = PolarCoordinateValueAngleRange.getInstance()
+                .findValueByAngle(angle <= 0 ? 360 : angle);
+        } catch (UnexpectedException exception) {
+            return null;
+        }
+        if (radius > sectorLimits.radiusOuterDoubleLimit()) {
+            return new HitScore(value, 0);
+        }
+        if (radius >= sectorLimits.radiusInnerDoubleLimit()) {
+            return new HitScore(value, 2);
+        }
+        if (radius >= sectorLimits.radiusInnerTripleLimit() && radius <= sectorLimits.radiusOuterTripleLimit()) {
+            return new HitScore(value, 3);
+        }
+        return new HitScore(value, 1);
+    }
+
+    public int points() {
+        return value * multiplier;
+    }
+}
@@ -0,0 +1,47 @@
+package de.leidenheit;
+
+import org.opencv.imgcodecs.Imgcodecs;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Plays a list of image files as frames with a fixed timestamp interval.
+ */
+public final class ImageFileFrameSource implements FrameSource {
+
+    private static final Logger LOGGER = Logger.getLogger(ImageFileFrameSource.class.getSimpleName());
+
+    private final List<String> imagePaths;
+    private final long startTimestampNanos;
+    private final long frameIntervalNanos;
+    private int index;
+
+    public ImageFileFrameSource(
+        final List<String> imagePaths,
+        final long startTimestampNanos,
+        final long frameIntervalNanos) {
+        this.imagePaths = List.copyOf(imagePaths);
+        this.startTimestampNanos = startTimestampNanos;
+        this.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    @Override
+    public Frame next() {
+        while (index < imagePaths.size()) {
+            final var frameId = index++;
+            final var start = System.nanoTime();
+            final var image = Imgcodecs.imread(imagePaths.get(frameId));
+            PipelineMetrics.getInstance().recordStage(PipelineStage.DECODE, start);
+            if (image == null || image.empty()) {
+                LOGGER.warning("Skipping unreadable image " + imagePaths.get(frameId));
+                continue;
+            }
+            return new Frame(
+                frameId,
+                startTimestampNanos + frameId * frameIntervalNanos,
+                image);
+        }
+        return null;
+    }
+}
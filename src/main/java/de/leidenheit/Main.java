@@ -18,28 +18,40 @@ import org.opencv.videoio.VideoCapture;
 import javax.swing.*;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.rmi.UnexpectedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Main {
 
     private static final Logger LOGGER = Logger.getLogger("HelloOpenCV");
+    private static final String RECORDING_SUFFIX = ".frames";
+    private static final Set<String> NON_DETECTING_MODES = Set.of("--calibrate-stream", "--shm-writer", "--journal-scan");
 
     public static void main(String[] args) {
         // log everything
         LOGGER.setLevel(Level.INFO);
 
-        // load openCV
-        // ubuntu arm64
-        // System.load("C:\\Users\\Attila\\Documents\\development\\java\\hello-opencv\\lib\\arm64\\libopencv_java460.so");
-        // windows x64
-        System.load("C:\\Users\\Attila\\Documents\\development\\java\\hello-opencv\\lib\\x64\\opencv_java460.dll");
+        // load openCV for the current os and architecture, see NativeLibraryLoader
+        NativeLibraryLoader.load();
         LOGGER.info(String.format("OpenCV %s loaded successfully :-)", Core.VERSION));
+        PipelineMetrics.registerMBean();
+        final var mode = args.length > 0 ? args[0] : "";
+        // only modes running the board detection benefit from warmed up detection stages
+        if (!NON_DETECTING_MODES.contains(mode)) {
+            PipelineWarmup.run(Integer.getInteger("warmup.iterations", 3));
+        }
 
 
 
@@ -47,9 +59,9 @@ public class Main {
         
         // cameraFeed, processFeed, labelFilename, labelOperation
         /*
-        final JPanel cameraFeed = new JPanel();
+        final MatDisplayPanel cameraFeed = new MatDisplayPanel();
         cameraFeed.setBorder(BorderFactory.createLineBorder(Color.GRAY));
-        final JPanel processedFeed = new JPanel();
+        final MatDisplayPanel processedFeed = new MatDisplayPanel();
         processedFeed.setBorder(BorderFactory.createLineBorder(Color.GRAY));
         final JLabel labelOperation = new JLabel("noop");
         final JLabel labelInput = new JLabel("noinput");
@@ -98,13 +110,34 @@ public class Main {
         */
 
         // start computer vision
-        Main.startComputerVision(null, null, null).run();
-
+        if ("--offline".equals(mode)) {
+            Main.startOfflineAnalysis().run();
+        } else if ("--regression".equals(mode)) {
+            Main.startRegressionCheck().run();
+        } else if ("--calibrate-stream".equals(mode)) {
+            Main.startStreamingCalibration().run();
+        } else if ("--tune".equals(mode)) {
+            Main.startParameterTuning().run();
+        } else if ("--multi-camera".equals(mode)) {
+            Main.startMultiCamera().run();
+        } else if ("--shm-writer".equals(mode)) {
+            Main.startSharedMemoryWriter().run();
+        } else if ("--shm-ingest".equals(mode)) {
+            Main.startSharedMemoryIngest().run();
+        } else if ("--replay".equals(mode)) {
+            Main.startReplay().run();
+        } else if ("--journal-scan".equals(mode)) {
+            Main.startJournalScan().run();
+        } else {
+            Main.startComputerVision(null, null, null).run();
+        }
+
+        EventJournal.getInstance().close();
         System.exit(0);
     }
 
-    private static Runnable startComputerVision(final JPanel cameraFeed,
-                                                final JPanel processedFeed,
+    private static Runnable startComputerVision(final MatDisplayPanel cameraFeed,
+                                                final MatDisplayPanel processedFeed,
                                                 final VideoCapture camera) {
         return () -> {
             // debug
@@ -113,62 +146,7 @@ public class Main {
             final var resourceProvider = new ResourceProvider();
             final var cameraParameter = CameraParameter.defaultParameter();
             
-            CalibrationData calibrationData = null;
-            
-            final var useExistingCalibration = true;
-            if (useExistingCalibration) {
-                final var dir = "src/resources/";
-                final var cameraMatrixFileName = dir + "camera-matrix.bin"; 
-                final var distortionCoeffFileName = dir + "distortion-coefficients.bin";
-                final var canLoadCalibration = 
-                    Files.exists(Path.of(cameraMatrixFileName))
-                    && Files.exists(Path.of(distortionCoeffFileName));
-                if (!canLoadCalibration) {
-                    LOGGER.warning("Cannot load exsiting calibration; fallback -> calibrate by images...");
-                } else {
-                    final var mats = CameraCalibrator.loadCalibration(
-                        cameraMatrixFileName, 
-                        distortionCoeffFileName);
-                    calibrationData = new CalibrationData(
-                        mats[0],
-                        mats[1],
-                        null, null, Double.NaN
-                    );
-                }
-            }
-            if (calibrationData == null) {
-                LOGGER.info("Starting fresh calibration by images");
-                final var imagePaths = resourceProvider
-                    // .findFilePathsFromResourcePath("chessboard/1920_1446");
-                    .findFilePathsFromResourcePath("chessboard/temp");
-                final var chessboardData = ChessboardData.init();
-                    
-                // for each image do find chessboard corners
-                LOGGER.info("Searching for corners in " + imagePaths + "...");
-                for (String imagePath: imagePaths) {
-                    final var img = new File(imagePath);           
-                    LOGGER.info("Corners iteration for file " + imagePath);                    
-                    // find corners and store the result in the calibrator instance
-                    final var hasCorners = CameraCalibrator.findCorners(
-                        img.getAbsolutePath(), 
-                        cameraParameter,
-                        chessboardData,
-                        (originalFrame, cornersFrame) -> {
-                            DetectionUtil.debugShowImage(
-                                originalFrame, "original_" + imagePath
-                            );
-                        });                        
-                    if (!hasCorners) {
-                        continue;
-                    }
-                }
-
-                // calibrate with the infos
-                calibrationData = CameraCalibrator.calibrate(
-                    cameraParameter,
-                    chessboardData
-                );
-            }
+            final var calibrationData = Main.loadOrCreateCalibration(resourceProvider, cameraParameter);
 
             // distortion, ArUco region of interest and field detection
             final var dartsboardImagePaths = resourceProvider
@@ -181,6 +159,9 @@ public class Main {
                     cameraParameter,
                     calibrationData,
                     false);
+                if (cameraFeed != null) {
+                    DetectionUtil.drawImageToPanel(undistortedImage, cameraFeed);
+                }
 
                 // aruco detection of undistorted image and extraction of ROI
                 LOGGER.info("trying to detect aruco markers in " + imagePath);
@@ -194,6 +175,9 @@ public class Main {
                     false);
                 LOGGER.info(String.format("roi image size after extraction of ArUcos: %s", roiImage.size()));
                 if (roiImage != null) {
+                    if (processedFeed != null) {
+                        DetectionUtil.drawImageToPanel(roiImage, processedFeed);
+                    }
 
                     // contour detection in ROI image
                     /*
@@ -211,280 +195,233 @@ public class Main {
                         new Scalar(31, 240, 255),
                         2
                     );
-                    final var contourImage = roiImage.clone();
-                    final var contourDataList = DetectionUtil.findContours(
-                        contourImage,
-                        contourParameter,
-                        false,
-                        false
-                    );
-                    LOGGER.info(String.format("Found contours in roiImage: %s", contourDataList.size()));
-                    // extract outer most ellipse
-                    for (var contourData : contourDataList) {
-                        LOGGER.info("ContourData:"  
-                            + " length=" + contourData.approxSize() 
-                            + "; area=" + contourData.area());
-                        final var thresholdLow = 500_000;
-                        final var thresholdHigh = 2_500_000;
-                        final var withinThreshold = 
-                            thresholdLow <= contourData.area() 
-                            && thresholdHigh >= contourData.area();
-                        if (withinThreshold) {
-                            final var contour2f = new MatOfPoint2f(); 
-                            contourData.contour()
-                                .convertTo(contour2f, CvType.CV_32FC1);
-                            final var rotatedRect = 
-                                Imgproc.fitEllipse(
-                                    contour2f);
-                            LOGGER.info(String.format("ellipse bounding rect: %s",  rotatedRect.boundingRect()));
-                            // draw bounding box of ellipse
-                            Imgproc.rectangle(
-                                    contourImage,
-                                    rotatedRect.boundingRect(),
-                                    new Scalar(240, 1, 255),
-                                    1
-                            );
-                            // outer ellipse
-                            Imgproc.ellipse(
-                                    contourImage,
-                                    rotatedRect,
-                                    new Scalar(40,240,255),
-                                    1
-                            );
-                            // center
-                            Imgproc.drawMarker(
-                                    contourImage,
-                                    rotatedRect.center,
-                                    new Scalar(50,50,50),
-                                    Imgproc.MARKER_CROSS,
-                                    960
-                            );
-                            DetectionUtil.debugShowImage(contourImage, "before_warp_ellipse");
-                            LOGGER.info("continue warping?");
-                            scanner.nextLine();
-
-
-
-                            // Erzeuge das Zielbild mit der quadratischen Größe
-                            final var size = rotatedRect.size.width >= rotatedRect.size.height ?
-                                rotatedRect.size.width : rotatedRect.size.height;
-                            // final var size = roiImage.width() >= roiImage.height() ?
-                            //    roiImage.width() : roiImage.height();
-                            Mat destination = new Mat((int)size, (int)size, CvType.CV_8UC1);
-                            // Definiere die Eckpunkte der Zielellipse
-                            Point[] destinationPoints = new Point[4];
-                            destinationPoints[0] = new Point(0, 0);
-                            destinationPoints[1] = new Point(destination.cols(), 0);
-                            destinationPoints[2] = new Point(destination.cols(), destination.rows());
-                            destinationPoints[3] = new Point(0, destination.rows());
-                            // Definiere die Eckpunkte der Quellellipse
-                            Point[] sourcePoints = new Point[4];
-                            sourcePoints[0] = new Point(rotatedRect.center.x - rotatedRect.size.width / 2, rotatedRect.center.y - rotatedRect.size.height / 2);
-                            sourcePoints[1] = new Point(rotatedRect.center.x + rotatedRect.size.width / 2, rotatedRect.center.y - rotatedRect.size.height / 2);
-                            sourcePoints[2] = new Point(rotatedRect.center.x + rotatedRect.size.width / 2, rotatedRect.center.y + rotatedRect.size.height / 2);
-                            sourcePoints[3] = new Point(rotatedRect.center.x - rotatedRect.size.width / 2, rotatedRect.center.y + rotatedRect.size.height / 2);
-                            // Führe die Perspektiventransformation durch
-                            Mat transformationMatrix = Imgproc.getPerspectiveTransform(new MatOfPoint2f(sourcePoints), new MatOfPoint2f(destinationPoints));
-                            Imgproc.warpPerspective(roiImage, destination, transformationMatrix, destination.size());
-                            // debug 
-                            DetectionUtil.debugShowImage(destination, "after_warp_ellipse");
-                            System.out.println("continue with hough circle detection?");
-                            scanner.nextLine();
-
-                            /*
-                            final var contourParameterWarp = new ContourParameter(
-                                11,
-                                100,
-                                150,
-                                1,
-                                1,
-                                100,
-                                0.01,
-                                new Scalar(31, 240, 255),
-                                2
-                            );
-                            final var warpedContourDataList = DetectionUtil.findContours(
-                                destination,
-                                // contourParamater,
-                                contourParameterWarp,
-                                // ContourParameter.defaultParameter(),
-                                true,
-                                true
-                            );
-                            LOGGER.info(String.format("Found contours in warped image: %s", warpedContourDataList.size()));
-                            for (var x : warpedContourDataList) {
-                                LOGGER.info("Warping ContourData:"
-                                        + " length=" + x.approxSize()
-                                        + "; area=" + x.area());
-
-                            final var warpedWithinThreshold =
-                                    10_000 <= x.area()
-                                            && 50_000 >= x.area();
-                            if (warpedWithinThreshold) {
-                                    LOGGER.info("warped ellipse valid threshold:" + x.area());
-                                    final var warpedContour2f = new MatOfPoint2f(); 
-                                    x.contour()
-                                        .convertTo(warpedContour2f, CvType.CV_32FC1);
-                                    final var warpedRotatedRect = 
-                                        Imgproc.fitEllipse(
-                                            warpedContour2f);
-                                    LOGGER.info("warped ellipse bounding rect: " + warpedRotatedRect.boundingRect());
-                                    // debug
-                                    LOGGER.info("continue?");
-                                    scanner.nextLine();
-
-                                    // generate polar coordinate system using the found ellipse
-                                    final var polarCoordSysImage = destination.clone();
-                                    // draw bounding box of ellipse
-                                    Imgproc.rectangle(
-                                        polarCoordSysImage,
-                                        warpedRotatedRect.boundingRect(),
-                                        new Scalar(240, 1, 255),
-                                        1
-                                    );
-                                    // outer ellipse
-                                    Imgproc.ellipse(
-                                        polarCoordSysImage,
-                                        warpedRotatedRect,
-                                        new Scalar(40,240,255),
-                                        1
-                                    );
-                                    // center
-                                    Imgproc.drawMarker(
-                                        polarCoordSysImage, 
-                                        warpedRotatedRect.center,
-                                        new Scalar(50,50,50),
-                                        Imgproc.MARKER_CROSS, 
-                                        960
-                                    );
-
-                                    // TODO test me
-                                    final var limits = DetectionUtil.determineDartboardSectorLimits(
-                                        polarCoordSysImage, 
-                                        warpedRotatedRect, 
-                                        true);
-                                    LOGGER.info("Limits: " + limits);
-                                    //debug
-                                    // LOGGER.info("continue?");
-                                    // scanner.nextLine();
-
-                                    // draw polar coordiantes from singleton
-                                    DetectionUtil.drawPolarCoordinateSystem(
-                                        polarCoordSysImage,    
-                                        warpedRotatedRect,
-                                        false
-                                    );
-
-                                    DetectionUtil.debugShowImage(polarCoordSysImage, "x_"
-                                        + imagePath.substring(
-                                            imagePath.lastIndexOf("/") + 1,
-                                            imagePath.length())
-                                    );
-                                    LOGGER.info(String.format("warped image with polar coordinates %s (before=%s)", polarCoordSysImage.size(), rotatedRect.size));
-                                    // debug
-                                    LOGGER.info("continue?");
-                                    scanner.nextLine();
-                                } else {
-                                    LOGGER.info("ellipse ignored due to threshold:" + x.area());
-                                }
-                            }
-                             */
-                            final var src = roiImage.clone();
-                            final var gray = new Mat();
-                            Imgproc.cvtColor(src, gray, Imgproc.COLOR_BGR2GRAY);
-
-                            final var blurred = new Mat();
-                            Imgproc.GaussianBlur(
-                                    gray,
-                                    blurred,
-                                    new Size(11, 11),
-                                    1
-                            );
-                            final var edges = new Mat();
-                            Imgproc.Canny(
-                                    blurred,
-                                    edges,
-                                    100,
-                                    150);
-                            final var kernel = Imgproc.getStructuringElement(
-                                    Imgproc.MORPH_RECT,
-                                    new Size(4, 4));
-                            final var edges_dilate = new Mat();
-                            Imgproc.dilate(
-                                    edges,
-                                    edges_dilate,
-                                    kernel,
-                                    new Point(),
-                                    2
-                            );
-                            final var edges_erode = new Mat();
-                            Imgproc.erode(
-                                    edges_dilate,
-                                    edges_erode,
-                                    kernel,
-                                    new Point(),
-                                    1
-                            );
-                            DetectionUtil.debugShowImage(edges_erode, "prepared for hough circle detection");
-
-                            Mat circles = new Mat();
-                            Imgproc.HoughCircles(
-                                    // edges_erode,
-                                    gray,
-                                    circles,
-                                    Imgproc.HOUGH_GRADIENT,
-                                    1.0,
-                                    100,// (double)gray.rows()/16, // change this value to detect circles with different distances to each other
-                                            150,
-                                    100,
-                                    0,
-                                    0); // change the last two parameters
-
-                            LOGGER.info(String.format("circles found: cols=%s; rows=%s", circles.cols(), circles.rows()));
-                            // (min_radius & max_radius) to detect larger circles
-                            for (int x = 0; x < circles.cols(); x++) {
-                                double[] c = circles.get(0, x);
-                                Point center = new Point(Math.round(c[0]), Math.round(c[1]));
-                                // circle center
-                                Imgproc.drawMarker(src, center, new Scalar(0, 100, 100), Imgproc.MARKER_CROSS, 960, 1);
-                                // circle outline
-                                int radius = (int) Math.round(c[2]);
-                                Imgproc.circle(src, center, radius, new Scalar(255, 0, 255), 2, Imgproc.LINE_8, 0);
-
-                                DetectionUtil.debugShowImage(src, "hough circle");
-                                LOGGER.info(String.format("radius %s; press enter to continue....", radius));
-                                scanner.nextLine();
-
-
-                                /*
-                                // generate polar coordinate system using the found ellipse
-                                final var polarCoordSysImage = src.clone();
+                    // only the gray image is shared: contours blur with gauss 11, hough with the CircleParameter kernel
+                    try (final var frameContext = new FrameContext(roiImage)) {
+                        final var contourImage = roiImage.clone();
+                        final var contourDataList = DetectionUtil.findContours(
+                            frameContext,
+                            contourParameter,
+                            false,
+                            false
+                        );
+                        LOGGER.info(String.format("Found contours in roiImage: %s", contourDataList.size()));
+                        // extract outer most ellipse
+                        for (var contourData : contourDataList) {
+                            // the supplier defers approxPolyDP until fine logging is enabled
+                            LOGGER.fine(() -> "ContourData:"
+                                + " length=" + contourData.approxSize()
+                                + "; area=" + contourData.area());
+                            final var thresholdLow = 500_000;
+                            final var thresholdHigh = 2_500_000;
+                            final var withinThreshold = 
+                                thresholdLow <= contourData.area() 
+                                && thresholdHigh >= contourData.area();
+                            if (withinThreshold) {
+                                final var contour2f = new MatOfPoint2f(); 
+                                contourData.contour()
+                                    .convertTo(contour2f, CvType.CV_32FC1);
+                                final var rotatedRect = 
+                                    Imgproc.fitEllipse(
+                                        contour2f);
+                                LOGGER.info(String.format("ellipse bounding rect: %s",  rotatedRect.boundingRect()));
                                 // draw bounding box of ellipse
                                 Imgproc.rectangle(
-                                        polarCoordSysImage,
+                                        contourImage,
                                         rotatedRect.boundingRect(),
                                         new Scalar(240, 1, 255),
                                         1
                                 );
                                 // outer ellipse
                                 Imgproc.ellipse(
-                                        polarCoordSysImage,
+                                        contourImage,
                                         rotatedRect,
-                                        new Scalar(40, 240, 255),
+                                        new Scalar(40,240,255),
                                         1
                                 );
                                 // center
                                 Imgproc.drawMarker(
-                                        polarCoordSysImage,
+                                        contourImage,
                                         rotatedRect.center,
-                                        new Scalar(50, 50, 50),
+                                        new Scalar(50,50,50),
                                         Imgproc.MARKER_CROSS,
                                         960
                                 );
-                                // debug
-                                DetectionUtil.debugShowImage(polarCoordSysImage, "polar_sys");
+                                DetectionUtil.debugShowImage(contourImage, "before_warp_ellipse");
+                                LOGGER.info("continue warping?");
+                                scanner.nextLine();
+
+
+
+                                // Erzeuge das Zielbild mit der quadratischen Größe
+                                final var size = rotatedRect.size.width >= rotatedRect.size.height ?
+                                    rotatedRect.size.width : rotatedRect.size.height;
+                                // final var size = roiImage.width() >= roiImage.height() ?
+                                //    roiImage.width() : roiImage.height();
+                                Mat destination = new Mat((int)size, (int)size, CvType.CV_8UC1);
+                                // Definiere die Eckpunkte der Zielellipse
+                                Point[] destinationPoints = new Point[4];
+                                destinationPoints[0] = new Point(0, 0);
+                                destinationPoints[1] = new Point(destination.cols(), 0);
+                                destinationPoints[2] = new Point(destination.cols(), destination.rows());
+                                destinationPoints[3] = new Point(0, destination.rows());
+                                // Definiere die Eckpunkte der Quellellipse
+                                Point[] sourcePoints = new Point[4];
+                                sourcePoints[0] = new Point(rotatedRect.center.x - rotatedRect.size.width / 2, rotatedRect.center.y - rotatedRect.size.height / 2);
+                                sourcePoints[1] = new Point(rotatedRect.center.x + rotatedRect.size.width / 2, rotatedRect.center.y - rotatedRect.size.height / 2);
+                                sourcePoints[2] = new Point(rotatedRect.center.x + rotatedRect.size.width / 2, rotatedRect.center.y + rotatedRect.size.height / 2);
+                                sourcePoints[3] = new Point(rotatedRect.center.x - rotatedRect.size.width / 2, rotatedRect.center.y + rotatedRect.size.height / 2);
+                                // Führe die Perspektiventransformation durch
+                                Mat transformationMatrix = Imgproc.getPerspectiveTransform(new MatOfPoint2f(sourcePoints), new MatOfPoint2f(destinationPoints));
+                                Imgproc.warpPerspective(roiImage, destination, transformationMatrix, destination.size());
+                                // debug 
+                                DetectionUtil.debugShowImage(destination, "after_warp_ellipse");
+                                System.out.println("continue with hough circle detection?");
+                                scanner.nextLine();
+
+                                /*
+                                final var contourParameterWarp = new ContourParameter(
+                                    11,
+                                    100,
+                                    150,
+                                    1,
+                                    1,
+                                    100,
+                                    0.01,
+                                    new Scalar(31, 240, 255),
+                                    2
+                                );
+                                final var warpedContourDataList = DetectionUtil.findContours(
+                                    destination,
+                                    // contourParamater,
+                                    contourParameterWarp,
+                                    // ContourParameter.defaultParameter(),
+                                    true,
+                                    true
+                                );
+                                LOGGER.info(String.format("Found contours in warped image: %s", warpedContourDataList.size()));
+                                for (var x : warpedContourDataList) {
+                                    LOGGER.info("Warping ContourData:"
+                                            + " length=" + x.approxSize()
+                                            + "; area=" + x.area());
+
+                                final var warpedWithinThreshold =
+                                        10_000 <= x.area()
+                                                && 50_000 >= x.area();
+                                if (warpedWithinThreshold) {
+                                        LOGGER.info("warped ellipse valid threshold:" + x.area());
+                                        final var warpedContour2f = new MatOfPoint2f(); 
+                                        x.contour()
+                                            .convertTo(warpedContour2f, CvType.CV_32FC1);
+                                        final var warpedRotatedRect = 
+                                            Imgproc.fitEllipse(
+                                                warpedContour2f);
+                                        LOGGER.info("warped ellipse bounding rect: " + warpedRotatedRect.boundingRect());
+                                        // debug
+                                        LOGGER.info("continue?");
+                                        scanner.nextLine();
+
+                                        // generate polar coordinate system using the found ellipse
+                                        final var polarCoordSysImage = destination.clone();
+                                        // draw bounding box of ellipse
+                                        Imgproc.rectangle(
+                                            polarCoordSysImage,
+                                            warpedRotatedRect.boundingRect(),
+                                            new Scalar(240, 1, 255),
+                                            1
+                                        );
+                                        // outer ellipse
+                                        Imgproc.ellipse(
+                                            polarCoordSysImage,
+                                            warpedRotatedRect,
+                                            new Scalar(40,240,255),
+                                            1
+                                        );
+                                        // center
+                                        Imgproc.drawMarker(
+                                            polarCoordSysImage, 
+                                            warpedRotatedRect.center,
+                                            new Scalar(50,50,50),
+                                            Imgproc.MARKER_CROSS, 
+                                            960
+                                        );
+
+                                        // TODO test me
+                                        final var limits = DetectionUtil.determineDartboardSectorLimits(
+                                            polarCoordSysImage, 
+                                            warpedRotatedRect, 
+                                            true);
+                                        LOGGER.info("Limits: " + limits);
+                                        //debug
+                                        // LOGGER.info("continue?");
+                                        // scanner.nextLine();
+
+                                        // draw polar coordiantes from singleton
+                                        DetectionUtil.drawPolarCoordinateSystem(
+                                            polarCoordSysImage,    
+                                            warpedRotatedRect,
+                                            false
+                                        );
+
+                                        DetectionUtil.debugShowImage(polarCoordSysImage, "x_"
+                                            + imagePath.substring(
+                                                imagePath.lastIndexOf("/") + 1,
+                                                imagePath.length())
+                                        );
+                                        LOGGER.info(String.format("warped image with polar coordinates %s (before=%s)", polarCoordSysImage.size(), rotatedRect.size));
+                                        // debug
+                                        LOGGER.info("continue?");
+                                        scanner.nextLine();
+                                    } else {
+                                        LOGGER.info("ellipse ignored due to threshold:" + x.area());
+                                    }
+                                }
                                  */
-                            }
+                                final var circleParameter = CircleParameter.defaultParameter();
+                                final var outerDoubleCircles = CircleDetector.detectRing(
+                                        frameContext,
+                                        DartboardRadianFactor.QUADRANT_OUTER_DOUBLE,
+                                        circleParameter);
+                                final var bullCircles = CircleDetector.detectRing(
+                                        frameContext,
+                                        DartboardRadianFactor.BULL,
+                                        circleParameter);
+                                LOGGER.info(String.format("circles found: outerDouble=%s; bull=%s",
+                                        outerDoubleCircles, bullCircles));
+                                // circles are drawn by the renderer on its own copy of the roi
+                                OverlayRenderer.getInstance().submit(
+                                        "hough circle",
+                                        roiImage,
+                                        null,
+                                        null,
+                                        List.of(outerDoubleCircles, bullCircles));
+                                    /*
+                                    // generate polar coordinate system using the found ellipse
+                                    final var polarCoordSysImage = src.clone();
+                                    // draw bounding box of ellipse
+                                    Imgproc.rectangle(
+                                            polarCoordSysImage,
+                                            rotatedRect.boundingRect(),
+                                            new Scalar(240, 1, 255),
+                                            1
+                                    );
+                                    // outer ellipse
+                                    Imgproc.ellipse(
+                                            polarCoordSysImage,
+                                            rotatedRect,
+                                            new Scalar(40, 240, 255),
+                                            1
+                                    );
+                                    // center
+                                    Imgproc.drawMarker(
+                                            polarCoordSysImage,
+                                            rotatedRect.center,
+                                            new Scalar(50, 50, 50),
+                                            Imgproc.MARKER_CROSS,
+                                            960
+                                    );
+                                    // debug
+                                    DetectionUtil.debugShowImage(polarCoordSysImage, "polar_sys");
+                                     */
 
 
 
@@ -495,105 +432,106 @@ public class Main {
 
 
 
-                            /*
-                            // generate polar coordinate system using the found ellipse
-                            final var polarCoordSysImage = src.clone();
-
-                            // draw bounding box of ellipse
-                            Imgproc.rectangle(
-                                polarCoordSysImage,
-                                rotatedRect.boundingRect(),
-                                new Scalar(240, 1, 255),
-                                1
-                            );
-                            // outer ellipse
-                            Imgproc.ellipse(
-                                polarCoordSysImage,
-                                rotatedRect,
-                                new Scalar(40,240,255),
-                                1
-                            );
-                            // center
-                            Imgproc.drawMarker(
-                                polarCoordSysImage, 
-                                rotatedRect.center,
-                                new Scalar(50,50,50),
-                                Imgproc.MARKER_CROSS, 
-                                960
-                            );
-
-                            // TODO just a test here
-                            final var rotatedRect = new RotatedRect();
-                            rotatedRect.boundingRect().width = 366 * 2;
-                            final var limits = DetectionUtil.determineDartboardSectorLimits2(
-                                polarCoordSysImage, 
-                                center,
-                                true);
-                            LOGGER.info("Limits: " + limits);
-                            // debug
-                            // LOGGER.info("continue?");
-                            // scanner.nextLine();
-
-                            // draw polar coordiantes from singleton
-                            final var polarCoordValueAngleRange = PolarCoordinateValueAngleRange.getInstance();
-                            final var pointLeftFieldBoundary = new Point();
-                            final var pointRightFieldBoundary = new Point();
-                            for (var entry : polarCoordValueAngleRange.getValueAngleRangeMap().entrySet()) {
-                                final double startAngle = entry.getKey().getMinValue();
-                                final double endAngle = entry.getKey().getMaxValue();    
-                                pointLeftFieldBoundary.x = (int) Math.round(
-                                    rotatedRect.center.x + (rotatedRect.size.width / 1.75) * Math.cos(startAngle * Math.PI / -180.0));
-                                pointLeftFieldBoundary.y = (int) Math.round(
-                                    rotatedRect.center.y + (rotatedRect.size.height / 1.75) * Math.sin(startAngle * Math.PI / -180.0));
-
-                                pointRightFieldBoundary.x = (int) Math.round(
-                                    rotatedRect.center.x + (rotatedRect.size.width / 1.75) * Math.cos(endAngle * Math.PI / -180.0));
-                                pointRightFieldBoundary.y = (int) Math.round(
-                                    rotatedRect.center.y + (rotatedRect.size.height / 1.75) * Math.sin(endAngle * Math.PI / -180.0));
-
-                                LOGGER.info(String.format(
-                                    "drawLine for angles [%s][%s] to (%s,%s)", startAngle, endAngle, pointLeftFieldBoundary, pointRightFieldBoundary));
-                                Imgproc.line(
+                                /*
+                                // generate polar coordinate system using the found ellipse
+                                final var polarCoordSysImage = src.clone();
+
+                                // draw bounding box of ellipse
+                                Imgproc.rectangle(
                                     polarCoordSysImage,
-                                    rotatedRect.center,
-                                    pointLeftFieldBoundary,
-                                    new Scalar(200, 50, 200),
+                                    rotatedRect.boundingRect(),
+                                    new Scalar(240, 1, 255),
                                     1
                                 );
-                                Imgproc.line(
+                                // outer ellipse
+                                Imgproc.ellipse(
                                     polarCoordSysImage,
-                                    rotatedRect.center,
-                                    pointRightFieldBoundary,
-                                    new Scalar(200, 50, 200),
+                                    rotatedRect,
+                                    new Scalar(40,240,255),
                                     1
                                 );
-                                Imgproc.putText(
-                                    polarCoordSysImage,
-                                    String.valueOf(entry.getValue()),
-                                    pointRightFieldBoundary,
-                                    Imgproc.FONT_HERSHEY_DUPLEX,
-                                    0.3,
-                                    new Scalar(200, 50, 200)
+                                // center
+                                Imgproc.drawMarker(
+                                    polarCoordSysImage, 
+                                    rotatedRect.center,
+                                    new Scalar(50,50,50),
+                                    Imgproc.MARKER_CROSS, 
+                                    960
                                 );
 
                                 // TODO just a test here
-                                DetectionUtil.determineRadiusAndAngleFromPointRelativeToCenter(
-                                    rotatedRect.center,
-                                    pointRightFieldBoundary);
-                            } 
-                            // debug
-                            DetectionUtil.debugShowImage(polarCoordSysImage, "polar_sys");
-
-                             */
-                        } else {
-                            // ignored
-                            /* 
-                            LOGGER.info("Ignored ellipse: (" 
-                                + imagePath.substring(
-                                    imagePath.lastIndexOf("/") + 1,
-                                    imagePath.length())
-                                + "); area=" + contourData.area());
-                            */
+                                final var rotatedRect = new RotatedRect();
+                                rotatedRect.boundingRect().width = 366 * 2;
+                                final var limits = DetectionUtil.determineDartboardSectorLimits2(
+                                    polarCoordSysImage, 
+                                    center,
+                                    true);
+                                LOGGER.info("Limits: " + limits);
+                                // debug
+                                // LOGGER.info("continue?");
+                                // scanner.nextLine();
+
+                                // draw polar coordiantes from singleton
+                                final var polarCoordValueAngleRange = PolarCoordinateValueAngleRange.getInstance();
+                                final var pointLeftFieldBoundary = new Point();
+                                final var pointRightFieldBoundary = new Point();
+                                for (var entry : polarCoordValueAngleRange.getValueAngleRangeMap().entrySet()) {
+                                    final double startAngle = entry.getKey().getMinValue();
+                                    final double endAngle = entry.getKey().getMaxValue();    
+                                    pointLeftFieldBoundary.x = (int) Math.round(
+                                        rotatedRect.center.x + (rotatedRect.size.width / 1.75) * Math.cos(startAngle * Math.PI / -180.0));
+                                    pointLeftFieldBoundary.y = (int) Math.round(
+                                        rotatedRect.center.y + (rotatedRect.size.height / 1.75) * Math.sin(startAngle * Math.PI / -180.0));
+
+                                    pointRightFieldBoundary.x = (int) Math.round(
+                                        rotatedRect.center.x + (rotatedRect.size.width / 1.75) * Math.cos(endAngle * Math.PI / -180.0));
+                                    pointRightFieldBoundary.y = (int) Math.round(
+                                        rotatedRect.center.y + (rotatedRect.size.height / 1.75) * Math.sin(endAngle * Math.PI / -180.0));
+
+                                    LOGGER.info(String.format(
+                                        "drawLine for angles [%s][%s] to (%s,%s)", startAngle, endAngle, pointLeftFieldBoundary, pointRightFieldBoundary));
+                                    Imgproc.line(
+                                        polarCoordSysImage,
+                                        rotatedRect.center,
+                                        pointLeftFieldBoundary,
+                                        new Scalar(200, 50, 200),
+                                        1
+                                    );
+                                    Imgproc.line(
+                                        polarCoordSysImage,
+                                        rotatedRect.center,
+                                        pointRightFieldBoundary,
+                                        new Scalar(200, 50, 200),
+                                        1
+                                    );
+                                    Imgproc.putText(
+                                        polarCoordSysImage,
+                                        String.valueOf(entry.getValue()),
+                                        pointRightFieldBoundary,
+                                        Imgproc.FONT_HERSHEY_DUPLEX,
+                                        0.3,
+                                        new Scalar(200, 50, 200)
+                                    );
+
+                                    // TODO just a test here
+                                    DetectionUtil.determineRadiusAndAngleFromPointRelativeToCenter(
+                                        rotatedRect.center,
+                                        pointRightFieldBoundary);
+                                } 
+                                // debug
+                                DetectionUtil.debugShowImage(polarCoordSysImage, "polar_sys");
+
+                                 */
+                            } else {
+                                // ignored
+                                /* 
+                                LOGGER.info("Ignored ellipse: (" 
+                                    + imagePath.substring(
+                                        imagePath.lastIndexOf("/") + 1,
+                                        imagePath.length())
+                                    + "); area=" + contourData.area());
+                                */
+                            }
                         }
                     }
                 }
@@ -606,4 +544,469 @@ public class Main {
             scanner.nextLine();
         };
     }
+
+    private static Runnable startOfflineAnalysis() {
+        return () -> {
+            final var resourceProvider = new ResourceProvider();
+            final var cameraParameter = CameraParameter.defaultParameter();
+            final var calibrationData = Main.loadOrCreateCalibration(resourceProvider, cameraParameter);
+            final var contourParameter = new ContourParameter(
+                11,
+                50,
+                150,
+                6,
+                2,
+                50,
+                0.01,
+                new Scalar(31, 240, 255),
+                2
+            );
+            final var dartsboardImagePaths = resourceProvider
+                .findFilePathsFromResourcePath("dartsboard/1920_1446");
+            final var scoringServer = Main.openScoringServer();
+            try (final var engine = new OfflineAnalysisEngine(
+                    Runtime.getRuntime().availableProcessors(),
+                    cameraParameter,
+                    calibrationData,
+                    contourParameter,
+                    CircleParameter.defaultParameter())) {
+                engine.analyze(
+                    dartsboardImagePaths,
+                    result -> {
+                        LOGGER.info(String.format("%s: success=%s; ellipse=%s; limits=%s; %s ms",
+                            result.imagePath(),
+                            result.success(),
+                            result.boardEllipse(),
+                            result.sectorLimits(),
+                            result.processingNanos() / 1_000_000));
+                        if (scoringServer != null && result.success()) {
+                            scoringServer.publishGeometry(
+                                new BoardGeometry(result.boardEllipse(), result.sectorLimits(), null));
+                        }
+                    });
+            } finally {
+                if (scoringServer != null) {
+                    scoringServer.close();
+                }
+            }
+            LOGGER.info("Metrics: " + PipelineMetrics.getInstance().snapshot());
+        };
+    }
+
+    private static Runnable startRegressionCheck() {
+        return () -> {
+            final var resourceProvider = new ResourceProvider();
+            final var cameraParameter = CameraParameter.defaultParameter();
+            final var calibrationData = Main.loadOrCreateCalibration(resourceProvider, cameraParameter);
+            final var contourParameter = new ContourParameter(
+                11,
+                50,
+                150,
+                6,
+                2,
+                50,
+                0.01,
+                new Scalar(31, 240, 255),
+                2
+            );
+            final var imagePaths = new ArrayList<String>();
+            for (var imageSet : List.of("dartsboard/1920_1446", "dartsboard/temp", "dartsboard/temp_140")) {
+                imagePaths.addAll(resourceProvider.findFilePathsFromResourcePath(imageSet));
+            }
+            final var harness = new RegressionHarness(
+                cameraParameter,
+                calibrationData,
+                contourParameter,
+                CircleParameter.defaultParameter(),
+                Integer.getInteger("regression.repetitions", 3));
+            final var measurements = harness.measure(imagePaths);
+            final var baselineFile = new File(System.getProperty(
+                "regression.baseline", "src/resources/regression/baseline.json"));
+            try {
+                if (Boolean.getBoolean("regression.update")) {
+                    RegressionHarness.writeBaseline(baselineFile, measurements);
+                    return;
+                }
+                if (!baselineFile.exists()) {
+                    LOGGER.severe("regression: baseline " + baselineFile
+                        + " is missing; record it with -Dregression.update=true");
+                    System.exit(1);
+                }
+                // latencies depend on the machine, therefore they are only compared on request
+                final var violations = RegressionHarness.compare(
+                    RegressionHarness.readBaseline(baselineFile),
+                    measurements,
+                    Double.parseDouble(System.getProperty("regression.geometryTolerance", "2.0")),
+                    Boolean.getBoolean("regression.latency")
+                        ? Double.parseDouble(System.getProperty("regression.latencyTolerancePercent", "25"))
+                        : Double.NaN);
+                if (!violations.isEmpty()) {
+                    violations.forEach(violation -> LOGGER.severe("regression: " + violation));
+                    System.exit(1);
+                }
+                LOGGER.info(String.format("Regression check passed for %s images; %s boards detected",
+                    measurements.size(), measurements.stream().filter(RegressionHarness.ImageMeasurement::success).count()));
+            } catch (IOException exception) {
+                LOGGER.severe("Cannot access baseline " + baselineFile + ": " + exception);
+                System.exit(1);
+            }
+        };
+    }
+
+    private static Runnable startStreamingCalibration() {
+        return () -> {
+            // the chessboard stills stand in for a video of a waved board; replace with a camera source.
+            // Each still is held for a few frames like a board kept steady for a moment, as keyframes
+            // are only taken from a board that was tracked between two frames
+            final var chessboardImagePaths = new ArrayList<String>();
+            for (var imagePath : new ResourceProvider().findFilePathsFromResourcePath("chessboard/1920_1446")) {
+                chessboardImagePaths.addAll(Collections.nCopies(3, imagePath));
+            }
+            try (final var frameSource = new ImageFileFrameSource(chessboardImagePaths, 0, 33_333_333L);
+                 final var calibrator = new StreamingCalibrator(
+                     CameraParameter.defaultParameter(),
+                     StreamingCalibrationParameter.defaultParameter())) {
+                final var calibrationData = calibrator.calibrate(frameSource, Boolean.getBoolean("calibration.save"));
+                if (calibrationData != null) {
+                    LOGGER.info(String.format("Streaming calibration finished: avgReprojectionErrors=%s",
+                        calibrationData.avgReprojectionErrors()));
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static Runnable startParameterTuning() {
+        return () -> {
+            final var resourceProvider = new ResourceProvider();
+            final var cameraParameter = CameraParameter.defaultParameter();
+            final var calibrationData = Main.loadOrCreateCalibration(resourceProvider, cameraParameter);
+            final var imagePaths = new ArrayList<String>();
+            for (var imageSet : List.of("dartsboard/1080p", "dartsboard/1920_1446", "dartsboard/temp", "dartsboard/temp_140")) {
+                imagePaths.addAll(resourceProvider.findFilePathsFromResourcePath(imageSet));
+            }
+            final var samples = Integer.getInteger("tuner.samples", 0);
+            final var candidates = samples > 0
+                ? ContourParameterTuner.randomCandidates(samples, Long.getLong("tuner.seed", 42))
+                : ContourParameterTuner.gridCandidates();
+            try (final var tuner = new ContourParameterTuner(
+                Runtime.getRuntime().availableProcessors(),
+                Integer.getInteger("tuner.timingThreads", 1))) {
+                final var paretoSet = tuner.tune(imagePaths, cameraParameter, calibrationData, candidates);
+                paretoSet.forEach(score -> LOGGER.info("pareto: " + score));
+                resourceProvider.writeObjectResource(paretoSet, "tuning", "contour_pareto.json");
+            }
+        };
+    }
+
+    private static Runnable startMultiCamera() {
+        return () -> {
+            // synthetic stand-ins for the three venue cameras; replace with real sources
+            final var frameIntervalNanos = 33_333_333L;
+            final var cameraSetups = new ArrayList<MultiCameraRig.CameraSetup>();
+            final var recordingDirectory = System.getProperty("recording.directory");
+            for (var cameraId : List.of("left", "top", "right")) {
+                FrameSource frameSource = new SyntheticFrameSource(1080, 30, 0, frameIntervalNanos, new Point(640, 420), 10);
+                if (recordingDirectory != null) {
+                    try {
+                        Files.createDirectories(Path.of(recordingDirectory));
+                        frameSource = new RecordingFrameSource(frameSource, new FrameRecorder(
+                            Path.of(recordingDirectory, cameraId + RECORDING_SUFFIX),
+                            FrameRecorder.Compression.valueOf(System.getProperty("recording.compression", "RAW"))));
+                    } catch (IOException exception) {
+                        LOGGER.severe("Cannot record camera " + cameraId + ": " + exception);
+                    }
+                }
+                cameraSetups.add(Main.cameraSetup(cameraId, frameSource));
+            }
+            HitRecording hitRecording = null;
+            if (recordingDirectory != null) {
+                try {
+                    hitRecording = new HitRecording(Path.of(recordingDirectory, HitRecording.FILE_NAME));
+                } catch (IOException exception) {
+                    LOGGER.severe("Cannot record hits: " + exception);
+                }
+            }
+            final var recordedHits = hitRecording;
+            final var rig = new MultiCameraRig(cameraSetups, frameIntervalNanos / 2, 25, true);
+            final var scoringServer = Main.openScoringServer();
+            try {
+                rig.run(geometry -> {
+                    if (scoringServer != null) {
+                        scoringServer.publishGeometry(geometry);
+                    }
+                }, hit -> {
+                    LOGGER.info(String.format("fused hit at %s (confidence=%.2f; cameras=%s)",
+                        hit.boardPoint(), hit.confidence(), hit.contributingEstimates().size()));
+                    if (recordedHits != null) {
+                        recordedHits.record(hit);
+                    }
+                    if (scoringServer != null) {
+                        scoringServer.publishHit(hit);
+                    }
+                });
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (scoringServer != null) {
+                    scoringServer.close();
+                }
+                if (recordedHits != null) {
+                    try {
+                        recordedHits.close();
+                    } catch (IOException exception) {
+                        LOGGER.severe("Cannot finish hit recording: " + exception);
+                    }
+                }
+            }
+        };
+    }
+
+    private static Runnable startReplay() {
+        return () -> {
+            final var directory = Path.of(System.getProperty("recording.directory", "recordings"));
+            final var pacing = RecordedFrameSource.Pacing.valueOf(System.getProperty("replay.pacing", "MAX_SPEED"));
+            final var cameraSetups = new ArrayList<MultiCameraRig.CameraSetup>();
+            try (final var files = Files.list(directory)) {
+                for (var file : files.filter(path -> path.toString().endsWith(RECORDING_SUFFIX)).sorted().toList()) {
+                    final var fileName = file.getFileName().toString();
+                    final var cameraId = fileName.substring(0, fileName.length() - RECORDING_SUFFIX.length());
+                    cameraSetups.add(Main.cameraSetup(cameraId, new RecordedFrameSource(file, pacing)));
+                }
+            } catch (IOException exception) {
+                LOGGER.severe("Cannot open recordings in " + directory + ": " + exception);
+                return;
+            }
+            final List<HitRecording.Entry> recordedHits;
+            try {
+                recordedHits = HitRecording.read(directory.resolve(HitRecording.FILE_NAME));
+            } catch (IOException exception) {
+                LOGGER.severe("Cannot read recorded hits in " + directory + ": " + exception);
+                System.exit(1);
+                return;
+            }
+            final var replayedHits = Collections.synchronizedList(new ArrayList<HitRecording.Entry>());
+            final var start = System.nanoTime();
+            try {
+                // the recorded run journaled its hits already
+                new MultiCameraRig(cameraSetups, 33_333_333L / 2, 25, false)
+                    .run(geometry -> { }, hit -> {
+                        LOGGER.info(String.format("replayed hit at %s (confidence=%.2f; cameras=%s)",
+                            hit.boardPoint(), hit.confidence(), hit.contributingEstimates().size()));
+                        replayedHits.add(HitRecording.Entry.of(hit));
+                    });
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            LOGGER.info(String.format("Replay of %s cameras (%s) took %s ms",
+                cameraSetups.size(), pacing, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            final var differences = HitRecording.differences(
+                recordedHits,
+                replayedHits,
+                Double.parseDouble(System.getProperty("replay.tolerance", "0.01")));
+            if (!differences.isEmpty()) {
+                differences.forEach(difference -> LOGGER.severe("Replay mismatch: " + difference));
+                LOGGER.severe(String.format("Replay differs from the recording in %s of %s hits",
+                    differences.size(), recordedHits.size()));
+                System.exit(1);
+            }
+            LOGGER.info(String.format("Replay reproduced all %s recorded hits", recordedHits.size()));
+        };
+    }
+
+    /**
+     * Sets up a camera of the rig with its calibration or, if it has not been calibrated,
+     * with the {@link CalibrationRegistry#pinhole()} derived for its frame resolution.
+     *
+     * @param cameraId id of the camera
+     * @param frameSource {@link FrameSource} of the camera
+     * @return {@link MultiCameraRig.CameraSetup}
+     */
+    private static MultiCameraRig.CameraSetup cameraSetup(final String cameraId, final FrameSource frameSource) {
+        final var calibrationData = CalibrationRegistry.getInstance().baseCalibration(cameraId);
+        if (calibrationData != null) {
+            return new MultiCameraRig.CameraSetup(cameraId, frameSource, calibrationData);
+        }
+        return new MultiCameraRig.CameraSetup(
+            cameraId,
+            frameSource,
+            CalibrationRegistry.pinhole(),
+            CalibrationRegistry.PINHOLE_RESOLUTION);
+    }
+
+    private static Runnable startJournalScan() {
+        return () -> {
+            final var directory = Path.of(System.getProperty("journal.directory", "journal"));
+            final var follow = Boolean.getBoolean("journal.follow");
+            final var counts = new long[EventJournal.Type.values().length];
+            final var start = System.nanoTime();
+            try (final var reader = new EventJournalReader(directory)) {
+                while (true) {
+                    final var advanced = follow ? reader.await(TimeUnit.SECONDS.toNanos(1)) : reader.next();
+                    if (!advanced) {
+                        if (follow && !Thread.currentThread().isInterrupted()) {
+                            continue;
+                        }
+                        break;
+                    }
+                    counts[reader.type().ordinal()]++;
+                    if (reader.type() == EventJournal.Type.HIT) {
+                        LOGGER.info(String.format("#%s hit at (%.1f, %.1f) confidence=%.2f cameras=%.0f; %s",
+                            reader.sequence(), reader.value(0), reader.value(1), reader.value(2), reader.value(3),
+                            Instant.ofEpochMilli(reader.epochMillis())));
+                    }
+                }
+            } catch (IOException exception) {
+                LOGGER.severe("Cannot read journal " + directory + ": " + exception);
+            }
+            LOGGER.info(String.format("Scanned journal in %s ms: frames=%s; hits=%s; geometry changes=%s",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                counts[EventJournal.Type.FRAME.ordinal()],
+                counts[EventJournal.Type.HIT.ordinal()],
+                counts[EventJournal.Type.GEOMETRY.ordinal()]));
+        };
+    }
+
+    /**
+     * Opens the {@link ScoringServer} if {@code -Dscoring.port} is set.
+     *
+     * @return {@link ScoringServer} or null
+     */
+    private static ScoringServer openScoringServer() {
+        final var port = Integer.getInteger("scoring.port", 0);
+        if (port <= 0) {
+            return null;
+        }
+        try {
+            return new ScoringServer(port, Integer.getInteger("scoring.maxQueuedKilobytes", 256) * 1024);
+        } catch (IOException exception) {
+            LOGGER.severe("Cannot start scoring server: " + exception);
+            return null;
+        }
+    }
+
+    private static Path sharedMemoryRingFile() {
+        return Path.of(System.getProperty("shm.file",
+            Path.of(System.getProperty("java.io.tmpdir"), "hello-opencv-frames.ring").toString()));
+    }
+
+    private static Runnable startSharedMemoryWriter() {
+        return () -> {
+            // synthetic frames stand in for the external capture process
+            final var frameSize = 1080;
+            final var frameIntervalNanos = 33_333_333L;
+            try (final var frameSource = new SyntheticFrameSource(
+                     frameSize, Integer.getInteger("shm.frames", 300), 0, frameIntervalNanos, new Point(640, 420), 10);
+                 final var writer = new SharedMemoryFrameWriter(
+                     sharedMemoryRingFile(), Integer.getInteger("shm.slots", 8), frameSize, frameSize, CvType.CV_8UC3)) {
+                Frame frame;
+                while ((frame = frameSource.next()) != null) {
+                    writer.write(frame.image(), System.nanoTime());
+                    frame.image().release();
+                    Thread.sleep(frameIntervalNanos / 1_000_000);
+                }
+            } catch (IOException exception) {
+                LOGGER.severe("Cannot write frame ring: " + exception);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static Runnable startSharedMemoryIngest() {
+        return () -> {
+            final var scoringServer = Main.openScoringServer();
+            try (final var frameSource = new SharedMemoryFrameSource(sharedMemoryRingFile())) {
+                final var rig = new MultiCameraRig(
+                    List.of(Main.cameraSetup("top", frameSource)),
+                    33_333_333L / 2,
+                    25,
+                    true);
+                rig.run(geometry -> {
+                    if (scoringServer != null) {
+                        scoringServer.publishGeometry(geometry);
+                    }
+                }, hit -> {
+                    LOGGER.info(String.format("hit at %s (confidence=%.2f)",
+                        hit.boardPoint(), hit.confidence()));
+                    if (scoringServer != null) {
+                        scoringServer.publishHit(hit);
+                    }
+                });
+            } catch (IOException exception) {
+                LOGGER.severe("Cannot map frame ring: " + exception);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (scoringServer != null) {
+                    scoringServer.close();
+                }
+            }
+            LOGGER.info("Metrics: " + PipelineMetrics.getInstance().snapshot());
+        };
+    }
+
+    private static CalibrationData loadOrCreateCalibration(
+            final ResourceProvider resourceProvider,
+            final CameraParameter cameraParameter) {
+        CalibrationData calibrationData = null;
+        
+        final var useExistingCalibration = true;
+        if (useExistingCalibration) {
+            final var dir = "src/resources/";
+            final var cameraMatrixFileName = dir + "camera-matrix.bin"; 
+            final var distortionCoeffFileName = dir + "distortion-coefficients.bin";
+            final var canLoadCalibration = 
+                Files.exists(Path.of(cameraMatrixFileName))
+                && Files.exists(Path.of(distortionCoeffFileName));
+            if (!canLoadCalibration) {
+                LOGGER.warning("Cannot load exsiting calibration; fallback -> calibrate by images...");
+            } else {
+                final var mats = CameraCalibrator.loadCalibration(
+                    cameraMatrixFileName, 
+                    distortionCoeffFileName);
+                calibrationData = new CalibrationData(
+                    mats[0],
+                    mats[1],
+                    null, null, Double.NaN
+                );
+            }
+        }
+        if (calibrationData == null) {
+            LOGGER.info("Starting fresh calibration by images");
+            final var imagePaths = resourceProvider
+                // .findFilePathsFromResourcePath("chessboard/1920_1446");
+                .findFilePathsFromResourcePath("chessboard/temp");
+            final var chessboardData = ChessboardData.init();
+                
+            // for each image do find chessboard corners
+            LOGGER.info("Searching for corners in " + imagePaths + "...");
+            for (String imagePath: imagePaths) {
+                final var img = new File(imagePath);           
+                LOGGER.info("Corners iteration for file " + imagePath);                    
+                // find corners and store the result in the calibrator instance
+                final var hasCorners = CameraCalibrator.findCorners(
+                    img.getAbsolutePath(), 
+                    cameraParameter,
+                    chessboardData,
+                    (originalFrame, cornersFrame) -> {
+                        DetectionUtil.debugShowImage(
+                            originalFrame, "original_" + imagePath
+                        );
+                    });                        
+                if (!hasCorners) {
+                    continue;
+                }
+            }
+
+            // calibrate with the infos
+            calibrationData = CameraCalibrator.calibrate(
+                cameraParameter,
+                chessboardData
+            );
+        }
+        return calibrationData;
+    }
 }
\ No newline at end of file
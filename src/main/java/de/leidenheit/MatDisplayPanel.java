@@ -0,0 +1,96 @@
+package de.leidenheit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.swing.JPanel;
+
+/**
+ * {@link JPanel} showing {@link Mat} frames without per-frame allocations.
+ * Two {@link BufferedImage}s per frame size are reused: the capture thread copies
+ * the Mat bytes directly into the raster of the spare buffer and publishes it in a
+ * single slot, the EDT takes the latest published buffer when painting and returns
+ * the previously shown one. Frames published faster than the EDT paints are skipped.
+ * The producer side is meant to be used by a single thread.
+ */
+public class MatDisplayPanel extends JPanel {
+
+    private static final long serialVersionUID = 1L;
+
+    private final AtomicReference<BufferedImage> published = new AtomicReference<>();
+    private final AtomicReference<BufferedImage> spare = new AtomicReference<>();
+    private final AtomicBoolean repaintScheduled = new AtomicBoolean();
+    private final AtomicLong skippedFrames = new AtomicLong();
+    // confined to the EDT
+    private BufferedImage displayed;
+
+    /**
+     * Copies the given frame into a spare buffer and schedules a repaint.
+     * May be called from any single producer thread; never blocks.
+     *
+     * @param mat {@link Mat} of type {@link CvType#CV_8UC1} or {@link CvType#CV_8UC3} (BGR)
+     */
+    public void display(final Mat mat) {
+        final var imageType = imageType(mat);
+        var buffer = spare.getAndSet(null);
+        if (buffer == null) {
+            // the EDT has not painted the previous frame yet: overwrite it
+            buffer = published.getAndSet(null);
+            if (buffer != null) {
+                skippedFrames.incrementAndGet();
+            }
+        }
+        if (buffer == null || buffer.getWidth() != mat.width() || buffer.getHeight() != mat.height()
+            || buffer.getType() != imageType) {
+            buffer = new BufferedImage(mat.width(), mat.height(), imageType);
+        }
+        mat.get(0, 0, ((DataBufferByte) buffer.getRaster().getDataBuffer()).getData());
+        published.set(buffer);
+
+        if (repaintScheduled.compareAndSet(false, true)) {
+            repaint();
+        }
+    }
+
+    public long skippedFrames() {
+        return skippedFrames.get();
+    }
+
+    @Override
+    protected void paintComponent(final Graphics graphics) {
+        super.paintComponent(graphics);
+        repaintScheduled.set(false);
+        final var next = published.getAndSet(null);
+        if (next != null) {
+            if (displayed != null) {
+                spare.set(displayed);
+            }
+            displayed = next;
+            if (!getPreferredSize().equals(new Dimension(next.getWidth(), next.getHeight()))) {
+                setPreferredSize(new Dimension(next.getWidth(), next.getHeight()));
+                revalidate();
+            }
+        }
+        if (displayed != null) {
+            graphics.drawImage(displayed, 0, 0, null);
+        }
+    }
+
+    private static int imageType(final Mat mat) {
+        if (mat.type() == CvType.CV_8UC1) {
+            return BufferedImage.TYPE_BYTE_GRAY;
+        }
+        if (mat.type() == CvType.CV_8UC3) {
+            return BufferedImage.TYPE_3BYTE_BGR;
+        }
+        throw new IllegalArgumentException("Unsupported mat type: " + CvType.typeToString(mat.type()));
+    }
+}
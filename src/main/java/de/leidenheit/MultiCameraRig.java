@@ -0,0 +1,211 @@
+package de.leidenheit;
+
+import org.opencv.core.Point;
+import org.opencv.core.Size;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Runs one {@link CameraPipeline} per camera concurrently, synchronizes their
+ * estimates by timestamp and fuses the tip estimates into one board coordinate.
+ * All cameras map their frames into the same board ROI through the ArUco markers,
+ * therefore the per-camera estimates share one coordinate system.
+ */
+public final class MultiCameraRig {
+
+    private static final Logger LOGGER = Logger.getLogger(MultiCameraRig.class.getSimpleName());
+
+    private final List<CameraSetup> cameraSetups;
+    private final long syncToleranceNanos;
+    private final double maxDeviation;
+    private final boolean journaled;
+
+    /**
+     * @param cameraSetups cameras of the rig
+     * @param syncToleranceNanos maximum timestamp difference of frames considered simultaneous
+     * @param maxDeviation maximum distance in ROI pixels of an estimate to the
+     *  consensus of the other cameras before it is rejected as outlier
+     * @param journaled if false hits and geometry are not written to the {@link EventJournal},
+     *  e.g. when replaying recordings of a run that was journaled already
+     */
+    public MultiCameraRig(
+        final List<CameraSetup> cameraSetups,
+        final long syncToleranceNanos,
+        final double maxDeviation,
+        final boolean journaled) {
+        this.cameraSetups = List.copyOf(cameraSetups);
+        this.syncToleranceNanos = syncToleranceNanos;
+        this.maxDeviation = maxDeviation;
+        this.journaled = journaled;
+    }
+
+    /**
+     * Runs all cameras until their sources are exhausted. The board geometry of the
+     * first camera that measures it is published; all cameras share the board coordinates.
+     * A camera measures the geometry before it estimates tips, so hits follow it.
+     *
+     * @param geometryConsumer {@link Consumer} receiving the {@link BoardGeometry} once
+     * @param hitConsumer {@link Consumer} receiving every {@link FusedHit}
+     * @throws InterruptedException if interrupted while waiting for the cameras
+     */
+    public void run(
+        final Consumer<BoardGeometry> geometryConsumer,
+        final Consumer<FusedHit> hitConsumer) throws InterruptedException {
+        final var cameraIds = cameraSetups.stream()
+            .map(CameraSetup::cameraId)
+            .toList();
+        final var calibrationRegistry = CalibrationRegistry.getInstance();
+        cameraSetups.forEach(cameraSetup -> calibrationRegistry.register(
+            cameraSetup.cameraId(),
+            cameraSetup.calibrationResolution(),
+            cameraSetup.calibrationData()));
+        final var synchronizer = new FrameSynchronizer(
+            cameraIds,
+            syncToleranceNanos,
+            group -> {
+                final var hit = fuse(group, maxDeviation);
+                if (hit != null) {
+                    PipelineMetrics.getInstance().recordScoredFrame();
+                    if (journaled) {
+                        EventJournal.getInstance().recordHit(hit);
+                    }
+                    hitConsumer.accept(hit);
+                }
+            });
+
+        final var geometryPublished = new AtomicBoolean();
+        final Consumer<BoardGeometry> firstGeometry = geometry -> {
+            if (geometryPublished.compareAndSet(false, true)) {
+                if (journaled) {
+                    EventJournal.getInstance().recordGeometry(geometry.boardEllipse(), geometry.sectorLimits());
+                }
+                geometryConsumer.accept(geometry);
+            }
+        };
+
+        final var threadCount = new AtomicInteger();
+        final ExecutorService executorService = Executors.newFixedThreadPool(
+            cameraSetups.size(),
+            runnable -> new Thread(runnable, "camera-" + cameraIds.get(threadCount.getAndIncrement())));
+        final var pipelines = new ArrayList<CameraPipeline>(cameraSetups.size());
+        try {
+            for (CameraSetup cameraSetup : cameraSetups) {
+                final var pipeline = new CameraPipeline(
+                    cameraSetup.cameraId(),
+                    cameraSetup.frameSource(),
+                    firstGeometry,
+                    synchronizer::submit);
+                pipelines.add(pipeline);
+                executorService.execute(() -> {
+                    try {
+                        pipeline.run();
+                    } finally {
+                        synchronizer.complete(pipeline.cameraId());
+                    }
+                });
+            }
+            executorService.shutdown();
+            while (!executorService.awaitTermination(1, TimeUnit.SECONDS)) {
+                // wait for all cameras
+            }
+        } catch (InterruptedException exception) {
+            pipelines.forEach(CameraPipeline::stop);
+            executorService.shutdownNow();
+            throw exception;
+        }
+        LOGGER.info(String.format("Multi camera run completed; dropped estimates=%s",
+            synchronizer.droppedEstimates()));
+    }
+
+    /**
+     * Fuses simultaneous per-camera estimates into a single board coordinate by a
+     * confidence weighted mean. With three or more cameras seeing the tip, estimates
+     * deviating more than maxDeviation from the component-wise median of all estimates
+     * are rejected; a single outlier cannot move the median. The hit is kept if at
+     * least two cameras agree with the median.
+     *
+     * @param estimates {@link CameraTipEstimate} of one synchronized frame group
+     * @param maxDeviation maximum deviation in ROI pixels
+     * @return {@link FusedHit} or null if no camera sees a tip or the cameras disagree.
+     */
+    public static FusedHit fuse(final List<CameraTipEstimate> estimates, final double maxDeviation) {
+        var accepted = estimates.stream()
+            .filter(CameraTipEstimate::hasTip)
+            .filter(estimate -> estimate.confidence() > 0)
+            .toList();
+        if (accepted.size() >= 3) {
+            final var consensus = new Point(
+                median(accepted.stream().mapToDouble(estimate -> estimate.tip().x).toArray()),
+                median(accepted.stream().mapToDouble(estimate -> estimate.tip().y).toArray()));
+            accepted = accepted.stream()
+                .filter(estimate -> Math.hypot(
+                    estimate.tip().x - consensus.x,
+                    estimate.tip().y - consensus.y) <= maxDeviation)
+                .toList();
+            if (accepted.size() < 2) {
+                return null;
+            }
+        }
+        if (accepted.isEmpty()) {
+            return null;
+        }
+        final var confidence = accepted.stream()
+            .mapToDouble(CameraTipEstimate::confidence)
+            .sum() / estimates.size();
+        final var timestampNanos = (long) estimates.stream()
+            .mapToLong(CameraTipEstimate::timestampNanos)
+            .average()
+            .orElse(0);
+        return new FusedHit(
+            timestampNanos,
+            weightedMean(accepted),
+            confidence,
+            accepted);
+    }
+
+    private static double median(final double[] values) {
+        Arrays.sort(values);
+        final var middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    private static Point weightedMean(final List<CameraTipEstimate> estimates) {
+        var weightSum = 0d;
+        var x = 0d;
+        var y = 0d;
+        for (var estimate : estimates) {
+            weightSum += estimate.confidence();
+            x += estimate.tip().x * estimate.confidence();
+            y += estimate.tip().y * estimate.confidence();
+        }
+        return new Point(x / weightSum, y / weightSum);
+    }
+
+    /**
+     * @param cameraId id of the camera
+     * @param frameSource {@link FrameSource} of the camera
+     * @param calibrationData {@link CalibrationData}
+     * @param calibrationResolution resolution of the calibration images; null if the
+     *  frames have the calibration resolution, see {@link CalibrationRegistry#register}
+     */
+    public record CameraSetup(
+        String cameraId,
+        FrameSource frameSource,
+        CalibrationData calibrationData,
+        Size calibrationResolution
+    ) {
+
+        public CameraSetup(final String cameraId, final FrameSource frameSource, final CalibrationData calibrationData) {
+            this(cameraId, frameSource, calibrationData, null);
+        }
+    }
+}
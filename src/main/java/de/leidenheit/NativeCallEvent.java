@@ -0,0 +1,50 @@
+package de.leidenheit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event spanning a single OpenCV JNI call, which separates native time
+ * from the Java glue around it inside a {@link PipelineStageEvent}.
+ */
+@Name("de.leidenheit.NativeCall")
+@Label("OpenCV Native Call")
+@Category({"Hello OpenCV", "Native"})
+@Description("Duration of an OpenCV JNI call")
+@StackTrace(false)
+public final class NativeCallEvent extends Event {
+
+    @Label("Function")
+    String function;
+
+    @Label("Frame Id")
+    long frameId;
+
+    /**
+     * Creates and begins an event for the frame of the current thread.
+     *
+     * @param function name of the OpenCV function, e.g. Calib3d.undistort
+     * @return {@link NativeCallEvent}
+     */
+    public static NativeCallEvent begin(final String function) {
+        final var event = new NativeCallEvent();
+        event.begin();
+        event.function = function;
+        event.frameId = FrameTrace.currentFrameId();
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it is enabled.
+     */
+    public void complete() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
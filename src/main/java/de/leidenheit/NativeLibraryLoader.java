@@ -0,0 +1,131 @@
+package de.leidenheit;
+
+import org.opencv.core.Core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Locates and loads the OpenCV native library for the current OS and architecture.
+ * The first existing candidate wins:
+ *  - the file given by the system property {@code opencv.library}
+ *  - {@code <opencv.library.dir>/<arch>/<library>} with {@code opencv.library.dir} defaulting to lib
+ *  - the classpath resource {@code native/<os>-<arch>/<library>}, extracted once into
+ *    {@code opencv.cache.dir} (default: a directory below java.io.tmpdir)
+ *  - {@code java.library.path}
+ * where {@code <library>} is the platform file name of {@link Core#NATIVE_LIBRARY_NAME},
+ * e.g. libopencv_java460.so or opencv_java460.dll.
+ */
+public final class NativeLibraryLoader {
+
+    private static final Logger LOGGER = Logger.getLogger(NativeLibraryLoader.class.getSimpleName());
+
+    private static boolean loaded;
+
+    /**
+     * Loads the OpenCV native library. Repeated calls are ignored.
+     *
+     * @throws UnsatisfiedLinkError if no candidate could be loaded
+     */
+    public static synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        final var start = System.nanoTime();
+        final var libraryFileName = System.mapLibraryName(Core.NATIVE_LIBRARY_NAME);
+        final var platform = operatingSystem() + "-" + architecture();
+
+        final var explicitLibrary = System.getProperty("opencv.library");
+        if (explicitLibrary != null) {
+            loadFile(new File(explicitLibrary), start);
+            return;
+        }
+        final var libraryDirectory = new File(System.getProperty("opencv.library.dir", "lib"), architecture());
+        final var localLibrary = new File(libraryDirectory, libraryFileName);
+        if (localLibrary.isFile()) {
+            loadFile(localLibrary, start);
+            return;
+        }
+        final var extractedLibrary = extractFromClasspath(platform, libraryFileName);
+        if (extractedLibrary != null) {
+            loadFile(extractedLibrary, start);
+            return;
+        }
+        LOGGER.info(String.format("No bundled %s for %s; falling back to java.library.path", libraryFileName, platform));
+        System.loadLibrary(Core.NATIVE_LIBRARY_NAME);
+        loaded = true;
+        logLoaded("java.library.path", start);
+    }
+
+    private static void loadFile(final File library, final long start) {
+        System.load(library.getAbsolutePath());
+        loaded = true;
+        logLoaded(library.getAbsolutePath(), start);
+    }
+
+    private static void logLoaded(final String origin, final long start) {
+        LOGGER.info(String.format("OpenCV %s loaded from %s in %.1f ms",
+            Core.VERSION, origin, (System.nanoTime() - start) / 1_000_000d));
+    }
+
+    /**
+     * Copies the bundled library into the cache directory unless an identical copy exists.
+     *
+     * @return extracted {@link File} or null if no library is bundled for the platform
+     */
+    private static File extractFromClasspath(final String platform, final String libraryFileName) {
+        final var resource = "native/" + platform + "/" + libraryFileName;
+        try (InputStream inputStream = NativeLibraryLoader.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                return null;
+            }
+            final var cacheDirectory = Path.of(System.getProperty(
+                "opencv.cache.dir",
+                Path.of(System.getProperty("java.io.tmpdir"), "hello-opencv-native", Core.VERSION, platform).toString()));
+            Files.createDirectories(cacheDirectory);
+            final var target = cacheDirectory.resolve(libraryFileName);
+            final var bytes = inputStream.readAllBytes();
+            if (!Files.isRegularFile(target) || Files.size(target) != bytes.length) {
+                // write next to the target and move, so concurrent starts never load a partial file
+                final var temporary = Files.createTempFile(cacheDirectory, libraryFileName, ".tmp");
+                Files.write(temporary, bytes);
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                LOGGER.info("Extracted " + resource + " to " + target);
+            }
+            return target.toFile();
+        } catch (IOException exception) {
+            LOGGER.warning(String.format("Cannot extract %s: %s", resource, exception.getMessage()));
+            return null;
+        }
+    }
+
+    static String operatingSystem() {
+        final var osName = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+        if (osName.contains("win")) {
+            return "windows";
+        }
+        if (osName.contains("mac") || osName.contains("darwin")) {
+            return "macos";
+        }
+        return "linux";
+    }
+
+    static String architecture() {
+        final var osArch = System.getProperty("os.arch").toLowerCase(Locale.ROOT);
+        return switch (osArch) {
+            case "amd64", "x86_64", "x64" -> "x64";
+            case "aarch64", "arm64" -> "arm64";
+            default -> osArch;
+        };
+    }
+
+    private NativeLibraryLoader() {
+        // hide constructor
+    }
+}
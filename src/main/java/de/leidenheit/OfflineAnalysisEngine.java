@@ -0,0 +1,120 @@
+package de.leidenheit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Analyzes independent board images concurrently on a work-stealing pool.
+ * Each task works on its own copy of the calibration {@link org.opencv.core.Mat}s
+ * and never touches {@link org.opencv.highgui.HighGui}, so no OpenCV state is shared.
+ */
+public final class OfflineAnalysisEngine implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(OfflineAnalysisEngine.class.getSimpleName());
+
+    private final ExecutorService executorService;
+    private final CameraParameter cameraParameter;
+    private final CalibrationData calibrationData;
+    private final ContourParameter contourParameter;
+    private final CircleParameter circleParameter;
+
+    public OfflineAnalysisEngine(
+        final int parallelism,
+        final CameraParameter cameraParameter,
+        final CalibrationData calibrationData,
+        final ContourParameter contourParameter,
+        final CircleParameter circleParameter) {
+        this.executorService = Executors.newWorkStealingPool(parallelism);
+        this.cameraParameter = cameraParameter;
+        this.calibrationData = calibrationData;
+        this.contourParameter = contourParameter;
+        this.circleParameter = circleParameter;
+    }
+
+    /**
+     * Analyzes the given images concurrently. Results are handed to the consumer
+     * in input order as soon as all preceding images are done.
+     *
+     * @param imagePaths absolute paths of the board images
+     * @param resultConsumer {@link Consumer} called in input order
+     * @return {@link OfflineAnalysisReport}
+     */
+    public OfflineAnalysisReport analyze(
+        final List<String> imagePaths,
+        final Consumer<BoardAnalysisResult> resultConsumer) {
+
+        final var start = System.nanoTime();
+        final var futures = new ArrayList<CompletableFuture<BoardAnalysisResult>>(imagePaths.size());
+        for (int i = 0; i < imagePaths.size(); i++) {
+            final var frameId = i;
+            final var imagePath = imagePaths.get(i);
+            futures.add(CompletableFuture.supplyAsync(
+                () -> {
+                    FrameTrace.setFrameId(frameId);
+                    try {
+                        return BoardAnalyzer.analyze(
+                            imagePath,
+                            cameraParameter,
+                            isolatedCalibrationData(),
+                            contourParameter,
+                            circleParameter);
+                    } finally {
+                        FrameTrace.clear();
+                    }
+                },
+                executorService));
+        }
+
+        final var results = new ArrayList<BoardAnalysisResult>(futures.size());
+        for (var future : futures) {
+            final var result = future.join();
+            results.add(result);
+            resultConsumer.accept(result);
+        }
+
+        final var elapsedNanos = System.nanoTime() - start;
+        final var report = new OfflineAnalysisReport(
+            results,
+            elapsedNanos,
+            results.size() / (elapsedNanos / 1_000_000_000d));
+        LOGGER.info(String.format("Analyzed %s images (%s successful) in %s ms; %.2f images/s",
+            results.size(),
+            report.successCount(),
+            TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+            report.imagesPerSecond()));
+        return report;
+    }
+
+    private CalibrationData isolatedCalibrationData() {
+        return new CalibrationData(
+            calibrationData.cameraMatrix().clone(),
+            calibrationData.distortionCoefficients().clone(),
+            null,
+            null,
+            calibrationData.avgReprojectionErrors());
+    }
+
+    @Override
+    public void close() {
+        executorService.shutdown();
+    }
+
+    public record OfflineAnalysisReport(
+        List<BoardAnalysisResult> results,
+        long elapsedNanos,
+        double imagesPerSecond
+    ) {
+
+        public long successCount() {
+            return results.stream()
+                .filter(BoardAnalysisResult::success)
+                .count();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package de.leidenheit;
+
+import java.awt.GraphicsEnvironment;
+
+/**
+ * Output of the {@link OverlayRenderer}, configured with the system property
+ * {@code overlay.output}; defaults to {@link #WINDOW} or {@link #NONE} when headless.
+ */
+public enum OverlayOutput {
+    WINDOW,
+    FILES,
+    NONE;
+
+    public static OverlayOutput fromSystemProperties() {
+        final var configured = System.getProperty("overlay.output");
+        if (configured != null) {
+            return valueOf(configured.toUpperCase());
+        }
+        return GraphicsEnvironment.isHeadless() ? NONE : WINDOW;
+    }
+}
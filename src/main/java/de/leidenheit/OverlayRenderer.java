@@ -0,0 +1,236 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.Scalar;
+import org.opencv.highgui.HighGui;
+import org.opencv.imgcodecs.Imgcodecs;
+import org.opencv.imgproc.Imgproc;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Renders debug overlays on its own thread, so enabling debugging never adds
+ * latency to detection. Detection threads submit {@link OverlaySnapshot}s into a
+ * single slot; a snapshot that has not been rendered yet is dropped in favour of
+ * the newer one (latest frame wins). Depending on {@link OverlayOutput} the overlays
+ * are shown in a window, written to {@code overlay.directory} at most once per
+ * {@code overlay.fileIntervalMillis}, or not produced at all.
+ */
+public final class OverlayRenderer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(OverlayRenderer.class.getSimpleName());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private static final OverlayRenderer INSTANCE = new OverlayRenderer(
+        OverlayOutput.fromSystemProperties(),
+        new File(System.getProperty("overlay.directory", "overlays")),
+        Long.getLong("overlay.fileIntervalMillis", 1_000));
+
+    private final OverlayOutput output;
+    private final File directory;
+    private final long fileIntervalNanos;
+    private final AtomicReference<OverlaySnapshot> pending = new AtomicReference<>();
+    private final AtomicLong droppedSnapshots = new AtomicLong();
+    private final Thread renderThread;
+    private volatile boolean running = true;
+    private long nextFileNanos;
+
+    public static OverlayRenderer getInstance() {
+        return INSTANCE;
+    }
+
+    OverlayRenderer(final OverlayOutput output, final File directory, final long fileIntervalMillis) {
+        this.output = output;
+        this.directory = directory;
+        this.fileIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fileIntervalMillis);
+        this.renderThread = new Thread(this::renderLoop, "overlay-renderer");
+        this.renderThread.setDaemon(true);
+        if (output != OverlayOutput.NONE) {
+            if (output == OverlayOutput.FILES) {
+                directory.mkdirs();
+            }
+            this.renderThread.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return output != OverlayOutput.NONE && running;
+    }
+
+    /**
+     * Submits a plain image. The image is copied before this method returns,
+     * so the caller may keep modifying it.
+     *
+     * @param label window or file name
+     * @param image {@link Mat}
+     */
+    public void submit(final String label, final Mat image) {
+        if (isEnabled()) {
+            submit(OverlaySnapshot.of(label, image));
+        }
+    }
+
+    /**
+     * Submits an image together with detection results drawn on top of it by the renderer.
+     * The image is copied before this method returns.
+     *
+     * @param label window or file name
+     * @param image {@link Mat}
+     * @param boardEllipse {@link RotatedRect} or null
+     * @param sectorLimits {@link DartboardSectorLimits} or null
+     * @param circles {@link CircleDetectionResult}s or null
+     */
+    public void submit(
+        final String label,
+        final Mat image,
+        final RotatedRect boardEllipse,
+        final DartboardSectorLimits sectorLimits,
+        final List<CircleDetectionResult> circles) {
+
+        if (isEnabled()) {
+            submit(new OverlaySnapshot(
+                FrameTrace.currentFrameId(),
+                label,
+                image.clone(),
+                boardEllipse == null ? null : boardEllipse.clone(),
+                sectorLimits,
+                circles,
+                boardEllipse != null));
+        }
+    }
+
+    /**
+     * Hands a snapshot over to the render thread. Ownership of the snapshot image
+     * passes to the renderer.
+     *
+     * @param snapshot {@link OverlaySnapshot}
+     */
+    public void submit(final OverlaySnapshot snapshot) {
+        if (!isEnabled()) {
+            snapshot.image().release();
+            return;
+        }
+        final var previous = pending.getAndSet(snapshot);
+        if (previous != null) {
+            previous.image().release();
+            droppedSnapshots.incrementAndGet();
+        }
+        LockSupport.unpark(renderThread);
+    }
+
+    public long droppedSnapshots() {
+        return droppedSnapshots.get();
+    }
+
+    private void renderLoop() {
+        while (running) {
+            final var snapshot = pending.getAndSet(null);
+            if (snapshot == null) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                render(snapshot);
+            } catch (RuntimeException exception) {
+                LOGGER.warning(String.format("Rendering of overlay %s failed: %s", snapshot.label(), exception));
+            } finally {
+                snapshot.image().release();
+            }
+        }
+    }
+
+    private void render(final OverlaySnapshot snapshot) {
+        if (output == OverlayOutput.FILES) {
+            final var now = System.nanoTime();
+            if (now - nextFileNanos < 0) {
+                droppedSnapshots.incrementAndGet();
+                return;
+            }
+            nextFileNanos = now + fileIntervalNanos;
+        }
+
+        final var canvas = snapshot.image();
+        drawDetections(canvas, snapshot);
+        if (output == OverlayOutput.WINDOW) {
+            HighGui.imshow(snapshot.label(), canvas);
+            HighGui.waitKey(1);
+        } else {
+            final var fileName = String.format("%s_%s.png",
+                snapshot.label().replaceAll("[^A-Za-z0-9._-]", "_"),
+                snapshot.frameId());
+            Imgcodecs.imwrite(new File(directory, fileName).getAbsolutePath(), canvas);
+        }
+    }
+
+    private static void drawDetections(final Mat canvas, final OverlaySnapshot snapshot) {
+        final var boardEllipse = snapshot.boardEllipse();
+        if (boardEllipse != null) {
+            Imgproc.ellipse(canvas, boardEllipse, new Scalar(40, 240, 255), 1);
+            Imgproc.drawMarker(canvas, boardEllipse.center, new Scalar(50, 50, 50), Imgproc.MARKER_CROSS, 960);
+            if (snapshot.polarCoordinateSystem()) {
+                DetectionUtil.drawPolarCoordinateSystem(canvas, boardEllipse, false);
+            }
+            final var limits = snapshot.sectorLimits();
+            if (limits != null) {
+                for (var radius : new int[]{
+                    limits.radiusBullsEyeLimit(),
+                    limits.radiusBullLimit(),
+                    limits.radiusInnerTripleLimit(),
+                    limits.radiusOuterTripleLimit(),
+                    limits.radiusInnerDoubleLimit(),
+                    limits.radiusOuterDoubleLimit()}) {
+                    DetectionUtil.drawPolarCoordinateFactorXAxis(
+                        canvas,
+                        boardEllipse,
+                        radius,
+                        100,
+                        0,
+                        0,
+                        new Scalar(0, 0, 139));
+                }
+            }
+        }
+        if (snapshot.circles() != null) {
+            for (var circles : snapshot.circles()) {
+                for (int i = 0; i < circles.size(); i++) {
+                    final Point center = circles.center(i);
+                    // circle center
+                    Imgproc.drawMarker(canvas, center, new Scalar(0, 100, 100), Imgproc.MARKER_CROSS, 960, 1);
+                    // circle outline
+                    final var radius = Math.round(circles.radius(i));
+                    Imgproc.circle(canvas, center, radius, new Scalar(255, 0, 255), 2, Imgproc.LINE_8, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the render thread and closes all overlay windows.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(renderThread);
+        try {
+            renderThread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        final var snapshot = pending.getAndSet(null);
+        if (snapshot != null) {
+            snapshot.image().release();
+        }
+        if (output == OverlayOutput.WINDOW) {
+            HighGui.destroyAllWindows();
+        }
+        LOGGER.info(String.format("Overlay renderer closed; %s snapshots dropped", droppedSnapshots.get()));
+    }
+}
@@ -0,0 +1,41 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.RotatedRect;
+
+import java.util.List;
+
+/**
+ * Immutable snapshot of a detection result handed to the {@link OverlayRenderer}.
+ * The image is a private copy owned by the snapshot; all other fields are optional
+ * and drawn on top of it by the renderer.
+ *
+ * @param frameId id of the frame or {@link FrameTrace#NO_FRAME}
+ * @param label window or file name of the overlay
+ * @param image private copy of the image
+ * @param boardEllipse {@link RotatedRect} of the board or null
+ * @param sectorLimits {@link DartboardSectorLimits} or null
+ * @param circles {@link CircleDetectionResult}s or null
+ * @param polarCoordinateSystem draws the sector lines of the board ellipse if true
+ */
+public record OverlaySnapshot(
+    long frameId,
+    String label,
+    Mat image,
+    RotatedRect boardEllipse,
+    DartboardSectorLimits sectorLimits,
+    List<CircleDetectionResult> circles,
+    boolean polarCoordinateSystem
+) {
+
+    public static OverlaySnapshot of(final String label, final Mat image) {
+        return new OverlaySnapshot(
+            FrameTrace.currentFrameId(),
+            label,
+            image.clone(),
+            null,
+            null,
+            null,
+            false);
+    }
+}
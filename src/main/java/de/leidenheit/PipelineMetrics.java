@@ -0,0 +1,217 @@
+package de.leidenheit;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Process wide metrics of the detection pipeline: per-stage latency histograms,
+ * frame, drop and detection failure counts. Recording is lock-free and cheap enough
+ * for the hot path. Snapshots are available through {@link #snapshot()} and JMX.
+ */
+public final class PipelineMetrics implements PipelineMetricsMXBean {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineMetrics.class.getSimpleName());
+    private static final String OBJECT_NAME = "de.leidenheit:type=PipelineMetrics";
+
+    private static final PipelineMetrics INSTANCE = new PipelineMetrics();
+
+    private final EnumMap<PipelineStage, LatencyHistogram> stageLatencies = new EnumMap<>(PipelineStage.class);
+    private final EnumMap<PipelineStage, LongAdder> stageFailures = new EnumMap<>(PipelineStage.class);
+    private final LongAdder framesProcessed = new LongAdder();
+    private final LongAdder framesDropped = new LongAdder();
+    private final AtomicLong warmupNanos = new AtomicLong(-1);
+    private final AtomicLong timeToFirstScoredFrameMillis = new AtomicLong(-1);
+
+    public static PipelineMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    private PipelineMetrics() {
+        for (PipelineStage stage : PipelineStage.values()) {
+            stageLatencies.put(stage, new LatencyHistogram());
+            stageFailures.put(stage, new LongAdder());
+        }
+    }
+
+    /**
+     * Records the latency of a stage.
+     *
+     * @param stage {@link PipelineStage}
+     * @param startNanos {@link System#nanoTime()} at the start of the stage
+     */
+    public void recordStage(final PipelineStage stage, final long startNanos) {
+        stageLatencies.get(stage).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a processed frame and its overall latency.
+     *
+     * @param startNanos {@link System#nanoTime()} at the start of the frame
+     */
+    public void recordFrame(final long startNanos) {
+        framesProcessed.increment();
+        recordStage(PipelineStage.FRAME, startNanos);
+    }
+
+    public void recordDroppedFrames(final long count) {
+        framesDropped.add(count);
+    }
+
+    /**
+     * Records the duration of the startup warm-up.
+     *
+     * @param startNanos {@link System#nanoTime()} at the start of the warm-up
+     */
+    public void recordWarmup(final long startNanos) {
+        warmupNanos.set(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records a scored frame; the first call fixes the time to first scored frame,
+     * measured from the start of the JVM.
+     */
+    public void recordScoredFrame() {
+        if (timeToFirstScoredFrameMillis.get() < 0) {
+            timeToFirstScoredFrameMillis.compareAndSet(-1, ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+
+    /**
+     * Records a failed detection in a given stage.
+     *
+     * @param stage {@link PipelineStage} in which the detection failed
+     */
+    public void recordDetectionFailure(final PipelineStage stage) {
+        stageFailures.get(stage).increment();
+    }
+
+    /**
+     * Takes a snapshot of all metrics.
+     *
+     * @return {@link MetricsSnapshot}
+     */
+    public MetricsSnapshot snapshot() {
+        final var latencies = new EnumMap<PipelineStage, LatencyHistogram.LatencySnapshot>(PipelineStage.class);
+        final var failures = new EnumMap<PipelineStage, Long>(PipelineStage.class);
+        for (PipelineStage stage : PipelineStage.values()) {
+            latencies.put(stage, stageLatencies.get(stage).snapshot());
+            failures.put(stage, stageFailures.get(stage).sum());
+        }
+        return new MetricsSnapshot(
+            framesProcessed.sum(),
+            framesDropped.sum(),
+            getWarmupMillis(),
+            getTimeToFirstScoredFrameMillis(),
+            latencies,
+            failures);
+    }
+
+    /**
+     * Registers the metrics at the platform MBean server. Repeated calls are ignored.
+     */
+    public static synchronized void registerMBean() {
+        try {
+            final var server = ManagementFactory.getPlatformMBeanServer();
+            final var objectName = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(INSTANCE, objectName);
+                LOGGER.info("Registered MBean " + OBJECT_NAME);
+            }
+        } catch (JMException exception) {
+            LOGGER.warning(String.format("Cannot register MBean %s: %s", OBJECT_NAME, exception.getMessage()));
+        }
+    }
+
+    @Override
+    public long getFramesProcessed() {
+        return framesProcessed.sum();
+    }
+
+    @Override
+    public long getFramesDropped() {
+        return framesDropped.sum();
+    }
+
+    @Override
+    public long getDetectionFailures() {
+        return stageFailures.values().stream()
+            .mapToLong(LongAdder::sum)
+            .sum();
+    }
+
+    @Override
+    public double getWarmupMillis() {
+        final var nanos = warmupNanos.get();
+        return nanos < 0 ? -1 : toMillis(nanos);
+    }
+
+    @Override
+    public long getTimeToFirstScoredFrameMillis() {
+        return timeToFirstScoredFrameMillis.get();
+    }
+
+    @Override
+    public double getFrameLatencyP50Millis() {
+        return toMillis(stageLatencies.get(PipelineStage.FRAME).snapshot().p50Nanos());
+    }
+
+    @Override
+    public double getFrameLatencyP99Millis() {
+        return toMillis(stageLatencies.get(PipelineStage.FRAME).snapshot().p99Nanos());
+    }
+
+    @Override
+    public Map<String, Double> getStageLatencyMeanMillis() {
+        return stageLatencyMillis(LatencyHistogram.LatencySnapshot::meanNanos);
+    }
+
+    @Override
+    public Map<String, Double> getStageLatencyP99Millis() {
+        return stageLatencyMillis(LatencyHistogram.LatencySnapshot::p99Nanos);
+    }
+
+    @Override
+    public Map<String, Long> getStageFailures() {
+        final var failures = new LinkedHashMap<String, Long>();
+        stageFailures.forEach((stage, adder) -> failures.put(stage.name(), adder.sum()));
+        return failures;
+    }
+
+    @Override
+    public void reset() {
+        stageLatencies.values().forEach(LatencyHistogram::reset);
+        stageFailures.values().forEach(LongAdder::reset);
+        framesProcessed.reset();
+        framesDropped.reset();
+    }
+
+    private Map<String, Double> stageLatencyMillis(
+        final ToLongFunction<LatencyHistogram.LatencySnapshot> extractor) {
+        final var latencies = new LinkedHashMap<String, Double>();
+        stageLatencies.forEach((stage, histogram) ->
+            latencies.put(stage.name(), toMillis(extractor.applyAsLong(histogram.snapshot()))));
+        return latencies;
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1_000_000d;
+    }
+
+    public record MetricsSnapshot(
+        long framesProcessed,
+        long framesDropped,
+        double warmupMillis,
+        long timeToFirstScoredFrameMillis,
+        Map<PipelineStage, LatencyHistogram.LatencySnapshot> stageLatencies,
+        Map<PipelineStage, Long> stageFailures
+    ) {}
+}
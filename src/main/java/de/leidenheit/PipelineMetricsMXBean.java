@@ -0,0 +1,37 @@
+package de.leidenheit;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link PipelineMetrics}, registered as de.leidenheit:type=PipelineMetrics.
+ */
+public interface PipelineMetricsMXBean {
+
+    long getFramesProcessed();
+
+    long getFramesDropped();
+
+    long getDetectionFailures();
+
+    /**
+     * @return duration of the startup warm-up or -1 if none ran
+     */
+    double getWarmupMillis();
+
+    /**
+     * @return milliseconds from JVM start to the first scored frame or -1 if none was scored yet
+     */
+    long getTimeToFirstScoredFrameMillis();
+
+    double getFrameLatencyP50Millis();
+
+    double getFrameLatencyP99Millis();
+
+    Map<String, Double> getStageLatencyMeanMillis();
+
+    Map<String, Double> getStageLatencyP99Millis();
+
+    Map<String, Long> getStageFailures();
+
+    void reset();
+}
@@ -0,0 +1,19 @@
+package de.leidenheit;
+
+/**
+ * Stages of the board detection pipeline whose latencies are recorded.
+ */
+public enum PipelineStage {
+    DECODE,
+    UNDISTORT,
+    ARUCO,
+    CONTOURS,
+    ELLIPSE_FIT,
+    HOUGH,
+    RINGS,
+    POLAR,
+    SCORING,
+    FRAME,
+    CHESSBOARD_CORNERS,
+    CALIBRATION
+}
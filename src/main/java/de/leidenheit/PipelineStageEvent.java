@@ -0,0 +1,73 @@
+package de.leidenheit;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import org.opencv.core.Mat;
+
+/**
+ * JFR event spanning a stage of the detection or calibration flow.
+ */
+@Name("de.leidenheit.PipelineStage")
+@Label("Pipeline Stage")
+@Category({"Hello OpenCV", "Pipeline"})
+@Description("Stage of the detection or calibration flow")
+@StackTrace(false)
+public final class PipelineStageEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Frame Id")
+    long frameId;
+
+    @Label("Image Width")
+    int imageWidth;
+
+    @Label("Image Height")
+    int imageHeight;
+
+    @Label("Contour Count")
+    int contourCount;
+
+    @Label("Marker Count")
+    int markerCount;
+
+    /**
+     * Creates and begins an event for the frame of the current thread.
+     *
+     * @param stage {@link PipelineStage}
+     * @return {@link PipelineStageEvent}
+     */
+    public static PipelineStageEvent begin(final PipelineStage stage) {
+        final var event = new PipelineStageEvent();
+        event.begin();
+        event.stage = stage.name();
+        event.frameId = FrameTrace.currentFrameId();
+        return event;
+    }
+
+    /**
+     * Ends and commits the event if it is enabled.
+     *
+     * @param image processed {@link Mat} or null
+     * @param contourCount number of contours or -1
+     * @param markerCount number of markers or -1
+     */
+    public void complete(final Mat image, final int contourCount, final int markerCount) {
+        end();
+        if (shouldCommit()) {
+            if (image != null) {
+                imageWidth = image.width();
+                imageHeight = image.height();
+            }
+            this.contourCount = contourCount;
+            this.markerCount = markerCount;
+            commit();
+        }
+    }
+}
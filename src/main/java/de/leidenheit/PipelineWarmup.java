@@ -0,0 +1,80 @@
+package de.leidenheit;
+
+import org.opencv.aruco.Aruco;
+import org.opencv.core.Point;
+
+import java.util.logging.Logger;
+
+/**
+ * Runs the detection stages on a synthetic board frame before the first real frame,
+ * so JIT compilation and the lazy initialization of OpenCV kernels and thread pools
+ * do not hit the first scored frame. Latencies recorded during the warm-up are
+ * discarded from {@link PipelineMetrics}; only the warm-up duration is kept.
+ * A warm-up whose frames never reach the contour stage is reported once as incomplete.
+ */
+public final class PipelineWarmup {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelineWarmup.class.getSimpleName());
+    private static final int FRAME_SIZE = 1080;
+
+    /**
+     * Runs the warm-up.
+     *
+     * @param iterations number of passes over the synthetic frame; 0 disables the warm-up
+     */
+    public static void run(final int iterations) {
+        if (iterations <= 0) {
+            return;
+        }
+        final var start = System.nanoTime();
+        final var metrics = PipelineMetrics.getInstance();
+        final var frameSource = new SyntheticFrameSource(
+            FRAME_SIZE, iterations, 0, 0, new Point(FRAME_SIZE / 2d, FRAME_SIZE / 2d), Integer.MAX_VALUE);
+        final var contourParameter = ContourParameter.defaultParameter();
+        final var circleParameter = CircleParameter.defaultParameter();
+        var contourIterations = 0;
+        var ellipseIterations = 0;
+        Frame frame;
+        while ((frame = frameSource.next()) != null) {
+            final var roiImage = DetectionUtil.extractArucoROI(
+                frame.image(),
+                Aruco.DICT_6X6_250,
+                BoardAnalyzer.ROI_SIZE,
+                BoardAnalyzer.ROI_SIZE,
+                true,
+                false,
+                false);
+            if (roiImage == null) {
+                continue;
+            }
+            contourIterations++;
+            try (final var frameContext = new FrameContext(roiImage)) {
+                final var boardEllipse = BoardAnalyzer.findBoardEllipse(frameContext, contourParameter);
+                if (boardEllipse != null) {
+                    ellipseIterations++;
+                    DetectionUtil.determineDartboardSectorLimits(roiImage, boardEllipse, false);
+                    DetectionUtil.drawPolarCoordinateSystem(roiImage.clone(), boardEllipse, false);
+                    PolarUnwrapEngine.analyze(frameContext, boardEllipse, PolarUnwrapParameter.defaultParameter());
+                    RingExtractor.extract(frameContext, boardEllipse, RingParameter.defaultParameter());
+                }
+                CircleDetector.detectRing(frameContext, DartboardRadianFactor.BULL, circleParameter);
+            }
+        }
+        metrics.reset();
+        metrics.recordWarmup(start);
+        if (contourIterations == 0) {
+            LOGGER.warning(String.format(
+                "Warm-up incomplete: no aruco roi in %s synthetic frames; detection stages are cold", iterations));
+            return;
+        }
+        if (ellipseIterations == 0) {
+            LOGGER.warning("Warm-up incomplete: no board ellipse in the synthetic frames; ring stages are cold");
+        }
+        LOGGER.info(String.format("Warm-up of %s iterations finished in %.1f ms (%s with roi, %s with ellipse)",
+            iterations, (System.nanoTime() - start) / 1_000_000d, contourIterations, ellipseIterations));
+    }
+
+    private PipelineWarmup() {
+        // hide constructor
+    }
+}
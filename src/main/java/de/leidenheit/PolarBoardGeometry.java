@@ -0,0 +1,104 @@
+package de.leidenheit;
+
+import org.opencv.core.Point;
+
+/**
+ * Board geometry measured in the polar unwrap of a ROI, see {@link PolarUnwrapEngine}.
+ * Angles are in degrees, counter-clockwise from the positive x axis like the ranges of
+ * {@link PolarCoordinateValueAngleRange}.
+ *
+ * @param center center of the unwrap in ROI coordinates
+ * @param boardWidth width of the board ellipse the {@link DartboardRadianFactor}s refer to
+ * @param ringRadii radius per {@link BoardRings.RingType} ordinal; NaN if the ring edge was not found
+ * @param wireAngles ascending angles of the 20 sector wires
+ * @param rotation offset of the wire pattern from the nominal wires at 9 + k * 18 degrees in (-9, 9]
+ */
+public record PolarBoardGeometry(
+    Point center,
+    double boardWidth,
+    double[] ringRadii,
+    double[] wireAngles,
+    double rotation
+) {
+
+    static final int SECTORS = 20;
+    static final double SECTOR_DEGREES = 360d / SECTORS;
+
+    /**
+     * @param type {@link BoardRings.RingType}
+     * @return measured radius or NaN
+     */
+    public double ringRadius(final BoardRings.RingType type) {
+        return ringRadii[type.ordinal()];
+    }
+
+    /**
+     * Measured radii; rings that were not found fall back to the {@link DartboardRadianFactor}
+     * of the board width like {@link DetectionUtil#determineDartboardSectorLimits}. If the radii
+     * do not grow from the bullseye to the outer double, all rings fall back to the factors.
+     *
+     * @return {@link DartboardSectorLimits}
+     */
+    public DartboardSectorLimits sectorLimits() {
+        final var types = BoardRings.RingType.values();
+        final var radii = new int[types.length];
+        var monotonic = true;
+        for (int i = types.length - 1; i >= 0; i--) {
+            radii[i] = radius(types[i]);
+            monotonic &= i == types.length - 1 ? radii[i] > 0 : radii[i] > radii[i + 1];
+        }
+        if (!monotonic) {
+            for (int i = 0; i < types.length; i++) {
+                radii[i] = factorRadius(types[i]);
+            }
+        }
+        return new DartboardSectorLimits(
+            radii[BoardRings.RingType.BULLSEYE.ordinal()],
+            radii[BoardRings.RingType.BULL.ordinal()],
+            radii[BoardRings.RingType.INNER_TRIPLE.ordinal()],
+            radii[BoardRings.RingType.OUTER_TRIPLE.ordinal()],
+            radii[BoardRings.RingType.INNER_DOUBLE.ordinal()],
+            radii[BoardRings.RingType.OUTER_DOUBLE.ordinal()]);
+    }
+
+    /**
+     * Maps a measured angle onto the nominal board: the angle is located between its two
+     * measured wires and interpolated between their nominal angles, so uneven sectors
+     * and a rotated board are corrected.
+     *
+     * @param angle angle in degrees relative to {@link #center()}
+     * @return angle in [0, 360) for {@link PolarCoordinateValueAngleRange#findValueByAngle}
+     */
+    public double normalizedAngle(final double angle) {
+        final var wrapped = wrap(angle);
+        for (int i = 0; i < wireAngles.length; i++) {
+            final var from = wireAngles[i];
+            final var to = wireAngles[(i + 1) % wireAngles.length];
+            final var span = wrap(to - from);
+            final var offset = wrap(wrapped - from);
+            if (span > 0 && offset < span) {
+                return wrap(nominalWire(from) + SECTOR_DEGREES * offset / span);
+            }
+        }
+        return wrap(wrapped - rotation);
+    }
+
+    private double nominalWire(final double wireAngle) {
+        final var sector = Math.round((wireAngle - rotation - SECTOR_DEGREES / 2) / SECTOR_DEGREES);
+        return SECTOR_DEGREES / 2 + sector * SECTOR_DEGREES;
+    }
+
+    private int radius(final BoardRings.RingType type) {
+        final var radius = ringRadius(type);
+        return Double.isNaN(radius) ? factorRadius(type) : (int) radius;
+    }
+
+    private int factorRadius(final BoardRings.RingType type) {
+        return (int) (boardWidth * (type.factor() / 100));
+    }
+
+    static double wrap(final double angle) {
+        final var wrapped = angle % 360;
+        return wrapped < 0 ? wrapped + 360 : wrapped;
+    }
+}
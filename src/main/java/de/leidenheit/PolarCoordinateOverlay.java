@@ -0,0 +1,88 @@
+package de.leidenheit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.Scalar;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Cache of the rendered polar coordinate system of a dartboard. The sector lines and
+ * value labels only depend on the board {@link RotatedRect} and are rendered once per
+ * geometry into a colour layer and a mask; frames receive them with a single masked copy.
+ * Geometries differing by less than {@link #GEOMETRY_TOLERANCE} pixels (degrees for the
+ * angle) reuse the cached layer. Layers are never modified after rendering, so the cache
+ * can be shared between threads.
+ */
+public final class PolarCoordinateOverlay {
+
+    private static final Logger LOGGER = Logger.getLogger(PolarCoordinateOverlay.class.getSimpleName());
+    private static final double GEOMETRY_TOLERANCE = 0.5;
+
+    private static final PolarCoordinateOverlay INSTANCE = new PolarCoordinateOverlay();
+
+    private final AtomicReference<Layer> cachedLayer = new AtomicReference<>();
+
+    public static PolarCoordinateOverlay getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Composites the polar coordinate system of the given board geometry onto an image.
+     *
+     * @param image {@link Mat} to draw on
+     * @param rotatedRectEllipse {@link RotatedRect} of the board
+     */
+    public void apply(final Mat image, final RotatedRect rotatedRectEllipse) {
+        var layer = cachedLayer.get();
+        if (layer == null || !layer.matches(image, rotatedRectEllipse)) {
+            layer = Layer.render(image, rotatedRectEllipse);
+            cachedLayer.set(layer);
+        }
+        layer.color().copyTo(image, layer.mask());
+    }
+
+    private record Layer(
+        int width,
+        int height,
+        int type,
+        RotatedRect rotatedRectEllipse,
+        Mat color,
+        Mat mask
+    ) {
+
+        static Layer render(final Mat image, final RotatedRect rotatedRectEllipse) {
+            LOGGER.fine(() -> String.format("Rendering polar coordinate layer for %s", rotatedRectEllipse));
+            final var color = Mat.zeros(image.size(), image.type());
+            DetectionUtil.drawPolarCoordinateGrid(
+                color, rotatedRectEllipse, DetectionUtil.POLAR_COORDINATE_COLOR, false);
+            final var mask = Mat.zeros(image.size(), CvType.CV_8UC1);
+            DetectionUtil.drawPolarCoordinateGrid(
+                mask, rotatedRectEllipse, new Scalar(255), false);
+            return new Layer(
+                image.width(),
+                image.height(),
+                image.type(),
+                rotatedRectEllipse.clone(),
+                color,
+                mask);
+        }
+
+        boolean matches(final Mat image, final RotatedRect other) {
+            return width == image.width()
+                && height == image.height()
+                && type == image.type()
+                && Math.abs(rotatedRectEllipse.center.x - other.center.x) < GEOMETRY_TOLERANCE
+                && Math.abs(rotatedRectEllipse.center.y - other.center.y) < GEOMETRY_TOLERANCE
+                && Math.abs(rotatedRectEllipse.size.width - other.size.width) < GEOMETRY_TOLERANCE
+                && Math.abs(rotatedRectEllipse.size.height - other.size.height) < GEOMETRY_TOLERANCE
+                && Math.abs(rotatedRectEllipse.angle - other.angle) < GEOMETRY_TOLERANCE;
+        }
+    }
+
+    private PolarCoordinateOverlay() {
+        // hide constructor
+    }
+}
@@ -0,0 +1,237 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.RotatedRect;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Measures ring radii and sector wires of a board in a polar unwrap of its ROI. The blurred
+ * gray ROI is unwrapped around the board center with {@link Imgproc#warpPolar} into an image
+ * whose rows are angles and whose columns are radii; the ROI is rectified by the ArUco
+ * homography, so the board is close to a circle. All measurements are 1-D:
+ *  - radial profile: absolute radial gradient summed over all angles; each ring edge is the
+ *    strongest peak near its {@link DartboardRadianFactor} radius
+ *  - angular profile: absolute angular gradient summed over the outer single field; the wire
+ *    phase is the maximum of the profile folded by the sector angle and every wire is refined
+ *    around it
+ */
+public final class PolarUnwrapEngine {
+
+    private static final Logger LOGGER = Logger.getLogger(PolarUnwrapEngine.class.getSimpleName());
+
+    /**
+     * Measures the board geometry in a given ROI {@link Mat}.
+     *
+     * @param roi {@link Mat} BGR or gray ROI
+     * @param boardEllipse {@link RotatedRect} of the board, e.g. of {@link BoardAnalyzer#findBoardEllipse}
+     * @param parameter {@link PolarUnwrapParameter}
+     * @return {@link PolarBoardGeometry}
+     */
+    public static PolarBoardGeometry analyze(
+        final Mat roi,
+        final RotatedRect boardEllipse,
+        final PolarUnwrapParameter parameter) {
+        try (final var frameContext = new FrameContext(roi)) {
+            return analyze(frameContext, boardEllipse, parameter);
+        }
+    }
+
+    /**
+     * Measures the board geometry in the ROI of a given {@link FrameContext}.
+     *
+     * @param frameContext {@link FrameContext} of the ROI
+     * @param boardEllipse {@link RotatedRect} of the board
+     * @param parameter {@link PolarUnwrapParameter}
+     * @return {@link PolarBoardGeometry}
+     */
+    public static PolarBoardGeometry analyze(
+        final FrameContext frameContext,
+        final RotatedRect boardEllipse,
+        final PolarUnwrapParameter parameter) {
+
+        final var start = System.nanoTime();
+        final var polarEvent = PipelineStageEvent.begin(PipelineStage.POLAR);
+        final var boardWidth = BoardRings.width(boardEllipse);
+        final var maxRadius = boardWidth * (DartboardRadianFactor.QUADRANT_OUTER_DOUBLE / 100) * parameter.radialMargin();
+        final var radialBins = Math.max(1, (int) Math.ceil(maxRadius));
+        final var angularBins = PolarBoardGeometry.SECTORS * parameter.sectorBins();
+
+        final var polar = new Mat();
+        final var warpPolarCall = NativeCallEvent.begin("Imgproc.warpPolar");
+        Imgproc.warpPolar(
+            frameContext.blurred(parameter.gaussFactor(), 1),
+            polar,
+            new Size(radialBins, angularBins),
+            boardEllipse.center,
+            maxRadius,
+            Imgproc.INTER_LINEAR + Imgproc.WARP_FILL_OUTLIERS + Imgproc.WARP_POLAR_LINEAR);
+        warpPolarCall.complete();
+        final var pixels = new byte[radialBins * angularBins];
+        polar.get(0, 0, pixels);
+        polar.release();
+
+        final var pixelsPerBin = maxRadius / radialBins;
+        final var ringRadii = ringRadii(pixels, radialBins, angularBins, boardWidth / pixelsPerBin, parameter);
+        for (int i = 0; i < ringRadii.length; i++) {
+            ringRadii[i] *= pixelsPerBin;
+        }
+        final var wires = wireAngles(pixels, radialBins, angularBins, boardWidth / pixelsPerBin, parameter);
+        final var geometry = new PolarBoardGeometry(
+            boardEllipse.center,
+            boardWidth,
+            ringRadii,
+            wires.angles(),
+            wires.rotation());
+
+        final var ringsFound = (int) Arrays.stream(ringRadii).filter(radius -> !Double.isNaN(radius)).count();
+        DiagnosticRing.getInstance().record("polar.unwrap", ringsFound, wires.rotation(), radialBins);
+        LOGGER.fine(() -> String.format("Polar unwrap found %s rings; wire rotation=%.2f degrees",
+            ringsFound, wires.rotation()));
+        polarEvent.complete(frameContext.image(), ringsFound, -1);
+        final var metrics = PipelineMetrics.getInstance();
+        metrics.recordStage(PipelineStage.POLAR, start);
+        if (ringsFound < ringRadii.length) {
+            metrics.recordDetectionFailure(PipelineStage.POLAR);
+        }
+        return geometry;
+    }
+
+    /**
+     * @return radius in bins per {@link BoardRings.RingType} ordinal or NaN
+     */
+    private static double[] ringRadii(
+        final byte[] pixels,
+        final int radialBins,
+        final int angularBins,
+        final double boardWidthBins,
+        final PolarUnwrapParameter parameter) {
+
+        final var profile = new double[radialBins];
+        for (int row = 0; row < angularBins; row++) {
+            final var offset = row * radialBins;
+            for (int column = 1; column < radialBins - 1; column++) {
+                profile[column] += Math.abs((pixels[offset + column + 1] & 0xFF) - (pixels[offset + column - 1] & 0xFF));
+            }
+        }
+        final var sorted = profile.clone();
+        Arrays.sort(sorted);
+        final var minPeak = sorted[sorted.length / 2] * parameter.minPeakRatio();
+
+        final var types = BoardRings.RingType.values();
+        final var radii = new double[types.length];
+        for (int i = 0; i < types.length; i++) {
+            final var expected = boardWidthBins * (types[i].factor() / 100);
+            // rings are ordered from the outside in; the bullseye is bounded by the center
+            final var inner = i < types.length - 1 ? boardWidthBins * (types[i + 1].factor() / 100) : 0;
+            final var outer = i > 0 ? boardWidthBins * (types[i - 1].factor() / 100) : 2 * expected - inner;
+            final var window = parameter.ringSearchShare() * Math.min(outer - expected, expected - inner);
+            radii[i] = peak(profile, expected - window, expected + window, minPeak, false);
+        }
+        return radii;
+    }
+
+    private static Wires wireAngles(
+        final byte[] pixels,
+        final int radialBins,
+        final int angularBins,
+        final double boardWidthBins,
+        final PolarUnwrapParameter parameter) {
+
+        // outer single field with a margin to the triple and double wires
+        final var tripleRadius = boardWidthBins * (DartboardRadianFactor.QUADRANT_OUTER_TRIPLE / 100);
+        final var doubleRadius = boardWidthBins * (DartboardRadianFactor.QUADRANT_INNER_DOUBLE / 100);
+        final var margin = (doubleRadius - tripleRadius) * 0.1;
+        final var from = Math.max(0, (int) Math.ceil(tripleRadius + margin));
+        final var to = Math.min(radialBins, (int) Math.floor(doubleRadius - margin));
+
+        final var profile = new double[angularBins];
+        for (int row = 0; row < angularBins; row++) {
+            final var previous = ((row - 1 + angularBins) % angularBins) * radialBins;
+            final var next = ((row + 1) % angularBins) * radialBins;
+            for (int column = from; column < to; column++) {
+                profile[row] += Math.abs((pixels[next + column] & 0xFF) - (pixels[previous + column] & 0xFF));
+            }
+        }
+
+        final var sectorBins = parameter.sectorBins();
+        final var folded = new double[sectorBins];
+        for (int row = 0; row < angularBins; row++) {
+            folded[row % sectorBins] += profile[row];
+        }
+        var phase = 0;
+        for (int bin = 1; bin < sectorBins; bin++) {
+            if (folded[bin] > folded[phase]) {
+                phase = bin;
+            }
+        }
+
+        final var degreesPerBin = 360d / angularBins;
+        final var window = parameter.wireSearchDegrees() / degreesPerBin;
+        final var angles = new double[PolarBoardGeometry.SECTORS];
+        for (int sector = 0; sector < angles.length; sector++) {
+            final var expected = phase + sector * sectorBins;
+            final var bin = peak(profile, expected - window, expected + window, 0, true);
+            // rows run clockwise in image coordinates
+            angles[sector] = PolarBoardGeometry.wrap(-(Double.isNaN(bin) ? expected : bin) * degreesPerBin);
+        }
+        Arrays.sort(angles);
+        final var offset = PolarBoardGeometry.wrap(-phase * degreesPerBin - PolarBoardGeometry.SECTOR_DEGREES / 2)
+            % PolarBoardGeometry.SECTOR_DEGREES;
+        final var rotation = offset > PolarBoardGeometry.SECTOR_DEGREES / 2
+            ? offset - PolarBoardGeometry.SECTOR_DEGREES
+            : offset;
+        return new Wires(angles, rotation);
+    }
+
+    /**
+     * Finds the maximum of a profile within [from, to] with parabolic sub-bin refinement.
+     * A maximum on the border of the window that still rises beyond it is not a peak.
+     *
+     * @param circular true if indices wrap around, e.g. for angles
+     * @return position in bins or NaN if there is no local maximum above the minimum
+     */
+    static double peak(
+        final double[] profile,
+        final double from,
+        final double to,
+        final double minPeak,
+        final boolean circular) {
+
+        final var length = profile.length;
+        var best = Integer.MIN_VALUE;
+        for (int bin = (int) Math.ceil(from); bin <= (int) Math.floor(to); bin++) {
+            if (!circular && (bin < 1 || bin >= length - 1)) {
+                continue;
+            }
+            if (best == Integer.MIN_VALUE
+                || profile[Math.floorMod(bin, length)] > profile[Math.floorMod(best, length)]) {
+                best = bin;
+            }
+        }
+        if (best == Integer.MIN_VALUE || profile[Math.floorMod(best, length)] <= minPeak) {
+            return Double.NaN;
+        }
+        final var left = profile[Math.floorMod(best - 1, length)];
+        final var center = profile[Math.floorMod(best, length)];
+        final var right = profile[Math.floorMod(best + 1, length)];
+        if (left > center || right > center) {
+            return Double.NaN;
+        }
+        final var curvature = left - 2 * center + right;
+        if (curvature >= 0) {
+            return best;
+        }
+        // the vertex of a parabola through a local maximum lies within half a bin
+        return best + Math.max(-0.5, Math.min(0.5, 0.5 * (left - right) / curvature));
+    }
+
+    private record Wires(double[] angles, double rotation) {}
+
+    private PolarUnwrapEngine() {
+        // hide constructor
+    }
+}
@@ -0,0 +1,32 @@
+package de.leidenheit;
+
+public record PolarUnwrapParameter(
+    double gaussFactor,         // 5
+    int sectorBins,             // 36
+    double radialMargin,        // 1.15
+    double ringSearchShare,     // 0.45
+    double minPeakRatio,        // 1.5
+    double wireSearchDegrees    // 3
+) {
+
+    /**
+     * Instantiates a {@link PolarUnwrapParameter} with the following parameters:
+     *  - gauss = 5
+     *  - 36 angular bins per sector, i.e. 0.5 degrees over the 20 sectors
+     *  - the unwrapped radius reaches 15% beyond the outer double
+     *  - a ring is searched within 45% of the distance to its neighbouring rings
+     *  - a ring edge must be 1.5 times stronger than the median radial gradient
+     *  - a wire is searched within 3 degrees of the periodic wire pattern
+     *
+     * @return Returns an instance of {@link PolarUnwrapParameter} with default parameters
+     */
+    public static PolarUnwrapParameter defaultParameter() {
+        return new PolarUnwrapParameter(
+            5,
+            36,
+            1.15,
+            0.45,
+            1.5,
+            3);
+    }
+}
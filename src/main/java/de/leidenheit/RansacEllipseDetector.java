@@ -0,0 +1,380 @@
+package de.leidenheit;
+
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Point;
+import org.opencv.core.RotatedRect;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Finds the board outline by fitting ellipses directly to canny edge points with RANSAC,
+ * without contour tracing, morphology or polygon approximation. Each iteration solves
+ * the conic through five random points and counts the edge points within
+ * {@link EllipseRansacParameter#inlierDistance()} (Sampson distance); a candidate qualifies
+ * once the inliers cover {@link EllipseRansacParameter#targetCoverage()} of its circumference.
+ * The rings inside the board qualify as well, so the largest qualifying candidate wins and is
+ * refined by {@link Imgproc#fitEllipse} on its inliers. Without a seed the five points are drawn from the outermost edge pixel
+ * on rays from the ROI center, which mostly lie on the board outline; among all edge
+ * points the outline is too rare to be hit by five random draws. The ellipse of the
+ * previous frame seeds the next search: only edge points near it are sampled, so a
+ * static board is confirmed within a few iterations: the first qualifying candidate ends the search.
+ * Holds the seed of one stream, therefore not thread-safe.
+ */
+public final class RansacEllipseDetector {
+
+    private static final Logger LOGGER = Logger.getLogger(RansacEllipseDetector.class.getSimpleName());
+    private static final int SAMPLE_SIZE = 5;
+    private static final double CONFIDENCE = 0.99;
+    private static final int BOUNDARY_RAYS = 360;
+
+    private final EllipseRansacParameter parameter;
+    private RotatedRect seed;
+
+    public RansacEllipseDetector(final EllipseRansacParameter parameter) {
+        this.parameter = parameter;
+    }
+
+    /**
+     * Detects the board ellipse in the ROI of a given {@link FrameContext}. A seeded search
+     * that fails is repeated on all edge points.
+     *
+     * @param frameContext {@link FrameContext} of the ROI
+     * @return {@link RotatedRect} like {@link Imgproc#fitEllipse} or null if no candidate reached the coverage
+     */
+    public RotatedRect detect(final FrameContext frameContext) {
+        final var start = System.nanoTime();
+        final var ellipseEvent = PipelineStageEvent.begin(PipelineStage.ELLIPSE_FIT);
+        final var edges = frameContext.edges(
+            parameter.gaussFactor(), 1, parameter.cannyThresholdLow(), parameter.cannyThresholdHigh());
+        final var width = edges.width();
+        final var height = edges.height();
+        final var pixels = new byte[width * height];
+        edges.get(0, 0, pixels);
+
+        var ellipse = seed != null ? search(pixels, width, height, seed) : null;
+        if (ellipse == null) {
+            ellipse = search(pixels, width, height, null);
+        }
+        seed = ellipse;
+        ellipseEvent.complete(frameContext.image(), -1, -1);
+        final var metrics = PipelineMetrics.getInstance();
+        metrics.recordStage(PipelineStage.ELLIPSE_FIT, start);
+        if (ellipse == null) {
+            metrics.recordDetectionFailure(PipelineStage.ELLIPSE_FIT);
+        }
+        return ellipse;
+    }
+
+    /**
+     * @param seed ellipse of the previous frame; the next search starts without it
+     */
+    public void seed(final RotatedRect seed) {
+        this.seed = seed;
+    }
+
+    private RotatedRect search(final byte[] pixels, final int width, final int height, final RotatedRect seedEllipse) {
+        final var edgePoints = edgePoints(pixels, width, height, seedEllipse);
+        final var points = edgePoints.coordinates();
+        final var count = points.length / 2;
+        final var roiSide = Math.min(width, height);
+        final var samplePoints = seedEllipse != null ? points : outermostPoints(pixels, width, height, roiSide);
+        final var sampleCount = samplePoints.length / 2;
+        if (count < SAMPLE_SIZE || sampleCount < SAMPLE_SIZE) {
+            return null;
+        }
+        // normalize around the ROI center for a well conditioned conic solve
+        final var scale = Math.max(width, height) / 2d;
+        final var normalized = normalize(points, width, height, scale);
+        final var normalizedSamples = seedEllipse != null ? normalized : normalize(samplePoints, width, height, scale);
+
+        final var minSemiAxis = roiSide * parameter.minSemiAxisFactor() / scale;
+        final var maxSemiAxis = roiSide * parameter.maxSemiAxisFactor() / scale;
+        final var inlierDistance = parameter.inlierDistance() / scale;
+        final var random = new Random(parameter.randomSeed());
+        final var conic = new double[6];
+        final var ellipse = new double[4];
+        final var sample = new int[SAMPLE_SIZE];
+        double[] bestConic = null;
+        var bestInliers = 0;
+        var bestArea = 0d;
+        var bestCoverage = 0d;
+        var mostInliers = 0;
+        var iterations = parameter.maxIterations();
+        var iteration = 0;
+        for (; iteration < iterations; iteration++) {
+            drawSample(random, sampleCount, sample);
+            if (!solveConic(normalizedSamples, sample, conic) || !toEllipse(conic, ellipse)) {
+                continue;
+            }
+            final var minor = Math.min(ellipse[2], ellipse[3]);
+            final var major = Math.max(ellipse[2], ellipse[3]);
+            if (minor < minSemiAxis || major > maxSemiAxis || minor / major < parameter.minAxisRatio()) {
+                continue;
+            }
+            final var inliers = countInliers(normalized, count, conic, inlierDistance);
+            // every sampled point stands for stride edge pixels along the circumference
+            final var coverage = Math.min(1d,
+                (double) inliers * edgePoints.stride() / (perimeter(ellipse[2], ellipse[3]) * scale));
+            // the rings inside the board are covered as well; the outline is the largest covered ellipse
+            final var area = ellipse[2] * ellipse[3];
+            if (coverage >= parameter.targetCoverage() && area > bestArea) {
+                bestArea = area;
+                bestInliers = inliers;
+                bestConic = conic.clone();
+                bestCoverage = coverage;
+                if (seedEllipse != null) {
+                    // the annulus around the seed holds the outline only
+                    iteration++;
+                    break;
+                }
+            } else if (bestConic == null) {
+                bestCoverage = Math.max(bestCoverage, coverage);
+            }
+            if (inliers <= mostInliers) {
+                continue;
+            }
+            mostInliers = inliers;
+            // adaptive number of iterations for the inlier share of the sampled points seen so far
+            final var inlierShare = normalizedSamples == normalized
+                ? (double) inliers / count
+                : (double) countInliers(normalizedSamples, sampleCount, conic, inlierDistance) / sampleCount;
+            final var required = Math.log(1 - CONFIDENCE) / Math.log(1 - Math.pow(inlierShare, SAMPLE_SIZE));
+            if (required > 0 && required < iterations) {
+                iterations = Math.max(iteration + 1, (int) Math.ceil(required));
+            }
+        }
+        final var usedIterations = iteration;
+        final var coverage = bestCoverage;
+        DiagnosticRing.getInstance().record("ellipse.ransac", usedIterations, coverage, count);
+        LOGGER.fine(() -> String.format("RANSAC ellipse (seeded=%s): %s edge points; %s iterations; coverage=%.2f",
+            seedEllipse != null, count, usedIterations, coverage));
+        if (bestConic == null || bestCoverage < parameter.targetCoverage()) {
+            return null;
+        }
+
+        // least squares refinement on the inliers in image coordinates
+        final var inlierPoints = new Point[bestInliers];
+        var index = 0;
+        for (int i = 0; i < count && index < inlierPoints.length; i++) {
+            if (sampsonDistance(bestConic, normalized[2 * i], normalized[2 * i + 1]) <= inlierDistance) {
+                inlierPoints[index++] = new Point(points[2 * i], points[2 * i + 1]);
+            }
+        }
+        return Imgproc.fitEllipse(new MatOfPoint2f(inlierPoints));
+    }
+
+    /**
+     * Collects edge pixel coordinates, restricted to the annulus around the seed if given
+     * and thinned by a stride to at most {@link EllipseRansacParameter#maxEdgePoints()}.
+     *
+     * @return packed (x, y) coordinates and the stride they were thinned by
+     */
+    private EdgePoints edgePoints(final byte[] pixels, final int width, final int height, final RotatedRect seedEllipse) {
+        var total = 0;
+        final var inAnnulus = new boolean[seedEllipse != null ? pixels.length : 0];
+        for (int i = 0; i < pixels.length; i++) {
+            if (pixels[i] == 0) {
+                continue;
+            }
+            if (seedEllipse != null) {
+                if (!nearSeed(seedEllipse, i % width, i / width)) {
+                    continue;
+                }
+                inAnnulus[i] = true;
+            }
+            total++;
+        }
+        final var stride = Math.max(1, (int) Math.ceil((double) total / parameter.maxEdgePoints()));
+        final var points = new int[2 * (total / stride)];
+        var seen = 0;
+        var index = 0;
+        for (int i = 0; i < pixels.length && index < points.length; i++) {
+            if (pixels[i] == 0 || (seedEllipse != null && !inAnnulus[i])) {
+                continue;
+            }
+            if (seen++ % stride == 0) {
+                points[index++] = i % width;
+                points[index++] = i / width;
+            }
+        }
+        return new EdgePoints(index == points.length ? points : Arrays.copyOf(points, index), stride);
+    }
+
+    /**
+     * Collects the outermost edge pixel on {@link #BOUNDARY_RAYS} rays from the ROI center
+     * between the smallest minor and the largest major semi-axis.
+     *
+     * @return packed (x, y) coordinates
+     */
+    private int[] outermostPoints(final byte[] pixels, final int width, final int height, final int roiSide) {
+        final var centerX = width / 2d;
+        final var centerY = height / 2d;
+        final var minRadius = roiSide * parameter.minSemiAxisFactor() * parameter.minAxisRatio();
+        final var maxRadius = roiSide * parameter.maxSemiAxisFactor();
+        final var points = new int[2 * BOUNDARY_RAYS];
+        var index = 0;
+        for (int ray = 0; ray < BOUNDARY_RAYS; ray++) {
+            final var angle = 2 * Math.PI * ray / BOUNDARY_RAYS;
+            final var cos = Math.cos(angle);
+            final var sin = Math.sin(angle);
+            // half pixel steps, so an 8-connected edge is not stepped over diagonally
+            for (var radius = maxRadius; radius >= minRadius; radius -= 0.5) {
+                final var x = (int) Math.round(centerX + radius * cos);
+                final var y = (int) Math.round(centerY + radius * sin);
+                if (x >= 0 && y >= 0 && x < width && y < height && pixels[y * width + x] != 0) {
+                    points[index++] = x;
+                    points[index++] = y;
+                    break;
+                }
+            }
+        }
+        return index == points.length ? points : Arrays.copyOf(points, index);
+    }
+
+    private static double[] normalize(final int[] points, final int width, final int height, final double scale) {
+        final var normalized = new double[points.length];
+        for (int i = 0; i < points.length; i += 2) {
+            normalized[i] = (points[i] - width / 2d) / scale;
+            normalized[i + 1] = (points[i + 1] - height / 2d) / scale;
+        }
+        return normalized;
+    }
+
+    private boolean nearSeed(final RotatedRect seedEllipse, final int x, final int y) {
+        final var angle = Math.toRadians(seedEllipse.angle);
+        final var dx = x - seedEllipse.center.x;
+        final var dy = y - seedEllipse.center.y;
+        final var u = (dx * Math.cos(angle) + dy * Math.sin(angle)) / (seedEllipse.size.width / 2);
+        final var v = (-dx * Math.sin(angle) + dy * Math.cos(angle)) / (seedEllipse.size.height / 2);
+        final var radius = Math.sqrt(u * u + v * v);
+        return Math.abs(radius - 1) <= parameter.seedMargin();
+    }
+
+    private record EdgePoints(int[] coordinates, int stride) {
+    }
+
+    private static void drawSample(final Random random, final int count, final int[] sample) {
+        for (int i = 0; i < sample.length; i++) {
+            int candidate;
+            boolean duplicate;
+            do {
+                candidate = random.nextInt(count);
+                duplicate = false;
+                for (int j = 0; j < i; j++) {
+                    duplicate |= sample[j] == candidate;
+                }
+            } while (duplicate);
+            sample[i] = candidate;
+        }
+    }
+
+    /**
+     * Solves A x² + B xy + C y² + D x + E y = 1 through five points (F = -1) by gaussian elimination.
+     */
+    private static boolean solveConic(final double[] points, final int[] sample, final double[] conic) {
+        final var system = new double[SAMPLE_SIZE][SAMPLE_SIZE + 1];
+        for (int row = 0; row < SAMPLE_SIZE; row++) {
+            final var x = points[2 * sample[row]];
+            final var y = points[2 * sample[row] + 1];
+            system[row][0] = x * x;
+            system[row][1] = x * y;
+            system[row][2] = y * y;
+            system[row][3] = x;
+            system[row][4] = y;
+            system[row][5] = 1;
+        }
+        for (int column = 0; column < SAMPLE_SIZE; column++) {
+            var pivot = column;
+            for (int row = column + 1; row < SAMPLE_SIZE; row++) {
+                if (Math.abs(system[row][column]) > Math.abs(system[pivot][column])) {
+                    pivot = row;
+                }
+            }
+            if (Math.abs(system[pivot][column]) < 1e-12) {
+                return false;
+            }
+            final var swap = system[column];
+            system[column] = system[pivot];
+            system[pivot] = swap;
+            for (int row = 0; row < SAMPLE_SIZE; row++) {
+                if (row != column) {
+                    final var factor = system[row][column] / system[column][column];
+                    for (int k = column; k <= SAMPLE_SIZE; k++) {
+                        system[row][k] -= factor * system[column][k];
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            conic[i] = system[i][SAMPLE_SIZE] / system[i][i];
+        }
+        conic[5] = -1;
+        return true;
+    }
+
+    /**
+     * Converts a conic into center and semi-axes.
+     *
+     * @param ellipse output center x, center y, semi-axis 1, semi-axis 2
+     * @return false if the conic is no real ellipse
+     */
+    private static boolean toEllipse(final double[] conic, final double[] ellipse) {
+        final var a = conic[0];
+        final var b = conic[1];
+        final var c = conic[2];
+        final var discriminant = 4 * a * c - b * b;
+        if (discriminant <= 0) {
+            return false;
+        }
+        final var centerX = (b * conic[4] - 2 * c * conic[3]) / discriminant;
+        final var centerY = (b * conic[3] - 2 * a * conic[4]) / discriminant;
+        final var centerValue = a * centerX * centerX + b * centerX * centerY + c * centerY * centerY
+            + conic[3] * centerX + conic[4] * centerY + conic[5];
+        final var root = Math.sqrt((a - c) * (a - c) + b * b);
+        final var lambda1 = (a + c + root) / 2;
+        final var lambda2 = (a + c - root) / 2;
+        if (-centerValue / lambda1 <= 0 || -centerValue / lambda2 <= 0) {
+            return false;
+        }
+        ellipse[0] = centerX;
+        ellipse[1] = centerY;
+        ellipse[2] = Math.sqrt(-centerValue / lambda1);
+        ellipse[3] = Math.sqrt(-centerValue / lambda2);
+        return true;
+    }
+
+    private static int countInliers(
+        final double[] points,
+        final int count,
+        final double[] conic,
+        final double inlierDistance) {
+        var inliers = 0;
+        for (int i = 0; i < count; i++) {
+            if (sampsonDistance(conic, points[2 * i], points[2 * i + 1]) <= inlierDistance) {
+                inliers++;
+            }
+        }
+        return inliers;
+    }
+
+    /**
+     * First order approximation of the geometric distance of a point to a conic.
+     */
+    private static double sampsonDistance(final double[] conic, final double x, final double y) {
+        final var value = conic[0] * x * x + conic[1] * x * y + conic[2] * y * y + conic[3] * x + conic[4] * y + conic[5];
+        final var gradientX = 2 * conic[0] * x + conic[1] * y + conic[3];
+        final var gradientY = conic[1] * x + 2 * conic[2] * y + conic[4];
+        return Math.abs(value) / Math.sqrt(gradientX * gradientX + gradientY * gradientY);
+    }
+
+    /**
+     * Ramanujan's approximation of the circumference of an ellipse.
+     */
+    private static double perimeter(final double semiAxis1, final double semiAxis2) {
+        final var h = Math.pow(semiAxis1 - semiAxis2, 2) / Math.pow(semiAxis1 + semiAxis2, 2);
+        return Math.PI * (semiAxis1 + semiAxis2) * (1 + 3 * h / (10 + Math.sqrt(4 - 3 * h)));
+    }
+}
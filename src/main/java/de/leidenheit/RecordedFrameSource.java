@@ -0,0 +1,206 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.imgcodecs.Imgcodecs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import static de.leidenheit.FrameRecorder.*;
+
+/**
+ * Replays a recording of {@link FrameRecorder} with the original frame ids, timestamps
+ * and pixels, so the pipeline produces the same results as in the recorded run.
+ * {@link Pacing#ORIGINAL} reproduces the recorded frame intervals, {@link Pacing#MAX_SPEED}
+ * hands out frames as fast as the pipeline consumes them.
+ */
+public final class RecordedFrameSource implements FrameSource {
+
+    private static final Logger LOGGER = Logger.getLogger(RecordedFrameSource.class.getSimpleName());
+
+    /**
+     * Replay speed.
+     */
+    public enum Pacing {
+        ORIGINAL,
+        MAX_SPEED
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Pacing pacing;
+    private final ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final long[] chunkOffsets;
+    private final long[] chunkTimestamps;
+    private int index;
+    private long replayStartNanos;
+    private long firstTimestampNanos;
+
+    public RecordedFrameSource(final Path file, final Pacing pacing) throws IOException {
+        this.file = file;
+        this.pacing = pacing;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        final var fileHeader = read(0, FILE_HEADER_SIZE);
+        if (fileHeader.getInt() != FILE_MAGIC || fileHeader.getInt() != VERSION) {
+            channel.close();
+            throw new IOException("Not a frame recording of version " + VERSION + ": " + file);
+        }
+        final var index = readIndex();
+        this.chunkOffsets = index[0];
+        this.chunkTimestamps = index[1];
+    }
+
+    public int frameCount() {
+        return chunkOffsets.length;
+    }
+
+    /**
+     * Positions the replay at the first frame at or after a timestamp.
+     *
+     * @param timestampNanos recorded timestamp
+     */
+    public void seek(final long timestampNanos) {
+        final var position = Arrays.binarySearch(chunkTimestamps, timestampNanos);
+        index = position >= 0 ? position : -position - 1;
+        replayStartNanos = 0;
+    }
+
+    @Override
+    public Frame next() {
+        if (index >= chunkOffsets.length) {
+            return null;
+        }
+        final var start = System.nanoTime();
+        try {
+            final var chunk = read(chunkOffsets[index++], CHUNK_HEADER_SIZE);
+            if (chunk.getInt() != CHUNK_MAGIC) {
+                throw new IOException("Corrupt chunk " + (index - 1) + " in " + file);
+            }
+            final var compression = Compression.values()[chunk.getInt()];
+            final var frameId = chunk.getLong();
+            final var timestampNanos = chunk.getLong();
+            final var width = chunk.getInt();
+            final var height = chunk.getInt();
+            final var type = chunk.getInt();
+            final var payload = new byte[chunk.getInt()];
+            readFully(ByteBuffer.wrap(payload), chunkOffsets[index - 1] + CHUNK_HEADER_SIZE);
+
+            final Mat image;
+            if (compression == Compression.PNG) {
+                image = Imgcodecs.imdecode(new MatOfByte(payload), Imgcodecs.IMREAD_UNCHANGED);
+            } else {
+                image = new Mat(height, width, type);
+                image.put(0, 0, payload);
+            }
+            PipelineMetrics.getInstance().recordStage(PipelineStage.DECODE, start);
+            awaitOriginalPacing(timestampNanos);
+            return new Frame(frameId, timestampNanos, image);
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private void awaitOriginalPacing(final long timestampNanos) {
+        if (pacing != Pacing.ORIGINAL) {
+            return;
+        }
+        if (replayStartNanos == 0) {
+            replayStartNanos = System.nanoTime();
+            firstTimestampNanos = timestampNanos;
+            return;
+        }
+        final var dueNanos = replayStartNanos + (timestampNanos - firstTimestampNanos);
+        for (var waitNanos = dueNanos - System.nanoTime(); waitNanos > 0; waitNanos = dueNanos - System.nanoTime()) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    /**
+     * Reads the index of the trailer or rebuilds it from the chunks of an unfinished recording.
+     *
+     * @return chunk offsets and timestamps
+     */
+    private long[][] readIndex() throws IOException {
+        final var size = channel.size();
+        if (size >= FILE_HEADER_SIZE + TRAILER_SIZE) {
+            final var trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+            final var indexOffset = trailer.getLong();
+            final var frameCount = (int) trailer.getLong();
+            if (trailer.getInt() == INDEX_MAGIC
+                && trailer.getInt() == VERSION
+                && indexOffset + (long) frameCount * INDEX_ENTRY_SIZE == size - TRAILER_SIZE) {
+                final var entries = read(indexOffset, frameCount * INDEX_ENTRY_SIZE);
+                final var offsets = new long[frameCount];
+                final var timestamps = new long[frameCount];
+                for (int i = 0; i < frameCount; i++) {
+                    offsets[i] = entries.getLong();
+                    timestamps[i] = entries.getLong();
+                }
+                return new long[][]{offsets, timestamps};
+            }
+        }
+
+        LOGGER.warning("Recording has no index, re-indexing " + file);
+        var offsets = new long[1024];
+        var timestamps = new long[1024];
+        var frameCount = 0;
+        var position = (long) FILE_HEADER_SIZE;
+        while (position + CHUNK_HEADER_SIZE <= size) {
+            final var chunk = read(position, CHUNK_HEADER_SIZE);
+            if (chunk.getInt(0) != CHUNK_MAGIC) {
+                break;
+            }
+            final var next = position + CHUNK_HEADER_SIZE + chunk.getInt(36);
+            if (next > size) {
+                // frame was cut off
+                break;
+            }
+            if (frameCount == offsets.length) {
+                offsets = Arrays.copyOf(offsets, frameCount * 2);
+                timestamps = Arrays.copyOf(timestamps, frameCount * 2);
+            }
+            offsets[frameCount] = position;
+            timestamps[frameCount] = chunk.getLong(16);
+            frameCount++;
+            position = next;
+        }
+        return new long[][]{Arrays.copyOf(offsets, frameCount), Arrays.copyOf(timestamps, frameCount)};
+    }
+
+    private ByteBuffer read(final long position, final int length) throws IOException {
+        final var buffer = length == CHUNK_HEADER_SIZE
+            ? header.clear()
+            : ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(buffer, position);
+        return buffer.flip();
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        var offset = position;
+        while (buffer.hasRemaining()) {
+            final var count = channel.read(buffer, offset);
+            if (count < 0) {
+                throw new IOException("Unexpected end of recording " + file);
+            }
+            offset += count;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            LOGGER.warning("Cannot close recording: " + exception.getMessage());
+        }
+    }
+}
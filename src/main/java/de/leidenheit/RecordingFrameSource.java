@@ -0,0 +1,48 @@
+package de.leidenheit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * {@link FrameSource} passing the frames of another source through while recording them
+ * with a {@link FrameRecorder}. Closing it closes the recorder and the wrapped source.
+ */
+public final class RecordingFrameSource implements FrameSource {
+
+    private final FrameSource frameSource;
+    private final FrameRecorder recorder;
+
+    public RecordingFrameSource(final FrameSource frameSource, final FrameRecorder recorder) {
+        this.frameSource = frameSource;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Frame next() {
+        final var frame = frameSource.next();
+        if (frame != null) {
+            try {
+                recorder.record(frame);
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Cannot record frame " + frame.frameId(), exception);
+            }
+        }
+        return frame;
+    }
+
+    @Override
+    public boolean isIntact(final Frame frame) {
+        return frameSource.isIntact(frame);
+    }
+
+    @Override
+    public void close() {
+        try {
+            recorder.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Cannot finish recording", exception);
+        } finally {
+            frameSource.close();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package de.leidenheit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.opencv.aruco.Aruco;
+import org.opencv.core.MatOfPoint2f;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+/**
+ * Golden dataset regression check of the headless pipeline. Every image is analyzed
+ * stage by stage; the ArUco corners, board ellipse, {@link DartboardSectorLimits} and the
+ * median stage latencies of a number of repetitions are recorded. A recorded baseline can
+ * be compared with a new run: the number of images with an ArUco ROI and with a board ellipse
+ * must not drop, geometry must stay within a pixel tolerance and, if requested, the summed
+ * latency of each stage must not regress by more than a configured percentage.
+ * Latencies are only comparable with a baseline recorded on the same machine.
+ * The {@link PipelineStage#CONTOURS} timing covers contour search and ellipse fit.
+ */
+public final class RegressionHarness {
+
+    private static final Logger LOGGER = Logger.getLogger(RegressionHarness.class.getSimpleName());
+    private static final File RESOURCE_ROOT = new File("src/resources").getAbsoluteFile();
+
+    private final CameraParameter cameraParameter;
+    private final CalibrationData calibrationData;
+    private final ContourParameter contourParameter;
+    private final CircleParameter circleParameter;
+    private final int repetitions;
+
+    public RegressionHarness(
+        final CameraParameter cameraParameter,
+        final CalibrationData calibrationData,
+        final ContourParameter contourParameter,
+        final CircleParameter circleParameter,
+        final int repetitions) {
+        this.cameraParameter = cameraParameter;
+        this.calibrationData = calibrationData;
+        this.contourParameter = contourParameter;
+        this.circleParameter = circleParameter;
+        this.repetitions = Math.max(1, repetitions);
+    }
+
+    /**
+     * Measures all given images.
+     *
+     * @param imagePaths absolute paths of the board images
+     * @return list of {@link ImageMeasurement} in input order
+     */
+    public List<ImageMeasurement> measure(final List<String> imagePaths) {
+        final var measurements = new ArrayList<ImageMeasurement>(imagePaths.size());
+        for (var imagePath : imagePaths) {
+            final var runs = new ArrayList<ImageMeasurement>(repetitions);
+            for (int i = 0; i < repetitions; i++) {
+                runs.add(measureOnce(imagePath));
+            }
+            final var stageMillis = new LinkedHashMap<String, Double>();
+            for (var stage : runs.get(0).stageMillis().keySet()) {
+                stageMillis.put(stage, median(runs.stream()
+                    .mapToDouble(run -> run.stageMillis().getOrDefault(stage, 0d))
+                    .toArray()));
+            }
+            final var first = runs.get(0);
+            measurements.add(new ImageMeasurement(
+                first.image(),
+                first.success(),
+                first.arucoCorners(),
+                first.boardEllipse(),
+                first.sectorLimits(),
+                stageMillis));
+        }
+        return measurements;
+    }
+
+    private ImageMeasurement measureOnce(final String imagePath) {
+        final var image = RESOURCE_ROOT.toPath().relativize(new File(imagePath).toPath()).toString();
+        final var stageMillis = new LinkedHashMap<String, Double>();
+
+        var start = System.nanoTime();
+        final var undistortedImage = DetectionUtil.distortFunction(
+            imagePath,
+            cameraParameter,
+            calibrationData,
+            false);
+        stageMillis.put(PipelineStage.UNDISTORT.name(), millisSince(start));
+
+        start = System.nanoTime();
+        final var arucoCorners = new MatOfPoint2f();
+        final var roiImage = DetectionUtil.extractArucoROI(
+            undistortedImage,
+            Aruco.DICT_6X6_250,
+            BoardAnalyzer.ROI_SIZE,
+            BoardAnalyzer.ROI_SIZE,
+            true,
+            false,
+            false,
+            arucoCorners);
+        stageMillis.put(PipelineStage.ARUCO.name(), millisSince(start));
+        if (roiImage == null) {
+            return new ImageMeasurement(image, false, null, null, null, stageMillis);
+        }
+        final var corners = new double[8];
+        final var cornerPoints = arucoCorners.toArray();
+        for (int i = 0; i < cornerPoints.length && i < 4; i++) {
+            corners[i * 2] = cornerPoints[i].x;
+            corners[i * 2 + 1] = cornerPoints[i].y;
+        }
+
+        // derived images are shared between contour and hough stage like in the BoardAnalyzer
+        final var frameContext = new FrameContext(roiImage);
+        start = System.nanoTime();
+        final var boardEllipse = BoardAnalyzer.findBoardEllipse(frameContext, contourParameter);
+        stageMillis.put(PipelineStage.CONTOURS.name(), millisSince(start));
+        if (boardEllipse == null) {
+            frameContext.close();
+            return new ImageMeasurement(image, false, corners, null, null, stageMillis);
+        }
+
+        start = System.nanoTime();
+        final var sectorLimits = DetectionUtil.determineDartboardSectorLimits(roiImage, boardEllipse, false);
+        stageMillis.put(PipelineStage.SCORING.name(), millisSince(start));
+
+        start = System.nanoTime();
+        CircleDetector.detectRing(frameContext, DartboardRadianFactor.BULL, circleParameter);
+        stageMillis.put(PipelineStage.HOUGH.name(), millisSince(start));
+        frameContext.close();
+
+        return new ImageMeasurement(
+            image,
+            true,
+            corners,
+            new double[]{
+                boardEllipse.center.x,
+                boardEllipse.center.y,
+                boardEllipse.size.width,
+                boardEllipse.size.height,
+                boardEllipse.angle},
+            sectorLimits,
+            stageMillis);
+    }
+
+    /**
+     * Compares a run with the baseline.
+     *
+     * @param baseline recorded {@link ImageMeasurement}s
+     * @param current {@link ImageMeasurement}s of the current run
+     * @param geometryTolerancePixels allowed deviation of corners, ellipse and limits (degrees for the angle)
+     * @param latencyTolerancePercent allowed increase of the summed latency per stage or NaN to skip latencies
+     * @return list of violations; empty if the run passes
+     */
+    public static List<String> compare(
+        final List<ImageMeasurement> baseline,
+        final List<ImageMeasurement> current,
+        final double geometryTolerancePixels,
+        final double latencyTolerancePercent) {
+
+        final var violations = new ArrayList<String>();
+        final var currentByImage = new LinkedHashMap<String, ImageMeasurement>();
+        current.forEach(measurement -> currentByImage.put(measurement.image(), measurement));
+        final var baselineStageMillis = new LinkedHashMap<String, Double>();
+        final var currentStageMillis = new LinkedHashMap<String, Double>();
+
+        for (var expected : baseline) {
+            final var actual = currentByImage.get(expected.image());
+            if (actual == null) {
+                violations.add(expected.image() + ": missing in current run");
+                continue;
+            }
+            expected.stageMillis().forEach((stage, millis) -> baselineStageMillis.merge(stage, millis, Double::sum));
+            actual.stageMillis().forEach((stage, millis) -> currentStageMillis.merge(stage, millis, Double::sum));
+            if (expected.success() != actual.success()) {
+                violations.add(String.format("%s: success changed from %s to %s",
+                    expected.image(), expected.success(), actual.success()));
+                continue;
+            }
+            checkDeviation(violations, expected.image(), "aruco corners",
+                expected.arucoCorners(), actual.arucoCorners(), geometryTolerancePixels);
+            checkDeviation(violations, expected.image(), "board ellipse",
+                expected.boardEllipse(), actual.boardEllipse(), geometryTolerancePixels);
+            checkDeviation(violations, expected.image(), "sector limits",
+                limitsOf(expected.sectorLimits()), limitsOf(actual.sectorLimits()), geometryTolerancePixels);
+        }
+        checkCount(violations, "images with aruco roi", baseline, current, measurement -> measurement.arucoCorners() != null);
+        checkCount(violations, "detected boards", baseline, current, ImageMeasurement::success);
+
+        if (Double.isNaN(latencyTolerancePercent)) {
+            return violations;
+        }
+        baselineStageMillis.forEach((stage, expectedMillis) -> {
+            final var actualMillis = currentStageMillis.getOrDefault(stage, 0d);
+            if (actualMillis > expectedMillis * (1 + latencyTolerancePercent / 100)) {
+                violations.add(String.format("%s: latency regressed from %.2f ms to %.2f ms (+%.1f%%)",
+                    stage, expectedMillis, actualMillis, (actualMillis / expectedMillis - 1) * 100));
+            }
+        });
+        return violations;
+    }
+
+    private static void checkCount(
+        final List<String> violations,
+        final String name,
+        final List<ImageMeasurement> baseline,
+        final List<ImageMeasurement> current,
+        final Predicate<ImageMeasurement> detected) {
+
+        final var expected = baseline.stream().filter(detected).count();
+        final var actual = current.stream().filter(detected).count();
+        if (actual < expected) {
+            violations.add(String.format("%s dropped from %s to %s", name, expected, actual));
+        }
+    }
+
+    private static void checkDeviation(
+        final List<String> violations,
+        final String image,
+        final String name,
+        final double[] expected,
+        final double[] actual,
+        final double tolerance) {
+
+        if (expected == null || actual == null) {
+            if (expected != actual) {
+                violations.add(String.format("%s: %s missing", image, name));
+            }
+            return;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (Math.abs(expected[i] - actual[i]) > tolerance) {
+                violations.add(String.format("%s: %s deviates; expected %s but was %s",
+                    image, name, Arrays.toString(expected), Arrays.toString(actual)));
+                return;
+            }
+        }
+    }
+
+    private static double[] limitsOf(final DartboardSectorLimits limits) {
+        if (limits == null) {
+            return null;
+        }
+        return new double[]{
+            limits.radiusBullsEyeLimit(),
+            limits.radiusBullLimit(),
+            limits.radiusInnerTripleLimit(),
+            limits.radiusOuterTripleLimit(),
+            limits.radiusInnerDoubleLimit(),
+            limits.radiusOuterDoubleLimit()};
+    }
+
+    public static List<ImageMeasurement> readBaseline(final File baselineFile) throws IOException {
+        return Arrays.asList(new ObjectMapper().readValue(baselineFile, ImageMeasurement[].class));
+    }
+
+    public static void writeBaseline(final File baselineFile, final List<ImageMeasurement> measurements)
+        throws IOException {
+        baselineFile.getParentFile().mkdirs();
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(baselineFile, measurements);
+        LOGGER.info("Baseline written to " + baselineFile.getAbsolutePath());
+    }
+
+    private static double millisSince(final long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000d;
+    }
+
+    private static double median(final double[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    /**
+     * Measurement of a single image.
+     *
+     * @param image path relative to {@code src/resources}
+     * @param success true if the board ellipse was found
+     * @param arucoCorners x/y of the four homography source points or null
+     * @param boardEllipse center x/y, width, height and angle or null
+     * @param sectorLimits {@link DartboardSectorLimits} or null
+     * @param stageMillis median latency per {@link PipelineStage} name
+     */
+    public record ImageMeasurement(
+        String image,
+        boolean success,
+        double[] arucoCorners,
+        double[] boardEllipse,
+        DartboardSectorLimits sectorLimits,
+        Map<String, Double> stageMillis
+    ) {}
+}
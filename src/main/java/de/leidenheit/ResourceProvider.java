@@ -95,6 +95,16 @@ public class ResourceProvider {
         }
     }
 
+    public void writeObjectResource(Object value, String resourceDirectory, String resourceFileName) {
+        final var targetFile = prepareFile(resourceDirectory, resourceFileName);
+        try {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(targetFile, value);
+            LOGGER.info("Successfully serialized into " + targetFile.getAbsolutePath());
+        } catch (Exception ex) {
+            LOGGER.warning("Serialization into " + targetFile.getAbsolutePath() + " failed: " + ex.getMessage());
+        }
+    }
+
     private File prepareFile(String resourceDirectory, String resourceFileName) {
         var targetFile = new File("src/resources/" + resourceDirectory);
         targetFile.mkdirs();
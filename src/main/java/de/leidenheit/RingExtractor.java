@@ -0,0 +1,251 @@
+package de.leidenheit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.RotatedRect;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Extracts the concentric rings of a board from a single {@link Imgproc#findContours} pass with
+ * the full hierarchy ({@link Imgproc#RETR_TREE}). The board is the ellipse already found by the
+ * contour search or RANSAC, since the finer ring edge image rarely closes the board outline.
+ * If a contour matches that ellipse, ring candidates are its descendants centered on it,
+ * otherwise all contours centered on it. Each {@link BoardRings.RingType} takes the candidate closest to its
+ * {@link DartboardRadianFactor} radius, every contour serves at most one ring and the radii
+ * must decrease from the outside in. Only the selected contours are fitted with
+ * {@link Imgproc#fitEllipse}; the remaining work runs on bulk copied points.
+ */
+public final class RingExtractor {
+
+    private static final Logger LOGGER = Logger.getLogger(RingExtractor.class.getSimpleName());
+    private static final int HIERARCHY_STRIDE = 4;
+    private static final int PARENT = 3;
+    private static final int MIN_ELLIPSE_POINTS = 5;
+
+    /**
+     * Extracts the rings in a given ROI {@link Mat}.
+     *
+     * @param roi {@link Mat} BGR or gray ROI, e.g. the result of {@link DetectionUtil#extractArucoROI}
+     * @param boardEllipse {@link RotatedRect} of the board outline in the ROI
+     * @param ringParameter {@link RingParameter}
+     * @return {@link BoardRings} or null if no ring was found
+     */
+    public static BoardRings extract(final Mat roi, final RotatedRect boardEllipse, final RingParameter ringParameter) {
+        try (final var frameContext = new FrameContext(roi)) {
+            return extract(frameContext, boardEllipse, ringParameter);
+        }
+    }
+
+    /**
+     * Extracts the rings in the ROI of a given {@link FrameContext}.
+     *
+     * @param frameContext {@link FrameContext} of the ROI
+     * @param boardEllipse {@link RotatedRect} of the board outline in the ROI
+     * @param ringParameter {@link RingParameter}
+     * @return {@link BoardRings} or null if no ring was found
+     */
+    public static BoardRings extract(
+        final FrameContext frameContext,
+        final RotatedRect boardEllipse,
+        final RingParameter ringParameter) {
+        final var start = System.nanoTime();
+        final var ringsEvent = PipelineStageEvent.begin(PipelineStage.RINGS);
+        final var contours = new ArrayList<MatOfPoint>();
+        final var hierarchy = new Mat();
+        final var findContoursCall = NativeCallEvent.begin("Imgproc.findContours");
+        Imgproc.findContours(
+            frameContext.closedEdges(ringParameter.contourParameter()),
+            contours,
+            hierarchy,
+            Imgproc.RETR_TREE,
+            Imgproc.CHAIN_APPROX_SIMPLE);
+        findContoursCall.complete();
+        try {
+            final var rings = extract(contours, hierarchy, boardEllipse, ringParameter);
+            ringsEvent.complete(frameContext.image(), contours.size(), rings != null ? rings.ringCount() : -1);
+            return rings;
+        } finally {
+            contours.forEach(Mat::release);
+            hierarchy.release();
+            PipelineMetrics.getInstance().recordStage(PipelineStage.RINGS, start);
+        }
+    }
+
+    private static BoardRings extract(
+        final List<MatOfPoint> contours,
+        final Mat hierarchy,
+        final RotatedRect boardEllipse,
+        final RingParameter ringParameter) {
+
+        final var count = contours.size();
+        final var links = new int[count * HIERARCHY_STRIDE];
+        if (count > 0) {
+            hierarchy.get(0, 0, links);
+        }
+
+        // bounding boxes of all contours from one bulk copy each
+        final var boxes = new int[count * 4];
+        var buffer = new int[0];
+        for (int i = 0; i < count; i++) {
+            final var length = 2 * (int) contours.get(i).total();
+            if (buffer.length < length) {
+                buffer = new int[length];
+            }
+            contours.get(i).get(0, 0, buffer);
+            measure(buffer, length, boxes, i * 4);
+        }
+
+        final var boardWidth = BoardRings.width(boardEllipse);
+        final var boardAspect = BoardRings.height(boardEllipse) / boardWidth;
+        final var centerTolerance = ringParameter.centerTolerance() * boardWidth;
+        final var concentric = new boolean[count];
+        var board = -1;
+        var boardDeviation = ringParameter.radiusTolerance();
+        for (int i = 0; i < count; i++) {
+            final var offset = i * 4;
+            final var centerX = boxes[offset] + boxes[offset + 2] / 2d;
+            final var centerY = boxes[offset + 1] + boxes[offset + 3] / 2d;
+            // rings share the aspect of the board outline; this drops segments of a ring that merely span its width
+            final var aspect = (double) boxes[offset + 3] / boxes[offset + 2];
+            concentric[i] = contours.get(i).total() >= MIN_ELLIPSE_POINTS
+                && Math.hypot(centerX - boardEllipse.center.x, centerY - boardEllipse.center.y) <= centerTolerance
+                && Math.abs(aspect / boardAspect - 1) <= ringParameter.radiusTolerance();
+            final var deviation = Math.abs((double) boxes[offset + 2] / boardWidth - 1);
+            if (concentric[i] && deviation <= boardDeviation) {
+                board = i;
+                boardDeviation = deviation;
+            }
+        }
+
+        // deviation of every concentric contour, or descendant of the board contour, from every expected ring radius
+        final var types = BoardRings.RingType.values();
+        final var candidates = new ArrayList<double[]>();
+        for (int i = 0; i < count; i++) {
+            if (i == board || !concentric[i] || (board >= 0 && !isDescendant(links, i, board))) {
+                continue;
+            }
+            final var offset = i * 4;
+            for (var type : types) {
+                final var expectedRadius = boardWidth * (type.factor() / 100);
+                final var deviation = Math.abs(boxes[offset + 2] / 2d / expectedRadius - 1);
+                if (deviation <= ringParameter.radiusTolerance()) {
+                    candidates.add(new double[]{deviation, i, type.ordinal()});
+                }
+            }
+        }
+
+        // greedy assignment by deviation; each contour and each ring is used once
+        candidates.sort((a, b) -> Double.compare(a[0], b[0]));
+        final var assigned = new int[types.length];
+        Arrays.fill(assigned, -1);
+        final var used = new boolean[count];
+        for (var candidate : candidates) {
+            final var contour = (int) candidate[1];
+            final var type = (int) candidate[2];
+            if (assigned[type] < 0 && !used[contour] && keepsOrder(assigned, boxes, type, contour)) {
+                assigned[type] = contour;
+                used[contour] = true;
+            }
+        }
+
+        final var ellipses = new RotatedRect[types.length];
+        for (int type = 0; type < types.length; type++) {
+            if (assigned[type] >= 0) {
+                ellipses[type] = fitEllipse(contours.get(assigned[type]));
+            }
+        }
+        // ratios refer to the outer double if found since it is the most reliable ring edge
+        final var outerDouble = ellipses[BoardRings.RingType.OUTER_DOUBLE.ordinal()];
+        final var referenceRadius = outerDouble != null
+            ? BoardRings.width(outerDouble) / 2
+            : boardWidth * (BoardRings.RingType.OUTER_DOUBLE.factor() / 100);
+        BoardRings.Ring inner = null;
+        for (int type = types.length - 1; type >= 0; type--) {
+            if (ellipses[type] == null) {
+                continue;
+            }
+            final var expectedRatio = types[type].factor() / BoardRings.RingType.OUTER_DOUBLE.factor();
+            final var ratio = BoardRings.width(ellipses[type]) / 2 / referenceRadius;
+            inner = new BoardRings.Ring(types[type], ellipses[type], ratio / expectedRatio - 1, inner);
+        }
+        if (inner == null) {
+            PipelineMetrics.getInstance().recordDetectionFailure(PipelineStage.RINGS);
+            DiagnosticRing.getInstance().record("rings.none", count, board, candidates.size());
+            return null;
+        }
+        final var rings = new BoardRings(boardEllipse, inner);
+        DiagnosticRing.getInstance().record("rings.found", count, candidates.size(), rings.ringCount());
+        LOGGER.fine(() -> String.format("Found %s of %s rings in %s contours", rings.ringCount(), types.length, count));
+        if (rings.ringCount() < types.length) {
+            PipelineMetrics.getInstance().recordDetectionFailure(PipelineStage.RINGS);
+        }
+        return rings;
+    }
+
+    /**
+     * Radii must shrink from the outer double to the bullseye.
+     */
+    private static boolean keepsOrder(final int[] assigned, final int[] boxes, final int type, final int contour) {
+        final var width = boxes[contour * 4 + 2];
+        for (int other = 0; other < assigned.length; other++) {
+            if (assigned[other] < 0) {
+                continue;
+            }
+            final var otherWidth = boxes[assigned[other] * 4 + 2];
+            if ((other < type && otherWidth <= width) || (other > type && otherWidth >= width)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDescendant(final int[] links, final int contour, final int ancestor) {
+        var parent = links[contour * HIERARCHY_STRIDE + PARENT];
+        while (parent >= 0) {
+            if (parent == ancestor) {
+                return true;
+            }
+            parent = links[parent * HIERARCHY_STRIDE + PARENT];
+        }
+        return false;
+    }
+
+    /**
+     * Writes the bounding box of the packed points.
+     */
+    private static void measure(final int[] points, final int length, final int[] boxes, final int offset) {
+        var minX = Integer.MAX_VALUE;
+        var minY = Integer.MAX_VALUE;
+        var maxX = Integer.MIN_VALUE;
+        var maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < length; i += 2) {
+            minX = Math.min(minX, points[i]);
+            maxX = Math.max(maxX, points[i]);
+            minY = Math.min(minY, points[i + 1]);
+            maxY = Math.max(maxY, points[i + 1]);
+        }
+        boxes[offset] = minX;
+        boxes[offset + 1] = minY;
+        boxes[offset + 2] = maxX - minX + 1;
+        boxes[offset + 3] = maxY - minY + 1;
+    }
+
+    private static RotatedRect fitEllipse(final MatOfPoint contour) {
+        final var contour2f = new MatOfPoint2f();
+        contour.convertTo(contour2f, CvType.CV_32FC2);
+        final var ellipse = Imgproc.fitEllipse(contour2f);
+        contour2f.release();
+        return ellipse;
+    }
+
+    private RingExtractor() {
+        // hide constructor
+    }
+}
@@ -0,0 +1,48 @@
+package de.leidenheit;
+
+public record RingParameter(
+    double gaussFactor,         // 5
+    double cannyThresholdLow,   // 50
+    double cannyThresholdHigh,  // 150
+    int closeIterations,        // 1
+    double radiusTolerance,     // 0.1
+    double centerTolerance      // 0.06
+) {
+
+    /**
+     * Instantiates a {@link RingParameter} with the following parameters:
+     *  - gauss = 5
+     *  - canny threshold = low 50, high 150
+     *  - close iterations = 1; more would merge the wires of the narrow double and triple rings
+     *  - radius tolerance = 0.1 relative to the {@link DartboardRadianFactor} radius
+     *  - center tolerance = 0.06 of the board width; perspective shifts the inner rings off the outline center
+     *
+     * @return Returns an instance of {@link RingParameter} with default parameters
+     */
+    public static RingParameter defaultParameter() {
+        return new RingParameter(
+            5,
+            50,
+            150,
+            1,
+            0.1,
+            0.06);
+    }
+
+    /**
+     * @return {@link ContourParameter} describing the same edge image, e.g. for {@link FrameContext#closedEdges}
+     */
+    public ContourParameter contourParameter() {
+        final var template = ContourParameter.defaultParameter();
+        return new ContourParameter(
+            gaussFactor,
+            cannyThresholdLow,
+            cannyThresholdHigh,
+            closeIterations,
+            closeIterations,
+            0,
+            template.epsilon(),
+            template.drawColorBGRA(),
+            template.drawThickness());
+    }
+}
@@ -0,0 +1,69 @@
+package de.leidenheit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Rate limited logging for per-frame messages. One instance is kept per call site;
+ * the message supplier is only evaluated if the level is enabled and the interval
+ * since the last message of the call site has passed. Records name the calling class
+ * and method, not this class.
+ */
+public final class SampledLog {
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final long minIntervalNanos;
+    private final AtomicLong nextLogNanos = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private SampledLog(final long minIntervalNanos) {
+        this.minIntervalNanos = minIntervalNanos;
+    }
+
+    /**
+     * Creates a call site logging at most once per given interval.
+     *
+     * @param minIntervalMillis minimum interval between two messages
+     * @return {@link SampledLog}
+     */
+    public static SampledLog everyMillis(final long minIntervalMillis) {
+        return new SampledLog(minIntervalMillis * 1_000_000);
+    }
+
+    public void log(final Logger logger, final Level level, final Supplier<String> message) {
+        if (!logger.isLoggable(level)) {
+            return;
+        }
+        final var now = System.nanoTime();
+        final var next = nextLogNanos.get();
+        if (next != Long.MIN_VALUE && now - next < 0) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        if (!nextLogNanos.compareAndSet(next, now + minIntervalNanos)) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        final var suppressedCount = suppressed.getAndSet(0);
+        // the caller is only looked up for messages that are actually logged
+        final var caller = STACK_WALKER.walk(frames -> frames
+            .filter(frame -> !frame.getClassName().equals(SampledLog.class.getName()))
+            .findFirst())
+            .orElse(null);
+        final var sourceClass = caller != null ? caller.getClassName() : null;
+        final var sourceMethod = caller != null ? caller.getMethodName() : null;
+        if (suppressedCount > 0) {
+            logger.logp(level, sourceClass, sourceMethod,
+                () -> message.get() + " (" + suppressedCount + " similar suppressed)");
+        } else {
+            logger.logp(level, sourceClass, sourceMethod, message);
+        }
+    }
+
+    public void info(final Logger logger, final Supplier<String> message) {
+        log(logger, Level.INFO, message);
+    }
+}
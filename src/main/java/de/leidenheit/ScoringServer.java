@@ -0,0 +1,527 @@
+package de.leidenheit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Embedded localhost server publishing board geometry and scored hits to scoreboards
+ * and match software.
+ *  - {@code GET /events} with a WebSocket upgrade subscribes to JSON text messages;
+ *    the latest geometry is sent right after the handshake
+ *  - {@code GET /state} answers the latest geometry and frame as JSON
+ * Detection threads only enqueue messages; a single selector thread serializes each
+ * message once, frames it and writes all messages pending for a client with one
+ * gathering write. A client whose queue exceeds the byte budget loses its oldest
+ * frame messages (geometry is never dropped); a client that accepts no bytes for
+ * {@link #SLOW_CONSUMER_TIMEOUT_NANOS} is disconnected.
+ */
+public final class ScoringServer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ScoringServer.class.getSimpleName());
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int MAX_REQUEST_BYTES = 8 * 1024;
+    private static final int MAX_GATHER = 16;
+    private static final long SLOW_CONSUMER_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int OPCODE_TEXT = 0x1;
+    private static final int OPCODE_CLOSE = 0x8;
+    private static final int OPCODE_PING = 0x9;
+    private static final int OPCODE_PONG = 0xA;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<ScoringMessage> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<ScoringMessage> geometry = new AtomicReference<>();
+    private final AtomicReference<BoardGeometry> boardGeometry = new AtomicReference<>();
+    private final AtomicReference<ScoringMessage> lastFrame = new AtomicReference<>();
+    private final List<Client> clients = new ArrayList<>();
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final int maxQueuedBytes;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Binds the server to the loopback interface and starts the selector thread.
+     *
+     * @param port TCP port; 0 picks a free port, see {@link #port()}
+     * @param maxQueuedBytes per client budget of unsent bytes
+     * @throws IOException if the port cannot be bound
+     */
+    public ScoringServer(final int port, final int maxQueuedBytes) throws IOException {
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.thread = new Thread(this::serve, "scoring-server");
+        thread.setDaemon(true);
+        thread.start();
+        LOGGER.info(String.format("Scoring server listening on %s", serverChannel.getLocalAddress()));
+    }
+
+    public int port() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException exception) {
+            return -1;
+        }
+    }
+
+    /**
+     * Publishes the board geometry; subsequent hits are scored against it, see {@link BoardGeometry#score}.
+     *
+     * @param boardGeometry {@link BoardGeometry} in ROI coordinates
+     */
+    public void publishGeometry(final BoardGeometry boardGeometry) {
+        final var boardEllipse = boardGeometry.boardEllipse();
+        final var message = new ScoringMessage(
+            "geometry",
+            -1,
+            System.nanoTime(),
+            new double[]{
+                boardEllipse.center.x,
+                boardEllipse.center.y,
+                boardEllipse.size.width,
+                boardEllipse.size.height,
+                boardEllipse.angle},
+            boardGeometry.sectorLimits(),
+            List.of());
+        this.boardGeometry.set(boardGeometry);
+        geometry.set(message);
+        enqueue(message);
+    }
+
+    /**
+     * Publishes the hit of one synchronized frame group. Never blocks the calling thread.
+     *
+     * @param hit {@link FusedHit}
+     */
+    public void publishHit(final FusedHit hit) {
+        final var currentGeometry = boardGeometry.get();
+        final var score = currentGeometry != null ? currentGeometry.score(hit.boardPoint()) : null;
+        final var estimates = hit.contributingEstimates();
+        final var message = new ScoringMessage(
+            "frame",
+            estimates.isEmpty() ? -1 : estimates.get(0).frameId(),
+            hit.timestampNanos(),
+            null,
+            null,
+            List.of(new ScoredHit(
+                hit.boardPoint().x,
+                hit.boardPoint().y,
+                hit.confidence(),
+                estimates.size(),
+                score)));
+        lastFrame.set(message);
+        enqueue(message);
+    }
+
+    private void enqueue(final ScoringMessage message) {
+        pending.offer(message);
+        selector.wakeup();
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select(1_000);
+                final var selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    final var key = selectedKeys.next();
+                    selectedKeys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    final var client = (Client) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            client.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            client.flush();
+                        }
+                    } catch (IOException exception) {
+                        client.close("io error: " + exception.getMessage());
+                    }
+                }
+                dispatchPending();
+                disconnectSlowConsumers();
+            }
+        } catch (IOException exception) {
+            LOGGER.severe("Scoring server stopped: " + exception);
+        } finally {
+            new ArrayList<>(clients).forEach(client -> client.close("server closed"));
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException exception) {
+                LOGGER.warning("Cannot close scoring server: " + exception.getMessage());
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        final var channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        final var client = new Client(channel);
+        client.key = channel.register(selector, SelectionKey.OP_READ, client);
+        clients.add(client);
+    }
+
+    private void dispatchPending() {
+        ScoringMessage message;
+        final var touched = new ArrayList<Client>();
+        while ((message = pending.poll()) != null) {
+            final byte[] json;
+            try {
+                json = objectMapper.writeValueAsBytes(message);
+            } catch (JsonProcessingException exception) {
+                LOGGER.warning("Cannot serialize scoring message: " + exception.getMessage());
+                continue;
+            }
+            final var frame = webSocketFrame(OPCODE_TEXT, json);
+            final var droppable = !"geometry".equals(message.type());
+            for (var client : clients) {
+                if (client.subscribed) {
+                    client.enqueue(frame.duplicate(), droppable);
+                    touched.add(client);
+                }
+            }
+        }
+        for (var client : touched) {
+            try {
+                client.flush();
+            } catch (IOException exception) {
+                client.close("io error: " + exception.getMessage());
+            }
+        }
+    }
+
+    private void disconnectSlowConsumers() {
+        final var now = System.nanoTime();
+        for (var client : new ArrayList<>(clients)) {
+            if (client.stalledSinceNanos != 0 && now - client.stalledSinceNanos > SLOW_CONSUMER_TIMEOUT_NANOS) {
+                client.close("slow consumer");
+            }
+        }
+    }
+
+    private static ByteBuffer webSocketFrame(final int opcode, final byte[] payload) {
+        final var headerSize = payload.length < 126 ? 2 : payload.length <= 0xFFFF ? 4 : 10;
+        final var frame = ByteBuffer.allocate(headerSize + payload.length);
+        frame.put((byte) (0x80 | opcode));
+        if (payload.length < 126) {
+            frame.put((byte) payload.length);
+        } else if (payload.length <= 0xFFFF) {
+            frame.put((byte) 126);
+            frame.putShort((short) payload.length);
+        } else {
+            frame.put((byte) 127);
+            frame.putLong(payload.length);
+        }
+        frame.put(payload);
+        return frame.flip();
+    }
+
+    private static String webSocketAccept(final String key) {
+        try {
+            final var sha1 = MessageDigest.getInstance("SHA-1")
+                .digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(sha1);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Outbound(ByteBuffer buffer, boolean droppable) {}
+
+    /**
+     * Connection state; only touched by the selector thread.
+     */
+    private final class Client {
+
+        private final SocketChannel channel;
+        private final ByteBuffer input = ByteBuffer.allocate(MAX_REQUEST_BYTES);
+        private final ArrayDeque<Outbound> outbound = new ArrayDeque<>();
+        private SelectionKey key;
+        private boolean subscribed;
+        private boolean closeWhenFlushed;
+        private long queuedBytes;
+        private long stalledSinceNanos;
+        private long droppedMessages;
+
+        private Client(final SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void read() throws IOException {
+            if (channel.read(input) < 0) {
+                close("closed by peer");
+                return;
+            }
+            if (subscribed) {
+                readWebSocketFrames();
+                return;
+            }
+            final var request = new String(input.array(), 0, input.position(), StandardCharsets.US_ASCII);
+            final var end = request.indexOf("\r\n\r\n");
+            if (end < 0) {
+                if (!input.hasRemaining()) {
+                    respond("431 Request Header Fields Too Large", "text/plain", new byte[0]);
+                }
+                return;
+            }
+            input.clear();
+            handleRequest(request.substring(0, end));
+        }
+
+        private void handleRequest(final String request) throws IOException {
+            final var lines = request.split("\r\n");
+            final var requestLine = lines[0].split(" ");
+            final var headers = new HashMap<String, String>();
+            for (int i = 1; i < lines.length; i++) {
+                final var separator = lines[i].indexOf(':');
+                if (separator > 0) {
+                    headers.put(
+                        lines[i].substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                        lines[i].substring(separator + 1).trim());
+                }
+            }
+            final var path = requestLine.length > 1 ? requestLine[1] : "";
+            if (!"GET".equals(requestLine[0])) {
+                respond("405 Method Not Allowed", "text/plain", new byte[0]);
+            } else if ("/events".equals(path)
+                && "websocket".equalsIgnoreCase(headers.get("upgrade"))
+                && headers.containsKey("sec-websocket-key")) {
+                final var response = "HTTP/1.1 101 Switching Protocols\r\n"
+                    + "Upgrade: websocket\r\n"
+                    + "Connection: Upgrade\r\n"
+                    + "Sec-WebSocket-Accept: " + webSocketAccept(headers.get("sec-websocket-key")) + "\r\n\r\n";
+                enqueue(ByteBuffer.wrap(response.getBytes(StandardCharsets.US_ASCII)), false);
+                subscribed = true;
+                final var currentGeometry = geometry.get();
+                if (currentGeometry != null) {
+                    enqueue(webSocketFrame(OPCODE_TEXT, objectMapper.writeValueAsBytes(currentGeometry)), false);
+                }
+                flush();
+            } else if ("/state".equals(path)) {
+                final var state = new LinkedHashMap<String, ScoringMessage>();
+                state.put("geometry", geometry.get());
+                state.put("frame", lastFrame.get());
+                respond("200 OK", "application/json", objectMapper.writeValueAsBytes(state));
+            } else {
+                respond("404 Not Found", "text/plain", new byte[0]);
+            }
+        }
+
+        private void respond(final String status, final String contentType, final byte[] body) throws IOException {
+            final var header = "HTTP/1.1 " + status + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+            enqueue(ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII)), false);
+            enqueue(ByteBuffer.wrap(body), false);
+            closeWhenFlushed = true;
+            flush();
+        }
+
+        /**
+         * Handles close and ping frames of the client; other frames are ignored.
+         */
+        private void readWebSocketFrames() throws IOException {
+            input.flip();
+            while (input.remaining() >= 2) {
+                final var start = input.position();
+                final var opcode = input.get(start) & 0x0F;
+                final var masked = (input.get(start + 1) & 0x80) != 0;
+                var length = (long) (input.get(start + 1) & 0x7F);
+                var headerSize = 2;
+                if (length == 126) {
+                    headerSize = 4;
+                } else if (length == 127) {
+                    headerSize = 10;
+                }
+                headerSize += masked ? 4 : 0;
+                if (input.remaining() < headerSize) {
+                    break;
+                }
+                if (length == 126) {
+                    length = input.getShort(start + 2) & 0xFFFF;
+                } else if (length == 127) {
+                    length = input.getLong(start + 2);
+                }
+                if (length > input.capacity() - headerSize) {
+                    close("client frame too large");
+                    return;
+                }
+                if (input.remaining() < headerSize + length) {
+                    break;
+                }
+                final var payload = new byte[(int) length];
+                for (int i = 0; i < payload.length; i++) {
+                    final var mask = masked ? input.get(start + headerSize - 4 + (i & 3)) : 0;
+                    payload[i] = (byte) (input.get(start + headerSize + i) ^ mask);
+                }
+                input.position(start + headerSize + (int) length);
+                if (opcode == OPCODE_CLOSE) {
+                    enqueue(webSocketFrame(OPCODE_CLOSE, payload), false);
+                    closeWhenFlushed = true;
+                } else if (opcode == OPCODE_PING) {
+                    enqueue(webSocketFrame(OPCODE_PONG, payload), false);
+                }
+            }
+            input.compact();
+            flush();
+        }
+
+        void enqueue(final ByteBuffer buffer, final boolean droppable) {
+            final var size = buffer.remaining();
+            // the head may be partially written and is never dropped
+            final var iterator = outbound.iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+            }
+            while (queuedBytes + size > maxQueuedBytes && iterator.hasNext()) {
+                final var queued = iterator.next();
+                if (queued.droppable()) {
+                    iterator.remove();
+                    queuedBytes -= queued.buffer().remaining();
+                    droppedMessages++;
+                }
+            }
+            if (droppable && queuedBytes + size > maxQueuedBytes) {
+                droppedMessages++;
+                return;
+            }
+            outbound.add(new Outbound(buffer, droppable));
+            queuedBytes += size;
+        }
+
+        void flush() throws IOException {
+            if (!channel.isOpen()) {
+                return;
+            }
+            var written = 0L;
+            while (!outbound.isEmpty()) {
+                final var buffers = outbound.stream()
+                    .limit(MAX_GATHER)
+                    .map(Outbound::buffer)
+                    .toArray(ByteBuffer[]::new);
+                final var count = channel.write(buffers);
+                written += count;
+                queuedBytes -= count;
+                while (!outbound.isEmpty() && !outbound.peek().buffer().hasRemaining()) {
+                    outbound.poll();
+                }
+                if (count == 0) {
+                    break;
+                }
+            }
+            if (outbound.isEmpty()) {
+                stalledSinceNanos = 0;
+                key.interestOps(SelectionKey.OP_READ);
+                if (closeWhenFlushed) {
+                    close(null);
+                }
+                return;
+            }
+            if (written > 0 || stalledSinceNanos == 0) {
+                stalledSinceNanos = System.nanoTime();
+            }
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        void close(final String reason) {
+            clients.remove(this);
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException exception) {
+                // already gone
+            }
+            if (reason != null) {
+                LOGGER.info(String.format("Scoring client disconnected (%s); dropped messages=%s",
+                    reason, droppedMessages));
+            }
+        }
+    }
+
+    /**
+     * Message of a frame group or a geometry update.
+     *
+     * @param type "geometry" or "frame"
+     * @param frameId frame id of the first contributing camera or -1
+     * @param timestampNanos capture timestamp
+     * @param boardEllipse center x/y, width, height and angle of the board or null
+     * @param sectorLimits {@link DartboardSectorLimits} or null
+     * @param hits {@link ScoredHit}s of the frame
+     */
+    public record ScoringMessage(
+        String type,
+        long frameId,
+        long timestampNanos,
+        double[] boardEllipse,
+        DartboardSectorLimits sectorLimits,
+        List<ScoredHit> hits
+    ) {}
+
+    /**
+     * @param x board ROI x
+     * @param y board ROI y
+     * @param confidence fused confidence
+     * @param cameras number of contributing cameras
+     * @param score {@link HitScore} or null without geometry
+     */
+    public record ScoredHit(
+        double x,
+        double y,
+        double confidence,
+        int cameras,
+        HitScore score
+    ) {}
+}
@@ -0,0 +1,75 @@
+package de.leidenheit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the memory-mapped frame ring shared between a capture process and the
+ * pipeline. All values are little endian.
+ * <pre>
+ * header (64 bytes)
+ *   0  int  magic "HOFR"      4  int  version
+ *   8  int  slot count       12  int  width
+ *  16  int  height           20  int  OpenCV type, e.g. CV_8UC3
+ *  24  long slot size        32  long sequence of the last published frame (0 = none)
+ *  40  long closed flag (1 once the writer is done)
+ * slots (slot size each, 64 byte aligned)
+ *   0  long sequence (0 while being written)
+ *   8  long timestamp in nanos
+ *  64  pixel data, height * width * element size bytes
+ * </pre>
+ * Frame sequences start at 1; frame n lives in slot (n - 1) % slot count. The ring is
+ * mapped as one buffer, so header and slots must not exceed {@link #MAX_RING_BYTES}. The writer
+ * clears the slot sequence, writes pixels and timestamp and then publishes the slot
+ * sequence and the header sequence with release semantics.
+ */
+final class SharedFrameRing {
+
+    static final int MAGIC = 0x484F4652;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_HEADER_SIZE = 64;
+    static final long MAX_RING_BYTES = Integer.MAX_VALUE;
+
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int SLOT_COUNT_OFFSET = 8;
+    static final int WIDTH_OFFSET = 12;
+    static final int HEIGHT_OFFSET = 16;
+    static final int TYPE_OFFSET = 20;
+    static final int SLOT_SIZE_OFFSET = 24;
+    static final int SEQUENCE_OFFSET = 32;
+    static final int CLOSED_OFFSET = 40;
+
+    static final int SLOT_SEQUENCE_OFFSET = 0;
+    static final int SLOT_TIMESTAMP_OFFSET = 8;
+
+    static final VarHandle LONG_VIEW =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    static long slotSize(final long frameBytes) {
+        return (SLOT_HEADER_SIZE + frameBytes + 63) & ~63L;
+    }
+
+    static long ringSize(final int slotCount, final long slotSize) {
+        return HEADER_SIZE + slotCount * slotSize;
+    }
+
+    static int slotOffset(final long sequence, final int slotCount, final long slotSize) {
+        return Math.toIntExact(HEADER_SIZE + ((sequence - 1) % slotCount) * slotSize);
+    }
+
+    static long getAcquire(final ByteBuffer buffer, final int offset) {
+        return (long) LONG_VIEW.getAcquire(buffer, offset);
+    }
+
+    static void setRelease(final ByteBuffer buffer, final int offset, final long value) {
+        LONG_VIEW.setRelease(buffer, offset, value);
+    }
+
+    private SharedFrameRing() {
+        // hide constructor
+    }
+}
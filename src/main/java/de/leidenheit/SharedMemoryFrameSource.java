@@ -0,0 +1,140 @@
+package de.leidenheit;
+
+import org.opencv.core.Mat;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+import static de.leidenheit.SharedFrameRing.*;
+
+/**
+ * {@link FrameSource} reading frames published by an external capture process into a
+ * {@link SharedFrameRing}. The {@link Mat} of a frame wraps the mapped slot without
+ * copying; it stays valid until the writer laps the ring, so it has to be consumed
+ * (e.g. undistorted into a new Mat) within slot count frames and must not be modified.
+ * {@link #isIntact(Frame)} tells whether a frame was overwritten in the meantime, so a result
+ * computed from a torn frame can be dropped.
+ * A reader falling behind by a full ring skips to the latest frame.
+ */
+public final class SharedMemoryFrameSource implements FrameSource {
+
+    private static final Logger LOGGER = Logger.getLogger(SharedMemoryFrameSource.class.getSimpleName());
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int width;
+    private final int height;
+    private final int type;
+    private final long slotSize;
+    private final int frameBytes;
+    private long nextSequence = 1;
+    private long droppedFrames;
+
+    /**
+     * Maps an existing ring file created by {@link SharedMemoryFrameWriter} or the capture process.
+     *
+     * @param file ring file
+     * @throws IOException if the file cannot be mapped or is no frame ring
+     */
+    public SharedMemoryFrameSource(final Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() > MAX_RING_BYTES) {
+            channel.close();
+            throw new IOException(String.format("Frame ring exceeds %s bytes: %s", MAX_RING_BYTES, file));
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC || buffer.getInt(VERSION_OFFSET) != VERSION) {
+            channel.close();
+            throw new IOException("Not a frame ring of version " + VERSION + ": " + file);
+        }
+        this.slotCount = buffer.getInt(SLOT_COUNT_OFFSET);
+        this.width = buffer.getInt(WIDTH_OFFSET);
+        this.height = buffer.getInt(HEIGHT_OFFSET);
+        this.type = buffer.getInt(TYPE_OFFSET);
+        this.slotSize = buffer.getLong(SLOT_SIZE_OFFSET);
+        if (slotCount <= 0 || slotSize <= SLOT_HEADER_SIZE || ringSize(slotCount, slotSize) > channel.size()) {
+            channel.close();
+            throw new IOException(String.format("Frame ring of %s slots of %s bytes does not fit %s: %s",
+                slotCount, slotSize, channel.size(), file));
+        }
+        this.frameBytes = (int) (slotSize - SLOT_HEADER_SIZE);
+    }
+
+    /**
+     * Waits for the next published frame.
+     *
+     * @return {@link Frame} wrapping the slot or null once the writer closed the ring
+     */
+    @Override
+    public Frame next() {
+        while (true) {
+            final var published = getAcquire(buffer, SEQUENCE_OFFSET);
+            if (published < nextSequence) {
+                if (getAcquire(buffer, CLOSED_OFFSET) != 0) {
+                    return null;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            if (published - nextSequence >= slotCount - 1) {
+                skipTo(published);
+            }
+            final var sequence = nextSequence;
+            final var slotOffset = slotOffset(sequence, slotCount, slotSize);
+            if (getAcquire(buffer, slotOffset + SLOT_SEQUENCE_OFFSET) != sequence) {
+                // overwritten while we were looking at it
+                skipTo(getAcquire(buffer, SEQUENCE_OFFSET));
+                continue;
+            }
+            final var timestampNanos = buffer.getLong(slotOffset + SLOT_TIMESTAMP_OFFSET);
+            final var image = new Mat(height, width, type, buffer.slice(slotOffset + SLOT_HEADER_SIZE, frameBytes));
+            nextSequence = sequence + 1;
+            return new Frame(sequence, timestampNanos, image);
+        }
+    }
+
+    /**
+     * Checks whether the slot of a frame still holds that frame.
+     *
+     * @param frame {@link Frame} returned by this source
+     * @return true if the writer has not overwritten the frame yet
+     */
+    @Override
+    public boolean isIntact(final Frame frame) {
+        final var slotOffset = slotOffset(frame.frameId(), slotCount, slotSize);
+        return getAcquire(buffer, slotOffset + SLOT_SEQUENCE_OFFSET) == frame.frameId();
+    }
+
+    public long droppedFrames() {
+        return droppedFrames;
+    }
+
+    private void skipTo(final long sequence) {
+        final var skipped = sequence - nextSequence;
+        if (skipped > 0) {
+            droppedFrames += skipped;
+            PipelineMetrics.getInstance().recordDroppedFrames(skipped);
+            nextSequence = sequence;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            LOGGER.warning("Cannot close frame ring: " + exception.getMessage());
+        }
+        LOGGER.info(String.format("Frame ring reader closed; %s frames dropped", droppedFrames));
+    }
+}
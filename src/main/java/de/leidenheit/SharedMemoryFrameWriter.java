@@ -0,0 +1,115 @@
+package de.leidenheit;
+
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+import static de.leidenheit.SharedFrameRing.*;
+
+/**
+ * Producer side of the {@link SharedFrameRing}. Stands in for the external capture
+ * process; frames are copied natively from the given {@link Mat} into the mapped slot.
+ * A single writer per ring is supported.
+ */
+public final class SharedMemoryFrameWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(SharedMemoryFrameWriter.class.getSimpleName());
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slotCount;
+    private final int width;
+    private final int height;
+    private final int type;
+    private final long slotSize;
+    private final long frameBytes;
+    private long sequence;
+
+    /**
+     * Creates or overwrites a ring file for frames of a fixed geometry.
+     *
+     * @param file ring file, e.g. on /dev/shm
+     * @param slotCount number of frames kept in the ring
+     * @param width frame width
+     * @param height frame height
+     * @param type OpenCV type of the frames, e.g. {@link CvType#CV_8UC3}
+     * @throws IOException if the file cannot be mapped
+     * @throws IllegalArgumentException if the ring exceeds {@link SharedFrameRing#MAX_RING_BYTES}
+     */
+    public SharedMemoryFrameWriter(
+        final Path file,
+        final int slotCount,
+        final int width,
+        final int height,
+        final int type) throws IOException {
+        this.slotCount = slotCount;
+        this.width = width;
+        this.height = height;
+        this.type = type;
+        this.frameBytes = (long) width * height * CvType.ELEM_SIZE(type);
+        this.slotSize = slotSize(frameBytes);
+        if (ringSize(slotCount, slotSize) > MAX_RING_BYTES) {
+            throw new IllegalArgumentException(String.format("%s slots of %sx%s (type %s) exceed the mappable %s bytes",
+                slotCount, width, height, type, MAX_RING_BYTES));
+        }
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, ringSize(slotCount, slotSize));
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(SLOT_COUNT_OFFSET, slotCount);
+        buffer.putInt(WIDTH_OFFSET, width);
+        buffer.putInt(HEIGHT_OFFSET, height);
+        buffer.putInt(TYPE_OFFSET, type);
+        buffer.putLong(SLOT_SIZE_OFFSET, slotSize);
+        setRelease(buffer, SEQUENCE_OFFSET, 0);
+        setRelease(buffer, CLOSED_OFFSET, 0);
+        // readers check the magic last
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        LOGGER.info(String.format("Frame ring %s created: %s slots of %sx%s (type %s)",
+            file, slotCount, width, height, type));
+    }
+
+    /**
+     * Publishes a frame.
+     *
+     * @param image {@link Mat} matching the geometry of the ring
+     * @param timestampNanos capture timestamp
+     * @return sequence of the published frame, used as frame id by the reader
+     */
+    public long write(final Mat image, final long timestampNanos) {
+        if (image.width() != width || image.height() != height || image.type() != type) {
+            throw new IllegalArgumentException(String.format("Frame %sx%s (type %s) does not match ring %sx%s (type %s)",
+                image.width(), image.height(), image.type(), width, height, type));
+        }
+        final var next = sequence + 1;
+        final var slotOffset = slotOffset(next, slotCount, slotSize);
+        setRelease(buffer, slotOffset + SLOT_SEQUENCE_OFFSET, 0);
+        final var slotMat = new Mat(height, width, type,
+            buffer.slice(slotOffset + SLOT_HEADER_SIZE, (int) frameBytes));
+        image.copyTo(slotMat);
+        buffer.putLong(slotOffset + SLOT_TIMESTAMP_OFFSET, timestampNanos);
+        setRelease(buffer, slotOffset + SLOT_SEQUENCE_OFFSET, next);
+        setRelease(buffer, SEQUENCE_OFFSET, next);
+        sequence = next;
+        return next;
+    }
+
+    @Override
+    public void close() throws IOException {
+        setRelease(buffer, CLOSED_OFFSET, 1);
+        buffer.force();
+        channel.close();
+        LOGGER.info(String.format("Frame ring closed after %s frames", sequence));
+    }
+}
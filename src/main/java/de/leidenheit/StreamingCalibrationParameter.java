@@ -0,0 +1,42 @@
+package de.leidenheit;
+
+public record StreamingCalibrationParameter(
+    int minKeyframes,               // 10
+    int maxKeyframes,               // 40
+    double minSharpness,            // 60
+    double minPoseDistance,         // 0.15
+    double maxCornerMotion,         // 2.0
+    double maxTrackingError,        // 20
+    double maxForwardBackwardError, // 1.0
+    int detectionMaxSide,           // 960
+    int convergenceWindow,          // 3
+    double convergenceThreshold     // 0.01
+) {
+
+    /**
+     * Instantiates a {@link StreamingCalibrationParameter} with the following parameters:
+     *  - keyframes = min 10, max 40
+     *  - sharpness = variance of laplacian of at least 60 inside the board
+     *  - pose distance = 0.15 to every accepted keyframe unless new image cells are covered
+     *  - corner motion = at most 2 pixels per frame for a keyframe
+     *  - tracking = lost once a corner has a Lucas-Kanade error above 20 or tracks back
+     *    more than 1 pixel away from its origin
+     *  - detection on frames downscaled to 960 pixels on the longer side
+     *  - convergence = reprojection error varies less than 0.01 over 3 calibrations
+     *
+     * @return Returns an instance of {@link StreamingCalibrationParameter} with default parameters
+     */
+    public static StreamingCalibrationParameter defaultParameter() {
+        return new StreamingCalibrationParameter(
+            10,
+            40,
+            60,
+            0.15,
+            2.0,
+            20,
+            1.0,
+            960,
+            3,
+            0.01);
+    }
+}
@@ -0,0 +1,426 @@
+package de.leidenheit;
+
+import org.opencv.calib3d.Calib3d;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfByte;
+import org.opencv.core.MatOfDouble;
+import org.opencv.core.MatOfFloat;
+import org.opencv.core.MatOfPoint2f;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Size;
+import org.opencv.core.TermCriteria;
+import org.opencv.imgproc.Imgproc;
+import org.opencv.video.Video;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Calibrates a camera from a stream of {@link Frame}s showing a moving chessboard.
+ * Between frames the board corners are tracked with pyramidal Lucas-Kanade optical
+ * flow; a full chessboard search on a downscaled frame only runs when the track is lost,
+ * i.e. a corner has a high tracking error or does not track back to where it came from.
+ * A frame becomes a keyframe when the board was tracked from the previous frame and
+ * barely moves, is sharp enough and adds new
+ * coverage of the image or a new pose; only then the corners are confirmed with a
+ * chessboard search restricted to the board region and refined to subpixel accuracy.
+ * Once enough keyframes are collected the calibration is updated on a background thread
+ * with every new keyframe. The stream is abandoned as soon as the reprojection error
+ * has converged.
+ */
+public final class StreamingCalibrator implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(StreamingCalibrator.class.getSimpleName());
+    private static final int COVERAGE_GRID = 4;
+    private static final TermCriteria SUBPIX_CRITERIA =
+        new TermCriteria(TermCriteria.EPS + TermCriteria.MAX_ITER, 60, 0.001);
+
+    private final CameraParameter cameraParameter;
+    private final StreamingCalibrationParameter parameter;
+    private final Size patternSize;
+    private final ChessboardData chessboardData = ChessboardData.init();
+    private final List<double[]> keyframePoses = new ArrayList<>();
+    private final boolean[] coveredCells = new boolean[COVERAGE_GRID * COVERAGE_GRID];
+    private final List<Double> reprojectionErrors = new ArrayList<>();
+    private final ExecutorService calibrationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final var thread = new Thread(runnable, "streaming-calibration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Future<CalibrationData> runningCalibration;
+    private CalibrationData latestCalibration;
+    private Mat previousGray;
+    private MatOfPoint2f previousCorners;
+
+    public StreamingCalibrator(
+        final CameraParameter cameraParameter,
+        final StreamingCalibrationParameter parameter) {
+        this.cameraParameter = cameraParameter;
+        this.parameter = parameter;
+        this.patternSize = new Size(
+            cameraParameter.calibrationPatternWidth(),
+            cameraParameter.calibrationPatternHeight());
+    }
+
+    /**
+     * Consumes frames until the reprojection error converged, the maximum number of
+     * keyframes is reached or the source is exhausted.
+     *
+     * @param frameSource {@link FrameSource} showing the chessboard
+     * @param saveToFiles if true the final calibration is saved into src/resources/
+     * @return {@link CalibrationData} or null if not enough keyframes were found
+     * @throws InterruptedException if interrupted while waiting for the calibration
+     */
+    public CalibrationData calibrate(final FrameSource frameSource, final boolean saveToFiles)
+        throws InterruptedException {
+
+        var frames = 0;
+        Frame frame;
+        while ((frame = frameSource.next()) != null) {
+            frames++;
+            processFrame(frame.image());
+            collectCalibration(false);
+            if (hasConverged() || chessboardData.imagePoints().size() >= parameter.maxKeyframes()) {
+                break;
+            }
+        }
+        collectCalibration(true);
+        LOGGER.info(String.format("Streaming calibration stopped after %s frames with %s keyframes; converged=%s",
+            frames, chessboardData.imagePoints().size(), hasConverged()));
+        if (chessboardData.imagePoints().size() < parameter.minKeyframes()) {
+            LOGGER.warning("Not enough keyframes for a calibration");
+            return null;
+        }
+        if (saveToFiles) {
+            return CameraCalibrator.calibrate(cameraParameter, chessboardData, true);
+        }
+        return latestCalibration;
+    }
+
+    /**
+     * Tracks or detects the chessboard in a frame and adds it as keyframe if it qualifies.
+     *
+     * @param image BGR or gray frame {@link Mat}
+     * @return true if the frame was accepted as keyframe
+     */
+    public boolean processFrame(final Mat image) {
+        final var gray = new Mat();
+        if (image.channels() == 1) {
+            image.copyTo(gray);
+        } else {
+            Imgproc.cvtColor(image, gray, Imgproc.COLOR_BGR2GRAY);
+        }
+
+        final var trackedCorners = track(gray);
+        final var corners = trackedCorners != null ? trackedCorners : detect(gray);
+        final var previous = previousCorners;
+        previousGray = gray;
+        previousCorners = corners;
+        // a detection tells nothing about the motion; the board has to be tracked over one frame first
+        if (trackedCorners == null || meanDisplacement(previous, trackedCorners) > parameter.maxCornerMotion()) {
+            return false;
+        }
+
+        final var points = corners.toArray();
+        final var pose = pose(points, gray.size());
+        final var newCells = newlyCoveredCells(points, gray.size());
+        if (newCells.isEmpty() && minPoseDistance(pose) < parameter.minPoseDistance()) {
+            return false;
+        }
+        final var boardRect = boardRect(points, gray.size());
+        final var sharpness = sharpness(gray.submat(boardRect));
+        if (sharpness < parameter.minSharpness()) {
+            return false;
+        }
+        final var confirmedCorners = confirm(gray, boardRect);
+        if (confirmedCorners == null) {
+            return false;
+        }
+
+        newCells.forEach(cell -> coveredCells[cell] = true);
+        keyframePoses.add(pose);
+        chessboardData.objectPoints().add(CameraCalibrator.getCorner3f(cameraParameter));
+        chessboardData.imagePoints().add(confirmedCorners);
+        previousCorners = confirmedCorners;
+        LOGGER.info(String.format("Keyframe %s accepted (sharpness=%.1f; new cells=%s)",
+            chessboardData.imagePoints().size(), sharpness, newCells.size()));
+        return true;
+    }
+
+    private MatOfPoint2f track(final Mat gray) {
+        if (previousCorners == null || previousGray == null) {
+            return null;
+        }
+        final var trackedCorners = new MatOfPoint2f();
+        final var status = new MatOfByte();
+        final var error = new MatOfFloat();
+        final var opticalFlowCall = NativeCallEvent.begin("Video.calcOpticalFlowPyrLK");
+        Video.calcOpticalFlowPyrLK(
+            previousGray,
+            gray,
+            previousCorners,
+            trackedCorners,
+            status,
+            error,
+            new Size(21, 21),
+            3);
+        opticalFlowCall.complete();
+        if (!isTracked(status, error)) {
+            return null;
+        }
+        final var backTrackedCorners = new MatOfPoint2f();
+        final var backOpticalFlowCall = NativeCallEvent.begin("Video.calcOpticalFlowPyrLK");
+        Video.calcOpticalFlowPyrLK(
+            gray,
+            previousGray,
+            trackedCorners,
+            backTrackedCorners,
+            status,
+            error,
+            new Size(21, 21),
+            3);
+        backOpticalFlowCall.complete();
+        if (!isTracked(status, error)) {
+            return null;
+        }
+        final var originPoints = previousCorners.toArray();
+        final var backTrackedPoints = backTrackedCorners.toArray();
+        for (int i = 0; i < originPoints.length; i++) {
+            if (distance(originPoints[i], backTrackedPoints[i]) > parameter.maxForwardBackwardError()) {
+                return null;
+            }
+        }
+        return trackedCorners;
+    }
+
+    private boolean isTracked(final MatOfByte status, final MatOfFloat error) {
+        for (var tracked : status.toArray()) {
+            if (tracked == 0) {
+                return false;
+            }
+        }
+        for (var trackingError : error.toArray()) {
+            if (trackingError > parameter.maxTrackingError()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private MatOfPoint2f detect(final Mat gray) {
+        final var scale = Math.min(1d, (double) parameter.detectionMaxSide() / Math.max(gray.width(), gray.height()));
+        final Mat searchImage;
+        if (scale < 1d) {
+            searchImage = new Mat();
+            Imgproc.resize(gray, searchImage, new Size(gray.width() * scale, gray.height() * scale), 0, 0,
+                Imgproc.INTER_AREA);
+        } else {
+            searchImage = gray;
+        }
+        final var corners = new MatOfPoint2f();
+        final var findCornersCall = NativeCallEvent.begin("Calib3d.findChessboardCorners");
+        final var found = Calib3d.findChessboardCorners(
+            searchImage,
+            patternSize,
+            corners,
+            Calib3d.CALIB_CB_ADAPTIVE_THRESH + Calib3d.CALIB_CB_NORMALIZE_IMAGE + Calib3d.CALIB_CB_FAST_CHECK);
+        findCornersCall.complete();
+        if (!found) {
+            return null;
+        }
+        final var points = corners.toArray();
+        for (var point : points) {
+            point.x /= scale;
+            point.y /= scale;
+        }
+        return new MatOfPoint2f(points);
+    }
+
+    /**
+     * Searches the chessboard at full resolution within the board region only.
+     */
+    private MatOfPoint2f confirm(final Mat gray, final Rect boardRect) {
+        final var roi = gray.submat(boardRect);
+        final var corners = new MatOfPoint2f();
+        final var findCornersCall = NativeCallEvent.begin("Calib3d.findChessboardCorners");
+        final var found = Calib3d.findChessboardCorners(
+            roi,
+            patternSize,
+            corners,
+            Calib3d.CALIB_CB_ADAPTIVE_THRESH + Calib3d.CALIB_CB_NORMALIZE_IMAGE);
+        findCornersCall.complete();
+        if (!found) {
+            return null;
+        }
+        final var cornerSubPixCall = NativeCallEvent.begin("Imgproc.cornerSubPix");
+        Imgproc.cornerSubPix(roi, corners, new Size(10.5, 10.5), new Size(-1, -1), SUBPIX_CRITERIA);
+        cornerSubPixCall.complete();
+        final var points = corners.toArray();
+        for (var point : points) {
+            point.x += boardRect.x;
+            point.y += boardRect.y;
+        }
+        return new MatOfPoint2f(points);
+    }
+
+    /**
+     * Describes the board pose by its normalized center, size, perspective tilt and rotation.
+     */
+    private double[] pose(final Point[] points, final Size imageSize) {
+        final var width = cameraParameter.calibrationPatternWidth();
+        final var topLeft = points[0];
+        final var topRight = points[width - 1];
+        final var bottomRight = points[points.length - 1];
+        final var bottomLeft = points[points.length - width];
+        final var diagonal = Math.hypot(imageSize.width, imageSize.height);
+        final var top = distance(topLeft, topRight);
+        final var bottom = distance(bottomLeft, bottomRight);
+        final var left = distance(topLeft, bottomLeft);
+        final var right = distance(topRight, bottomRight);
+        return new double[]{
+            (topLeft.x + topRight.x + bottomRight.x + bottomLeft.x) / 4 / imageSize.width,
+            (topLeft.y + topRight.y + bottomRight.y + bottomLeft.y) / 4 / imageSize.height,
+            Math.sqrt((top + bottom) / 2 * (left + right) / 2) / diagonal,
+            (top - bottom) / Math.max(top, bottom),
+            (left - right) / Math.max(left, right),
+            Math.atan2(topRight.y - topLeft.y, topRight.x - topLeft.x) / Math.PI
+        };
+    }
+
+    private double minPoseDistance(final double[] pose) {
+        var minDistance = Double.MAX_VALUE;
+        for (var keyframePose : keyframePoses) {
+            var sum = 0d;
+            for (int i = 0; i < pose.length; i++) {
+                sum += (pose[i] - keyframePose[i]) * (pose[i] - keyframePose[i]);
+            }
+            minDistance = Math.min(minDistance, Math.sqrt(sum));
+        }
+        return minDistance;
+    }
+
+    private List<Integer> newlyCoveredCells(final Point[] points, final Size imageSize) {
+        final var cells = new ArrayList<Integer>();
+        for (var point : points) {
+            final var column = Math.min(COVERAGE_GRID - 1, Math.max(0, (int) (point.x / imageSize.width * COVERAGE_GRID)));
+            final var row = Math.min(COVERAGE_GRID - 1, Math.max(0, (int) (point.y / imageSize.height * COVERAGE_GRID)));
+            final var cell = row * COVERAGE_GRID + column;
+            if (!coveredCells[cell] && !cells.contains(cell)) {
+                cells.add(cell);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Bounding rectangle of the corners, enlarged by one square so the outer corners
+     * can still be found by the chessboard search.
+     */
+    private Rect boardRect(final Point[] points, final Size imageSize) {
+        var minX = Double.MAX_VALUE;
+        var minY = Double.MAX_VALUE;
+        var maxX = -Double.MAX_VALUE;
+        var maxY = -Double.MAX_VALUE;
+        for (var point : points) {
+            minX = Math.min(minX, point.x);
+            minY = Math.min(minY, point.y);
+            maxX = Math.max(maxX, point.x);
+            maxY = Math.max(maxY, point.y);
+        }
+        final var margin = Math.max(
+            (maxX - minX) / (cameraParameter.calibrationPatternWidth() - 1),
+            (maxY - minY) / (cameraParameter.calibrationPatternHeight() - 1));
+        final var left = (int) Math.max(0, minX - margin);
+        final var top = (int) Math.max(0, minY - margin);
+        final var right = (int) Math.min(imageSize.width, maxX + margin);
+        final var bottom = (int) Math.min(imageSize.height, maxY + margin);
+        return new Rect(left, top, Math.max(1, right - left), Math.max(1, bottom - top));
+    }
+
+    /**
+     * Variance of the laplacian; low values indicate a blurred board.
+     */
+    private static double sharpness(final Mat gray) {
+        final var laplacian = new Mat();
+        Imgproc.Laplacian(gray, laplacian, CvType.CV_64F);
+        final var mean = new MatOfDouble();
+        final var standardDeviation = new MatOfDouble();
+        Core.meanStdDev(laplacian, mean, standardDeviation);
+        final var deviation = standardDeviation.toArray()[0];
+        return deviation * deviation;
+    }
+
+    private static double meanDisplacement(final MatOfPoint2f from, final MatOfPoint2f to) {
+        final var fromPoints = from.toArray();
+        final var toPoints = to.toArray();
+        var sum = 0d;
+        for (int i = 0; i < fromPoints.length; i++) {
+            sum += distance(fromPoints[i], toPoints[i]);
+        }
+        return sum / fromPoints.length;
+    }
+
+    private static double distance(final Point a, final Point b) {
+        return Math.hypot(a.x - b.x, a.y - b.y);
+    }
+
+    /**
+     * Collects a finished background calibration and starts the next one
+     * if keyframes were added in the meantime.
+     */
+    private void collectCalibration(final boolean waitForCompletion) throws InterruptedException {
+        if (runningCalibration != null && (waitForCompletion || runningCalibration.isDone())) {
+            try {
+                latestCalibration = runningCalibration.get();
+                reprojectionErrors.add(latestCalibration.avgReprojectionErrors());
+                LOGGER.info(String.format("Calibration with %s keyframes: avgReprojectionErrors=%.4f",
+                    latestCalibration.rVectors().size(), latestCalibration.avgReprojectionErrors()));
+            } catch (ExecutionException exception) {
+                LOGGER.warning("Background calibration failed: " + exception.getCause());
+            }
+            runningCalibration = null;
+        }
+        final var keyframes = chessboardData.imagePoints().size();
+        final var calibratedKeyframes = latestCalibration == null ? 0 : latestCalibration.rVectors().size();
+        if (runningCalibration == null && keyframes >= parameter.minKeyframes() && keyframes > calibratedKeyframes) {
+            // keyframe Mats are never modified, a shallow copy of the lists is enough
+            final var snapshot = new ChessboardData(
+                new ArrayList<>(chessboardData.objectPoints()),
+                new ArrayList<>(chessboardData.imagePoints()));
+            runningCalibration = calibrationExecutor.submit(
+                () -> CameraCalibrator.calibrate(cameraParameter, snapshot, false));
+            if (waitForCompletion) {
+                collectCalibration(true);
+            }
+        }
+    }
+
+    private boolean hasConverged() {
+        final var window = parameter.convergenceWindow();
+        if (reprojectionErrors.size() < window) {
+            return false;
+        }
+        final var recent = reprojectionErrors.subList(reprojectionErrors.size() - window, reprojectionErrors.size());
+        final var min = recent.stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        final var max = recent.stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        return max - min <= parameter.convergenceThreshold();
+    }
+
+    public CalibrationData latestCalibration() {
+        return latestCalibration;
+    }
+
+    @Override
+    public void close() {
+        calibrationExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,123 @@
+package de.leidenheit;
+
+import org.opencv.aruco.Aruco;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Point;
+import org.opencv.core.Rect;
+import org.opencv.core.Scalar;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Generates frames of a flat board framed by the ArUco markers 0 to 3 in the
+ * order {@link DetectionUtil#extractArucoROI} expects them. The markers keep a quiet
+ * zone to the frame border and the board fills the area window of the
+ * {@link BoardAnalyzer} with its rings at the {@link DartboardRadianFactor} radii,
+ * so every detection stage has something to find. From a given frame
+ * on a dart tip is drawn at a given position, so the multi camera flow can be
+ * exercised without hardware.
+ */
+public final class SyntheticFrameSource implements FrameSource {
+
+    private static final int MARKER_SIZE = 140;
+    // white quiet zone of two marker cells (6x6 bits plus border) around each marker
+    private static final int MARKER_MARGIN = MARKER_SIZE / 4;
+
+    private final int frameSize;
+    private final int frameCount;
+    private final long startTimestampNanos;
+    private final long frameIntervalNanos;
+    private final Point dartTip;
+    private final int hitFrame;
+    private final Mat emptyBoard;
+    private int index;
+
+    /**
+     * @param frameSize width and height of the square frames
+     * @param frameCount number of frames until the source is exhausted
+     * @param startTimestampNanos timestamp of the first frame
+     * @param frameIntervalNanos timestamp interval between frames
+     * @param dartTip position of the dart tip in frame coordinates
+     * @param hitFrame index of the first frame showing the dart
+     */
+    public SyntheticFrameSource(
+        final int frameSize,
+        final int frameCount,
+        final long startTimestampNanos,
+        final long frameIntervalNanos,
+        final Point dartTip,
+        final int hitFrame) {
+        this.frameSize = frameSize;
+        this.frameCount = frameCount;
+        this.startTimestampNanos = startTimestampNanos;
+        this.frameIntervalNanos = frameIntervalNanos;
+        this.dartTip = dartTip;
+        this.hitFrame = hitFrame;
+        this.emptyBoard = renderEmptyBoard();
+    }
+
+    @Override
+    public Frame next() {
+        if (index >= frameCount) {
+            return null;
+        }
+        final var frameId = index++;
+        final var image = emptyBoard.clone();
+        if (frameId >= hitFrame) {
+            // dart barrel pointing upwards with the tip at the lowest point
+            Imgproc.line(
+                image,
+                new Point(dartTip.x, dartTip.y - 60),
+                dartTip,
+                new Scalar(20, 20, 200),
+                6);
+        }
+        return new Frame(
+            frameId,
+            startTimestampNanos + frameId * frameIntervalNanos,
+            image);
+    }
+
+    private Mat renderEmptyBoard() {
+        final var board = new Mat(frameSize, frameSize, CvType.CV_8UC3, new Scalar(255, 255, 255));
+        final var dictionary = Aruco.getPredefinedDictionary(Aruco.DICT_6X6_250);
+        final var near = MARKER_MARGIN;
+        final var far = frameSize - MARKER_MARGIN - MARKER_SIZE;
+        final int[][] markerOrigins = {{near, near}, {far, near}, {far, far}, {near, far}};
+        for (int markerId = 0; markerId < markerOrigins.length; markerId++) {
+            final var marker = new Mat();
+            Aruco.drawMarker(dictionary, markerId, MARKER_SIZE, marker);
+            final var markerBgr = new Mat();
+            Imgproc.cvtColor(marker, markerBgr, Imgproc.COLOR_GRAY2BGR);
+            markerBgr.copyTo(board.submat(new Rect(
+                markerOrigins[markerId][0],
+                markerOrigins[markerId][1],
+                MARKER_SIZE,
+                MARKER_SIZE)));
+        }
+        // the ROI spans the outer marker corners; the board covers 90% of its half side
+        final var center = new Point(frameSize / 2d, frameSize / 2d);
+        final var boardRadius = (int) (0.9 * (frameSize / 2d - MARKER_MARGIN));
+        Imgproc.circle(board, center, boardRadius, new Scalar(30, 30, 30), Imgproc.FILLED);
+        final var red = new Scalar(30, 30, 200);
+        final var green = new Scalar(30, 150, 30);
+        final var dark = new Scalar(30, 30, 30);
+        final float[] ringFactors = {
+            DartboardRadianFactor.QUADRANT_OUTER_DOUBLE,
+            DartboardRadianFactor.QUADRANT_INNER_DOUBLE,
+            DartboardRadianFactor.QUADRANT_OUTER_TRIPLE,
+            DartboardRadianFactor.QUADRANT_INNER_TRIPLE,
+            DartboardRadianFactor.BULL,
+            DartboardRadianFactor.BULLSEYE};
+        final Scalar[] ringColors = {red, dark, red, dark, green, red};
+        for (int i = 0; i < ringFactors.length; i++) {
+            Imgproc.circle(
+                board,
+                center,
+                (int) (2 * boardRadius * (ringFactors[i] / 100)),
+                ringColors[i],
+                Imgproc.FILLED);
+        }
+        return board;
+    }
+}
@@ -0,0 +1,71 @@
+package de.leidenheit;
+
+import org.opencv.core.Core;
+import org.opencv.core.Mat;
+import org.opencv.core.MatOfPoint;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+import java.util.ArrayList;
+
+public final class TipDetector {
+
+    private static final int DIFFERENCE_THRESHOLD = 40;
+    private static final double MIN_DART_AREA = 50;
+
+    /**
+     * Estimates the position of a dart tip in a board ROI by comparing it against
+     * a reference ROI of the empty board. The largest changed region is taken as the
+     * dart and its lowest point as the tip.
+     *
+     * @param referenceRoi {@link Mat} ROI without dart
+     * @param roi {@link Mat} ROI of the same camera possibly showing a dart
+     * @return {@link double[x, y, confidence]} or null if no dart is visible.
+     */
+    public static double[] estimateTip(final Mat referenceRoi, final Mat roi) {
+        final var difference = new Mat();
+        Core.absdiff(referenceRoi, roi, difference);
+        final var grayDifference = new Mat();
+        Imgproc.cvtColor(difference, grayDifference, Imgproc.COLOR_BGR2GRAY);
+        Imgproc.GaussianBlur(grayDifference, grayDifference, new Size(5, 5), 1);
+        final var mask = new Mat();
+        Imgproc.threshold(grayDifference, mask, DIFFERENCE_THRESHOLD, 255, Imgproc.THRESH_BINARY);
+
+        final var contours = new ArrayList<MatOfPoint>();
+        Imgproc.findContours(
+            mask,
+            contours,
+            new Mat(),
+            Imgproc.RETR_EXTERNAL,
+            Imgproc.CHAIN_APPROX_SIMPLE);
+        MatOfPoint dart = null;
+        var dartArea = MIN_DART_AREA;
+        for (MatOfPoint contour : contours) {
+            final var area = Imgproc.contourArea(contour);
+            if (area > dartArea) {
+                dart = contour;
+                dartArea = area;
+            }
+        }
+        if (dart == null) {
+            return null;
+        }
+
+        final var points = new int[(int) dart.total() * 2];
+        dart.get(0, 0, points);
+        var tipX = points[0];
+        var tipY = points[1];
+        for (int i = 2; i < points.length; i += 2) {
+            if (points[i + 1] > tipY) {
+                tipX = points[i];
+                tipY = points[i + 1];
+            }
+        }
+        final var confidence = Math.min(1d, dartArea / (MIN_DART_AREA * 10));
+        return new double[]{tipX, tipY, confidence};
+    }
+
+    private TipDetector() {
+        // hide constructor
+    }
+}
@@ -0,0 +1,69 @@
+package de.leidenheit;
+
+import org.opencv.calib3d.Calib3d;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+import org.opencv.imgproc.Imgproc;
+
+/**
+ * Caches the undistortion maps of a single camera, so every frame costs a single
+ * {@link Imgproc#remap} instead of a full {@link Calib3d#undistort}.
+ * The maps are replaced whenever the frame size changes; they come from the
+ * {@link CalibrationRegistry} with intrinsics derived for the new resolution and stay
+ * acquired until they are replaced or the map is closed. Not thread-safe; every camera pipeline owns its own instance.
+ */
+public final class UndistortionMap implements AutoCloseable {
+
+    private final String cameraId;
+    private CalibrationRegistry.UndistortionData undistortion;
+    private Size mapSize;
+
+    /**
+     * @param cameraId id of a camera of the {@link CalibrationRegistry}
+     */
+    public UndistortionMap(final String cameraId) {
+        this.cameraId = cameraId;
+    }
+
+    /**
+     * Undistorts a given image {@link Mat} with the cached maps.
+     *
+     * @param image {@link Mat}
+     * @return Returns the undistorted image {@link Mat}.
+     */
+    public Mat undistort(final Mat image) {
+        final var start = System.nanoTime();
+        final var undistortEvent = PipelineStageEvent.begin(PipelineStage.UNDISTORT);
+        final var size = image.size();
+        if (mapSize == null
+            || mapSize.width != size.width
+            || mapSize.height != size.height) {
+            final var replacement = CalibrationRegistry.getInstance().undistortion(cameraId, size);
+            if (replacement == null) {
+                throw new IllegalStateException("Camera " + cameraId + " has not been calibrated");
+            }
+            close();
+            undistortion = replacement;
+            mapSize = size;
+        }
+        final var undistorted = new Mat();
+        final var remapCall = NativeCallEvent.begin("Imgproc.remap");
+        Imgproc.remap(image, undistorted, undistortion.mapX(), undistortion.mapY(), Imgproc.INTER_LINEAR);
+        remapCall.complete();
+        undistortEvent.complete(image, -1, -1);
+        PipelineMetrics.getInstance().recordStage(PipelineStage.UNDISTORT, start);
+        return undistorted;
+    }
+
+    /**
+     * Releases the maps of the current frame size; the next frame acquires them again.
+     */
+    @Override
+    public void close() {
+        if (undistortion != null) {
+            undistortion.release();
+            undistortion = null;
+            mapSize = null;
+        }
+    }
+}
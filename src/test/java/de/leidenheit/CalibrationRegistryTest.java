@@ -0,0 +1,105 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalibrationRegistryTest {
+
+    @BeforeEach
+    void loadOpenCv() {
+        OpenCvTestSupport.assumeOpenCv();
+    }
+
+    @Test
+    void scalesIntrinsicsWithResolution() {
+        final var derived = CalibrationRegistry.derive(calibration(), new Size(1920, 1440), new Size(960, 720));
+
+        final var matrix = derived.cameraMatrix();
+        assertEquals(750, matrix.get(0, 0)[0], 1e-9);
+        assertEquals(750, matrix.get(1, 1)[0], 1e-9);
+        // pixel centers: (c + 0.5) * scale - 0.5
+        assertEquals(479.5, matrix.get(0, 2)[0], 1e-9);
+        assertEquals(359.5, matrix.get(1, 2)[0], 1e-9);
+    }
+
+    @Test
+    void cropsCenteredForOtherAspectRatio() {
+        final var derived = CalibrationRegistry.derive(calibration(), new Size(1920, 1440), new Size(1920, 1080));
+
+        final var matrix = derived.cameraMatrix();
+        assertEquals(1500, matrix.get(0, 0)[0], 1e-9);
+        assertEquals(959.5, matrix.get(0, 2)[0], 1e-9);
+        assertEquals(719.5 - 180, matrix.get(1, 2)[0], 1e-9);
+    }
+
+    @Test
+    void coversOtherAspectRatioFromWiderBase() {
+        // 4:3 from a 16:9 base: scaled by the height, cropped horizontally
+        final var derived = CalibrationRegistry.derive(calibration(), new Size(1920, 1080), new Size(1440, 1080));
+
+        final var matrix = derived.cameraMatrix();
+        assertEquals(1500, matrix.get(0, 0)[0], 1e-9);
+        assertEquals(959.5 - 240, matrix.get(0, 2)[0], 1e-9);
+        assertEquals(719.5, matrix.get(1, 2)[0], 1e-9);
+    }
+
+    @Test
+    void derivesPinholeForFrameResolution() {
+        final var derived = CalibrationRegistry.derive(
+            CalibrationRegistry.pinhole(), CalibrationRegistry.PINHOLE_RESOLUTION, new Size(1920, 1080));
+
+        final var matrix = derived.cameraMatrix();
+        assertEquals(1920, matrix.get(0, 0)[0], 1e-9);
+        assertEquals(1920, matrix.get(1, 1)[0], 1e-9);
+        assertEquals(959.5, matrix.get(0, 2)[0], 1e-9);
+        assertEquals(539.5, matrix.get(1, 2)[0], 1e-9);
+    }
+
+    @Test
+    void remembersMissingCalibrationUntilRegistered() {
+        final var registry = new CalibrationRegistry(2);
+        assertNull(registry.baseCalibration("not-calibrated"));
+        assertNull(registry.undistortion("not-calibrated", new Size(640, 480)));
+
+        final var calibration = calibration();
+        registry.register("not-calibrated", new Size(1920, 1440), calibration);
+
+        assertSame(calibration, registry.baseCalibration("not-calibrated"));
+        assertEquals(375, registry.calibration("not-calibrated", new Size(480, 360)).cameraMatrix().get(0, 0)[0], 1e-9);
+    }
+
+    @Test
+    void keepsEvictedMapsUntilReleased() {
+        final var registry = new CalibrationRegistry(1);
+        registry.register("camera", new Size(1920, 1440), calibration());
+        final var evicted = registry.undistortion("camera", new Size(960, 720));
+        final var cached = registry.undistortion("camera", new Size(480, 360));
+
+        assertFalse(evicted.mapX().empty());
+        evicted.release();
+        assertTrue(evicted.mapX().empty());
+
+        cached.release();
+        assertFalse(cached.mapX().empty());
+        assertSame(cached, registry.undistortion("camera", new Size(480, 360)));
+    }
+
+    private static CalibrationData calibration() {
+        final var cameraMatrix = Mat.zeros(3, 3, CvType.CV_64F);
+        cameraMatrix.put(0, 0, 1500);
+        cameraMatrix.put(1, 1, 1500);
+        cameraMatrix.put(0, 2, 959.5);
+        cameraMatrix.put(1, 2, 719.5);
+        cameraMatrix.put(2, 2, 1);
+        return new CalibrationData(cameraMatrix, Mat.zeros(1, 5, CvType.CV_64F), null, null, Double.NaN);
+    }
+}
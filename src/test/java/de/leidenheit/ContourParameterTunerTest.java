@@ -0,0 +1,51 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContourParameterTunerTest {
+
+    private static final ContourParameter PARAMETER = ContourParameter.defaultParameter();
+
+    @Test
+    void keepsOnlyNonDominatedCandidates() {
+        final var best = score(1.0, 0.01, 5);
+        final var fast = score(0.8, 0.02, 1);
+        final var dominated = score(0.8, 0.03, 6);
+        final var failing = score(0, Double.POSITIVE_INFINITY, 0.1);
+
+        final var paretoSet = ContourParameterTuner.paretoSet(List.of(dominated, fast, failing, best));
+
+        assertEquals(List.of(best, fast), paretoSet);
+    }
+
+    @Test
+    void gridCandidatesKeepCannyOrder() {
+        final var candidates = ContourParameterTuner.gridCandidates();
+        assertTrue(candidates.stream().allMatch(c -> c.cannyThresholdHigh() > c.cannyThresholdLow()));
+        assertEquals(10, ContourParameterTuner.randomCandidates(10, 7).size());
+        assertEquals(
+            ContourParameterTuner.randomCandidates(10, 7).stream().map(ContourParameterTunerTest::key).toList(),
+            ContourParameterTuner.randomCandidates(10, 7).stream().map(ContourParameterTunerTest::key).toList());
+    }
+
+    private static List<Double> key(final ContourParameter parameter) {
+        return List.of(
+            parameter.gaussFactor(),
+            parameter.cannyThresholdLow(),
+            parameter.cannyThresholdHigh(),
+            (double) parameter.dilateIterations(),
+            (double) parameter.erodeIterations());
+    }
+
+    private static ContourParameterTuner.CandidateScore score(
+        final double successRate,
+        final double fitDeviation,
+        final double latencyMillis) {
+        return new ContourParameterTuner.CandidateScore(PARAMETER, successRate, fitDeviation, latencyMillis);
+    }
+}
@@ -0,0 +1,19 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DetectionUtilTest {
+
+    @Test
+    void reducedDecodeFactorIsLargestPowerOfTwoWithinScale() {
+        assertEquals(1, DetectionUtil.reducedDecodeFactor(1.0));
+        assertEquals(1, DetectionUtil.reducedDecodeFactor(0.75));
+        assertEquals(2, DetectionUtil.reducedDecodeFactor(0.5));
+        assertEquals(2, DetectionUtil.reducedDecodeFactor(0.3));
+        assertEquals(4, DetectionUtil.reducedDecodeFactor(0.25));
+        assertEquals(8, DetectionUtil.reducedDecodeFactor(0.125));
+        assertEquals(8, DetectionUtil.reducedDecodeFactor(0.01));
+    }
+}
@@ -0,0 +1,87 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opencv.core.Point;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRecordsAcrossSegmentsAndContinuesAfterReopen() throws IOException {
+        try (final var journal = new EventJournal(directory, 4, 60_000)) {
+            for (int i = 0; i < 6; i++) {
+                journal.recordFrame("left", i, 1_000L * i, 2_000_000);
+            }
+        }
+        try (final var journal = new EventJournal(directory, 4, 60_000)) {
+            journal.recordHit(new FusedHit(
+                7_000,
+                new Point(12.5, 20),
+                0.75,
+                List.of(new CameraTipEstimate("left", 6, 7_000, new Point(12.5, 20), 0.75))));
+        }
+
+        try (final var reader = new EventJournalReader(directory)) {
+            for (int i = 0; i < 6; i++) {
+                assertTrue(reader.next());
+                assertEquals(i, reader.sequence());
+                assertEquals(EventJournal.Type.FRAME, reader.type());
+                assertEquals(i, reader.frameId());
+                assertEquals("left", reader.tag());
+                assertEquals(2f, reader.value(0));
+            }
+            assertTrue(reader.next());
+            assertEquals(6, reader.sequence());
+            assertEquals(EventJournal.Type.HIT, reader.type());
+            assertEquals(4, reader.valueCount());
+            assertEquals(12.5f, reader.value(0));
+            assertEquals(0.75f, reader.value(2));
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void continuesAfterLastCommittedRecordAndSkipsHoles() throws IOException {
+        try (final var journal = new EventJournal(directory, 4, 60_000)) {
+            for (int i = 0; i < 7; i++) {
+                journal.recordFrame("left", i, 1_000L * i, 2_000_000);
+            }
+        }
+        // a crash between claiming and committing sequence 4
+        try (final var channel = FileChannel.open(EventJournal.segmentPath(directory, 1), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES), EventJournal.COMMIT_OFFSET);
+        }
+        try (final var journal = new EventJournal(directory, 4, 60_000)) {
+            journal.recordFrame("left", 7, 7_000, 2_000_000);
+        }
+
+        try (final var reader = new EventJournalReader(directory)) {
+            for (var expected : new long[]{0, 1, 2, 3, 5, 6, 7}) {
+                assertTrue(reader.next());
+                assertEquals(expected, reader.sequence());
+                assertEquals(expected, reader.frameId());
+            }
+            assertFalse(reader.next());
+        }
+    }
+
+    @Test
+    void encodesTags() {
+        assertEquals("camera01", EventJournal.decodeTag(EventJournal.encodeTag("camera01-long")));
+        assertEquals("", EventJournal.decodeTag(EventJournal.encodeTag(null)));
+    }
+}
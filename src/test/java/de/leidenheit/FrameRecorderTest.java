@@ -0,0 +1,60 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.opencv.core.Scalar;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FrameRecorderTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void loadOpenCv() {
+        OpenCvTestSupport.assumeOpenCv();
+    }
+
+    @Test
+    void replaysRawFramesBitIdentical() throws IOException {
+        roundTrip(FrameRecorder.Compression.RAW);
+    }
+
+    @Test
+    void replaysPngFramesBitIdentical() throws IOException {
+        roundTrip(FrameRecorder.Compression.PNG);
+    }
+
+    private void roundTrip(final FrameRecorder.Compression compression) throws IOException {
+        final var file = directory.resolve("camera.frames");
+        final var images = new Mat[3];
+        try (final var recorder = new FrameRecorder(file, compression)) {
+            for (int i = 0; i < images.length; i++) {
+                images[i] = new Mat(48, 64, CvType.CV_8UC3, new Scalar(10 * i, 20 * i, 30 * i));
+                recorder.record(new Frame(i, 1_000_000L * i, images[i]));
+            }
+        }
+
+        try (final var source = new RecordedFrameSource(file, RecordedFrameSource.Pacing.MAX_SPEED)) {
+            assertEquals(images.length, source.frameCount());
+            for (int i = 0; i < images.length; i++) {
+                final var frame = source.next();
+                assertEquals(i, frame.frameId());
+                assertEquals(1_000_000L * i, frame.timestampNanos());
+                final var difference = new Mat();
+                Core.absdiff(images[i], frame.image(), difference);
+                assertEquals(0, Core.countNonZero(difference.reshape(1)));
+            }
+            assertNull(source.next());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Point;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FrameSynchronizerTest {
+
+    private static final long TOLERANCE = 10;
+
+    private final List<List<CameraTipEstimate>> groups = new ArrayList<>();
+    private final FrameSynchronizer synchronizer =
+        new FrameSynchronizer(List.of("left", "right"), TOLERANCE, groups::add);
+
+    @Test
+    void groupsEstimatesWithinTolerance() {
+        synchronizer.submit(estimate("left", 1, 100));
+        assertEquals(0, groups.size());
+        synchronizer.submit(estimate("right", 1, 105));
+
+        assertEquals(1, groups.size());
+        assertEquals(List.of("left", "right"), groups.get(0).stream().map(CameraTipEstimate::cameraId).toList());
+        assertEquals(0, synchronizer.droppedEstimates());
+    }
+
+    @Test
+    void dropsEstimatesOlderThanTheOtherCameras() {
+        synchronizer.submit(estimate("left", 1, 100));
+        synchronizer.submit(estimate("left", 2, 200));
+        synchronizer.submit(estimate("right", 1, 195));
+
+        assertEquals(1, groups.size());
+        assertEquals(2, groups.get(0).get(0).frameId());
+        assertEquals(1, synchronizer.droppedEstimates());
+    }
+
+    @Test
+    void dropsPendingEstimatesWhenACameraIsExhausted() {
+        synchronizer.submit(estimate("left", 1, 100));
+        synchronizer.submit(estimate("left", 2, 133));
+        synchronizer.complete("right");
+
+        assertEquals(0, groups.size());
+        assertEquals(2, synchronizer.droppedEstimates());
+    }
+
+    @Test
+    void emitsGroupsInTimestampOrderForConcurrentCameras() throws InterruptedException {
+        final var emitted = Collections.synchronizedList(new ArrayList<Long>());
+        final var concurrent = new FrameSynchronizer(
+            List.of("left", "right"), TOLERANCE, group -> emitted.add(group.get(0).timestampNanos()));
+        final var frames = 10_000;
+        final var threads = new ArrayList<Thread>();
+        for (var cameraId : List.of("left", "right")) {
+            threads.add(new Thread(() -> {
+                for (int frame = 0; frame < frames; frame++) {
+                    concurrent.submit(estimate(cameraId, frame, frame * 100L));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(frames, emitted.size());
+        assertEquals(emitted.stream().sorted().toList(), emitted);
+    }
+
+    private static CameraTipEstimate estimate(final String cameraId, final long frameId, final long timestampNanos) {
+        return new CameraTipEstimate(cameraId, frameId, timestampNanos, new Point(1, 2), 1);
+    }
+}
@@ -0,0 +1,55 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opencv.core.Point;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HitRecordingTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRecordedHitsBack() throws IOException {
+        final var file = directory.resolve(HitRecording.FILE_NAME);
+        final var hits = List.of(hit(2_000, 12.125, 20.5), hit(1_000, 0.1, 1e-7));
+        try (final var recording = new HitRecording(file)) {
+            hits.forEach(recording::record);
+        }
+
+        final var entries = HitRecording.read(file);
+
+        assertEquals(hits.stream().map(HitRecording.Entry::of).toList(), entries);
+    }
+
+    @Test
+    void reportsMissingAndMovedHits() {
+        final var recorded = List.of(entry(1_000, 10), entry(2_000, 20), entry(3_000, 30));
+
+        assertTrue(HitRecording.differences(recorded, List.of(entry(3_000, 30), entry(1_000, 10), entry(2_000, 20)), 0.01)
+            .isEmpty());
+        assertEquals(1, HitRecording.differences(recorded, List.of(entry(1_000, 10), entry(2_000, 20.5), entry(3_000, 30)), 0.01)
+            .size());
+        assertEquals(2, HitRecording.differences(recorded, List.of(entry(1_000, 10), entry(3_000, 30)), 0.01)
+            .size());
+    }
+
+    private static FusedHit hit(final long timestampNanos, final double x, final double y) {
+        return new FusedHit(
+            timestampNanos,
+            new Point(x, y),
+            0.75,
+            List.of(new CameraTipEstimate("left", 1, timestampNanos, new Point(x, y), 0.75)));
+    }
+
+    private static HitRecording.Entry entry(final long timestampNanos, final double x) {
+        return new HitRecording.Entry(timestampNanos, x, 5, 0.5, 2);
+    }
+}
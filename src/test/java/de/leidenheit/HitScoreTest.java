@@ -0,0 +1,51 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Point;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HitScoreTest {
+
+    private static final Point CENTER = new Point(500, 500);
+
+    @Test
+    void correctsAngleByMeasuredWires() {
+        final var geometry = rotatedBoard(6);
+        // 12 degrees lies in the 13 of the nominal board, but 6 degrees after the rotated wire of the 6
+        final var hit = pointAt(12, 250);
+
+        assertEquals(new HitScore(13, 1), HitScore.of(CENTER, geometry.sectorLimits(), hit));
+        assertEquals(new HitScore(6, 1), HitScore.of(geometry, hit));
+    }
+
+    @Test
+    void scoresRingsByMeasuredRadii() {
+        final var geometry = rotatedBoard(0);
+
+        assertEquals(new HitScore(25, 2), HitScore.of(geometry, pointAt(40, 5)));
+        assertEquals(new HitScore(20, 3), HitScore.of(geometry, pointAt(90, 182)));
+        assertEquals(new HitScore(3, 2), HitScore.of(geometry, pointAt(270, 295)));
+        assertEquals(new HitScore(11, 0), HitScore.of(geometry, pointAt(180, 320)));
+    }
+
+    private static PolarBoardGeometry rotatedBoard(final double rotation) {
+        final var ringRadii = new double[BoardRings.RingType.values().length];
+        // rings fall back to the factors of the board width
+        Arrays.fill(ringRadii, Double.NaN);
+        final var wireAngles = new double[PolarBoardGeometry.SECTORS];
+        for (int i = 0; i < wireAngles.length; i++) {
+            wireAngles[i] = 9 + i * PolarBoardGeometry.SECTOR_DEGREES + rotation;
+        }
+        return new PolarBoardGeometry(CENTER, 800, ringRadii, wireAngles, rotation);
+    }
+
+    private static Point pointAt(final double degrees, final double radius) {
+        // counter-clockwise with the image y axis pointing down
+        return new Point(
+            CENTER.x + radius * Math.cos(Math.toRadians(degrees)),
+            CENTER.y - radius * Math.sin(Math.toRadians(degrees)));
+    }
+}
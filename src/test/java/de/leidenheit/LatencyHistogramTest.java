@@ -0,0 +1,57 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveExactBuckets() {
+        for (long value = 0; value < 16; value++) {
+            final var index = LatencyHistogram.bucketIndex(value);
+            assertEquals(value, index);
+            assertEquals(value, LatencyHistogram.bucketUpperBound(index));
+        }
+    }
+
+    @Test
+    void bucketContainsValueWithinRelativeError() {
+        for (long value = 16; value < 1L << 40; value = value * 3 / 2 + 7) {
+            final var index = LatencyHistogram.bucketIndex(value);
+            final var upperBound = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(upperBound >= value, () -> "upper bound below value " + upperBound);
+            assertTrue(upperBound - value <= value / 16 + 1, () -> "bucket too wide for " + upperBound);
+            assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value);
+        }
+    }
+
+    @Test
+    void bucketsAreMonotonic() {
+        var previous = -1;
+        for (long value = 0; value < 100_000; value++) {
+            final var index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= previous);
+            previous = index;
+        }
+    }
+
+    @Test
+    void snapshotReportsPercentiles() {
+        final var histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1_000_000L);
+        }
+        histogram.record(-5);
+        final var snapshot = histogram.snapshot();
+        assertEquals(101, snapshot.count());
+        assertEquals(100_000_000L, snapshot.maxNanos());
+        assertEquals(50_000_000d, snapshot.p50Nanos(), 50_000_000d / 16);
+        assertEquals(99_000_000d, snapshot.p99Nanos(), 99_000_000d / 16);
+        assertTrue(snapshot.p50Nanos() <= snapshot.p90Nanos() && snapshot.p90Nanos() <= snapshot.p99Nanos());
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().count());
+    }
+}
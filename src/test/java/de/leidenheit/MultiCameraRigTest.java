@@ -0,0 +1,56 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Point;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MultiCameraRigTest {
+
+    @Test
+    void rejectsSingleOutlierOfThreeCameras() {
+        final var hit = MultiCameraRig.fuse(List.of(
+            estimate("left", 0, 0, 1),
+            estimate("top", 0, 0, 1),
+            estimate("right", 100, 0, 1)), 25);
+
+        assertNotNull(hit);
+        assertEquals(2, hit.contributingEstimates().size());
+        assertEquals(0, hit.boardPoint().x, 1e-9);
+        assertEquals(0, hit.boardPoint().y, 1e-9);
+    }
+
+    @Test
+    void dropsHitWhenNoTwoCamerasAgree() {
+        assertNull(MultiCameraRig.fuse(List.of(
+            estimate("left", 0, 0, 1),
+            estimate("top", 100, 0, 1),
+            estimate("right", 200, 200, 1)), 25));
+    }
+
+    @Test
+    void weightsByConfidence() {
+        final var hit = MultiCameraRig.fuse(List.of(
+            estimate("left", 0, 0, 0.25),
+            estimate("right", 10, 0, 0.75)), 25);
+
+        assertNotNull(hit);
+        assertEquals(7.5, hit.boardPoint().x, 1e-9);
+        assertEquals(0.5, hit.confidence(), 1e-9);
+    }
+
+    @Test
+    void ignoresCamerasWithoutTip() {
+        assertNull(MultiCameraRig.fuse(List.of(
+            new CameraTipEstimate("left", 1, 0, null, 0),
+            estimate("right", 10, 0, 0)), 25));
+    }
+
+    private static CameraTipEstimate estimate(final String cameraId, final double x, final double y, final double confidence) {
+        return new CameraTipEstimate(cameraId, 1, 0, new Point(x, y), confidence);
+    }
+}
@@ -0,0 +1,27 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Assumptions;
+
+/**
+ * Skips tests that need the OpenCV native library when it cannot be loaded.
+ */
+final class OpenCvTestSupport {
+
+    private static Boolean available;
+
+    static synchronized void assumeOpenCv() {
+        if (available == null) {
+            try {
+                NativeLibraryLoader.load();
+                available = true;
+            } catch (UnsatisfiedLinkError | RuntimeException exception) {
+                available = false;
+            }
+        }
+        Assumptions.assumeTrue(available, "OpenCV native library not available");
+    }
+
+    private OpenCvTestSupport() {
+        // hide constructor
+    }
+}
@@ -0,0 +1,53 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Point;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolarUnwrapEngineTest {
+
+    @Test
+    void refinesInteriorPeakWithinHalfABin() {
+        final var profile = new double[]{0, 1, 4, 9, 8.9, 2, 0};
+
+        final var peak = PolarUnwrapEngine.peak(profile, 1, 5, 0, false);
+
+        assertEquals(3.49, peak, 0.01);
+    }
+
+    @Test
+    void rejectsMaximumOnTheBorderOfTheWindow() {
+        // the window ends on the rising flank of a peak outside of it
+        final var profile = new double[]{0, 1, 2, 3, 5, 8, 9, 3, 0};
+
+        assertTrue(Double.isNaN(PolarUnwrapEngine.peak(profile, 1, 4, 0, false)));
+    }
+
+    @Test
+    void sectorLimitsFallBackToFactorsForNonMonotonicRadii() {
+        final var ringRadii = new double[BoardRings.RingType.values().length];
+        Arrays.fill(ringRadii, Double.NaN);
+        // a bull below the bullseye like the refinement produced before it was bounded
+        ringRadii[BoardRings.RingType.BULL.ordinal()] = -3.8;
+        final var geometry = new PolarBoardGeometry(new Point(500, 500), 800, ringRadii, new double[0], 0);
+
+        final var limits = geometry.sectorLimits();
+
+        assertEquals((int) (800 * (DartboardRadianFactor.BULL / 100)), limits.radiusBullLimit());
+        assertTrue(limits.radiusBullLimit() > limits.radiusBullsEyeLimit(), limits.toString());
+    }
+
+    @Test
+    void sectorLimitsKeepMonotonicMeasuredRadii() {
+        final var ringRadii = new double[BoardRings.RingType.values().length];
+        Arrays.fill(ringRadii, Double.NaN);
+        ringRadii[BoardRings.RingType.BULL.ordinal()] = 30;
+        final var geometry = new PolarBoardGeometry(new Point(500, 500), 800, ringRadii, new double[0], 0);
+
+        assertEquals(30, geometry.sectorLimits().radiusBullLimit());
+    }
+}
@@ -0,0 +1,88 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Scalar;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RansacEllipseDetectorTest {
+
+    @BeforeEach
+    void loadOpenCv() {
+        OpenCvTestSupport.assumeOpenCv();
+    }
+
+    @Test
+    void findsBoardOnBundledImages() {
+        final var cameraParameter = CameraParameter.defaultParameter();
+        final var mats = CameraCalibrator.loadCalibration(
+            "src/resources/camera-matrix.bin",
+            "src/resources/distortion-coefficients.bin");
+        final var calibrationData = new CalibrationData(mats[0], mats[1], null, null, Double.NaN);
+
+        final var imagePaths = new ArrayList<String>();
+        for (var imageSet : List.of("dartsboard/1080p", "dartsboard/temp_140")) {
+            imagePaths.addAll(new ResourceProvider().findFilePathsFromResourcePath(imageSet));
+        }
+        var rois = 0;
+        for (var imagePath : imagePaths) {
+            final var roiImage = BoardAnalyzer.extractRoi(imagePath, cameraParameter, calibrationData);
+            if (roiImage == null) {
+                continue;
+            }
+            rois++;
+            try (final var frameContext = new FrameContext(roiImage)) {
+                // unseeded, like -Dboard.ellipse=ransac in BoardAnalyzer
+                final var ellipse = new RansacEllipseDetector(EllipseRansacParameter.defaultParameter())
+                    .detect(frameContext);
+                assertNotNull(ellipse, "no board ellipse in " + imagePath);
+                final var roiCenter = BoardAnalyzer.ROI_SIZE / 2d;
+                assertTrue(Math.hypot(ellipse.center.x - roiCenter, ellipse.center.y - roiCenter)
+                    < BoardAnalyzer.ROI_SIZE * 0.15, "board off center in " + imagePath + ": " + ellipse);
+            }
+        }
+        assertTrue(rois > 0, "no aruco roi in the bundled images");
+    }
+
+    @Test
+    void matchesContourEllipseOfTheBoard() {
+        final var mats = CameraCalibrator.loadCalibration(
+            "src/resources/camera-matrix.bin",
+            "src/resources/distortion-coefficients.bin");
+        final var calibrationData = new CalibrationData(mats[0], mats[1], null, null, Double.NaN);
+        // contour parameter of the regression check, which fits the board outline on temp_140/1 and temp_140/3
+        final var contourParameter = new ContourParameter(11, 50, 150, 6, 2, 50, 0.01, new Scalar(31, 240, 255), 2);
+
+        for (var image : List.of("1.jpg", "3.jpg")) {
+            final var imagePath = new ResourceProvider().findFilePathsFromResourcePath("dartsboard/temp_140").stream()
+                .filter(path -> path.endsWith(image))
+                .findFirst()
+                .orElseThrow();
+            final var roiImage = BoardAnalyzer.extractRoi(imagePath, CameraParameter.defaultParameter(), calibrationData);
+            assertNotNull(roiImage, "no aruco roi in " + imagePath);
+            try (final var frameContext = new FrameContext(roiImage)) {
+                final var contourEllipse = BoardAnalyzer.findBoardEllipse(frameContext, contourParameter);
+                assertNotNull(contourEllipse, "no contour ellipse in " + imagePath);
+                final var ellipse = new RansacEllipseDetector(EllipseRansacParameter.defaultParameter())
+                    .detect(frameContext);
+                assertNotNull(ellipse, "no board ellipse in " + imagePath);
+
+                // an inner ring would be at most 75% of the outline, see DartboardRadianFactor
+                final var contourSize = contourEllipse.size.width + contourEllipse.size.height;
+                final var sizeRatio = (ellipse.size.width + ellipse.size.height) / contourSize;
+                assertTrue(Math.abs(sizeRatio - 1) < 0.05,
+                    "size off by " + sizeRatio + " in " + imagePath + ": " + ellipse + " vs " + contourEllipse);
+                final var centerOffset = Math.hypot(
+                    ellipse.center.x - contourEllipse.center.x,
+                    ellipse.center.y - contourEllipse.center.y);
+                assertTrue(centerOffset < 0.04 * contourSize / 2,
+                    "center off by " + centerOffset + " in " + imagePath + ": " + ellipse + " vs " + contourEllipse);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegressionHarnessTest {
+
+    private static final double[] CORNERS = {10, 10, 90, 10, 90, 90, 10, 90};
+    private static final double[] ELLIPSE = {50, 50, 80, 82, 10};
+    private static final DartboardSectorLimits LIMITS = new DartboardSectorLimits(2, 4, 25, 27, 39, 41);
+
+    @Test
+    void passesUnchangedRun() {
+        final var baseline = List.of(board("a"), board("b"), roiOnly("c"));
+
+        assertTrue(RegressionHarness.compare(baseline, baseline, 2, Double.NaN).isEmpty());
+    }
+
+    @Test
+    void failsWhenFewerBoardsAreDetected() {
+        final var baseline = List.of(board("a"), board("b"), roiOnly("c"));
+        final var current = List.of(board("a"), roiOnly("b"), roiOnly("c"));
+
+        final var violations = RegressionHarness.compare(baseline, current, 2, Double.NaN);
+
+        assertTrue(violations.contains("detected boards dropped from 2 to 1"), violations.toString());
+    }
+
+    @Test
+    void failsWhenFewerRoisAreFound() {
+        final var baseline = List.of(board("a"), roiOnly("b"));
+        final var current = List.of(board("a"), nothing("b"));
+
+        final var violations = RegressionHarness.compare(baseline, current, 2, Double.NaN);
+
+        assertEquals(List.of("b: aruco corners missing", "images with aruco roi dropped from 2 to 1"), violations);
+    }
+
+    private static RegressionHarness.ImageMeasurement board(final String image) {
+        return new RegressionHarness.ImageMeasurement(image, true, CORNERS, ELLIPSE, LIMITS, Map.of());
+    }
+
+    private static RegressionHarness.ImageMeasurement roiOnly(final String image) {
+        return new RegressionHarness.ImageMeasurement(image, false, CORNERS, null, null, Map.of());
+    }
+
+    private static RegressionHarness.ImageMeasurement nothing(final String image) {
+        return new RegressionHarness.ImageMeasurement(image, false, null, null, null, Map.of());
+    }
+}
@@ -0,0 +1,54 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opencv.core.Scalar;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingExtractorTest {
+
+    @BeforeEach
+    void loadOpenCv() {
+        OpenCvTestSupport.assumeOpenCv();
+    }
+
+    @Test
+    void extractsRingsAroundTheBoardEllipse() {
+        final var mats = CameraCalibrator.loadCalibration(
+            "src/resources/camera-matrix.bin",
+            "src/resources/distortion-coefficients.bin");
+        final var calibrationData = new CalibrationData(mats[0], mats[1], null, null, Double.NaN);
+        // contour parameter of the regression check, which finds the board on temp_140/1 and temp_140/3
+        final var contourParameter = new ContourParameter(11, 50, 150, 6, 2, 50, 0.01, new Scalar(31, 240, 255), 2);
+
+        for (var image : new String[]{"1.jpg", "3.jpg"}) {
+            final var imagePath = new ResourceProvider().findFilePathsFromResourcePath("dartsboard/temp_140").stream()
+                .filter(path -> path.endsWith(image))
+                .findFirst()
+                .orElseThrow();
+            final var roiImage = BoardAnalyzer.extractRoi(imagePath, CameraParameter.defaultParameter(), calibrationData);
+            assertNotNull(roiImage, "no aruco roi in " + imagePath);
+            try (final var frameContext = new FrameContext(roiImage)) {
+                final var boardEllipse = BoardAnalyzer.findBoardEllipse(frameContext, contourParameter);
+                assertNotNull(boardEllipse, "no board ellipse in " + imagePath);
+
+                final var rings = RingExtractor.extract(frameContext, boardEllipse, RingParameter.defaultParameter());
+
+                assertNotNull(rings, "no rings in " + imagePath);
+                // the double rings blend into the number ring in these images, the triple rings close
+                for (var type : new BoardRings.RingType[]{BoardRings.RingType.OUTER_TRIPLE, BoardRings.RingType.INNER_TRIPLE}) {
+                    final var ring = rings.ring(type);
+                    assertNotNull(ring, "no " + type + " in " + imagePath + ": " + rings);
+                    final var expectedRadius = BoardRings.width(boardEllipse) * type.factor() / 100;
+                    assertEquals(expectedRadius, BoardRings.width(ring.ellipse()) / 2,
+                        expectedRadius * RingParameter.defaultParameter().radiusTolerance(), imagePath);
+                }
+                final var limits = rings.sectorLimits();
+                assertTrue(limits.radiusOuterTripleLimit() > limits.radiusInnerTripleLimit(), limits.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package de.leidenheit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SampledLogTest {
+
+    @Test
+    void logsOncePerIntervalAndCountsSuppressed() throws InterruptedException {
+        final var logger = Logger.getLogger("SampledLogTest");
+        logger.setUseParentHandlers(false);
+        final var messages = new ArrayList<String>();
+        logger.addHandler(collecting(record -> messages.add(record.getMessage())));
+        final var sampledLog = SampledLog.everyMillis(50);
+        final var evaluations = new int[1];
+
+        for (int i = 0; i < 5; i++) {
+            sampledLog.info(logger, () -> {
+                evaluations[0]++;
+                return "message";
+            });
+        }
+        assertEquals(List.of("message"), messages);
+        assertEquals(1, evaluations[0]);
+
+        Thread.sleep(60);
+        sampledLog.info(logger, () -> "message");
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(1).contains("4 similar suppressed"), messages.get(1));
+    }
+
+    @Test
+    void skipsDisabledLevels() {
+        final var logger = Logger.getLogger("SampledLogTest.disabled");
+        logger.setLevel(Level.WARNING);
+        SampledLog.everyMillis(0).info(logger, () -> {
+            throw new AssertionError("message of a disabled level evaluated");
+        });
+    }
+
+    @Test
+    void attributesRecordsToTheCaller() {
+        final var logger = Logger.getLogger("SampledLogTest.caller");
+        logger.setUseParentHandlers(false);
+        final var records = new ArrayList<LogRecord>();
+        logger.addHandler(collecting(records::add));
+
+        SampledLog.everyMillis(0).info(logger, () -> "message");
+
+        assertEquals(1, records.size());
+        assertEquals(SampledLogTest.class.getName(), records.get(0).getSourceClassName());
+        assertEquals("attributesRecordsToTheCaller", records.get(0).getSourceMethodName());
+    }
+
+    private static Handler collecting(final Consumer<LogRecord> records) {
+        return new Handler() {
+            @Override
+            public void publish(final LogRecord record) {
+                records.accept(record);
+            }
+
+            @Override
+            public void flush() {
+                // nothing buffered
+            }
+
+            @Override
+            public void close() {
+                // nothing to release
+            }
+        };
+    }
+}